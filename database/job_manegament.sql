@@ -52,9 +52,16 @@ CREATE TABLE IF NOT EXISTS `tasks` (
   `user_id` bigint DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `FK6s1ob9k4ihi75xbxe2w0ylsdh` (`user_id`),
+  KEY `idx_tasks_user_status_created` (`user_id`,`status`,`createddate`),
+  KEY `idx_tasks_status_created` (`status`,`createddate`),
+  KEY `idx_tasks_created` (`createddate`),
+  FULLTEXT KEY `ft_tasks_title_description` (`title`,`description`),
   CONSTRAINT `FK6s1ob9k4ihi75xbxe2w0ylsdh` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=23 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
+-- The task search needs ft_tasks_title_description; ddl-auto cannot create FULLTEXT indexes,
+-- so TaskSearchIndexInitializer adds it on startup to a tasks table that lacks it.
+
 -- Đang kết xuất đổ dữ liệu cho bảng job_management.tasks: ~21 rows (xấp xỉ)
 INSERT INTO `tasks` (`id`, `createby`, `createddate`, `updateby`, `updateddate`, `allow_user_update`, `deadline`, `description`, `status`, `title`, `user_id`) VALUES
 	(1, NULL, '2026-01-14 09:56:17.446766', NULL, '2026-01-15 16:14:11.084118', b'1', '2026-03-27', 'task for 543', 'IN_PROGRESS', 'task 543', 2),
@@ -79,6 +86,23 @@ INSERT INTO `tasks` (`id`, `createby`, `createddate`, `updateby`, `updateddate`,
 	(21, NULL, '2026-01-20 08:43:04.630228', NULL, '2026-01-20 08:43:37.092197', b'1', '2026-01-23', 'task for vo van b', 'IN_PROGRESS', 'task for vo van b', 8),
 	(22, NULL, '2026-01-20 09:38:57.996051', NULL, '2026-01-21 14:10:25.392712', b'0', '2026-01-23', 'task 3', 'IN_PROGRESS', 'task 3', 2);
 
+-- Đang kết xuất đổ cấu trúc cho bảng job_management.task_stats
+CREATE TABLE IF NOT EXISTS `task_stats` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `createby` varchar(255) DEFAULT NULL,
+  `createddate` datetime(6) DEFAULT NULL,
+  `updateby` varchar(255) DEFAULT NULL,
+  `updateddate` datetime(6) DEFAULT NULL,
+  `bucket_date` date NOT NULL,
+  `status` enum('CANCELED','DONE','IN_PROGRESS','OPEN') NOT NULL,
+  `task_count` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_task_stats_user_status_day` (`user_id`,`status`,`bucket_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- task_stats is filled from tasks by the rebuild on first startup
+
 -- Đang kết xuất đổ cấu trúc cho bảng job_management.task_history
 CREATE TABLE IF NOT EXISTS `task_history` (
   `id` bigint NOT NULL AUTO_INCREMENT,
@@ -114,6 +138,57 @@ INSERT INTO `task_history` (`id`, `createby`, `createddate`, `updateby`, `update
 	(15, NULL, '2026-01-20 09:39:32.849294', NULL, '2026-01-20 09:39:32.849294', '{"id": 22, "title": "task 3", "status": "IN_PROGRESS", "deadline": [2026, 1, 23], "description": "task 3", "assignedUserId": 9, "allowUserUpdate": false}', '{"id": 22, "title": "task 3", "status": "IN_PROGRESS", "deadline": [2026, 1, 23], "description": "task 3", "assignedUserId": 9, "allowUserUpdate": true}', 22, 1),
 	(16, NULL, '2026-01-21 14:10:25.620609', NULL, '2026-01-21 14:10:25.620609', '{"id": 22, "title": "task 3", "status": "IN_PROGRESS", "deadline": [2026, 1, 23], "description": "task 3", "assignedUserId": 2, "allowUserUpdate": false}', '{"id": 22, "title": "task 3", "status": "IN_PROGRESS", "deadline": [2026, 1, 23], "description": "task 3", "assignedUserId": 9, "allowUserUpdate": false}', 22, 1);
 
+-- Đang kết xuất đổ cấu trúc cho bảng job_management.task_history_archive
+CREATE TABLE IF NOT EXISTS `task_history_archive` (
+  `id` bigint NOT NULL,
+  `createddate` datetime(6) DEFAULT NULL,
+  `updateddate` datetime(6) DEFAULT NULL,
+  `archiveddate` datetime(6) NOT NULL,
+  `new_data` json DEFAULT NULL,
+  `old_data` json DEFAULT NULL,
+  `task_id` bigint NOT NULL,
+  `updated_by` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_task_history_archive_task` (`task_id`,`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- task_history_archive is filled from task_history by the nightly archival job
+
+-- Đang kết xuất đổ cấu trúc cho bảng job_management.task_history_outbox
+CREATE TABLE IF NOT EXISTS `task_history_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `createddate` datetime(6) NOT NULL,
+  `new_data` json DEFAULT NULL,
+  `old_data` json DEFAULT NULL,
+  `task_id` bigint NOT NULL,
+  `updated_by` bigint NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- task_history_outbox holds committed history until TaskHistoryOutboxWorker moves it to task_history
+
+-- Đang kết xuất đổ cấu trúc cho bảng job_management.mail_outbox
+CREATE TABLE IF NOT EXISTS `mail_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `createby` varchar(255) DEFAULT NULL,
+  `createddate` datetime(6) DEFAULT NULL,
+  `updateby` varchar(255) DEFAULT NULL,
+  `updateddate` datetime(6) DEFAULT NULL,
+  `attachment_content` longtext,
+  `attachment_name` varchar(255) DEFAULT NULL,
+  `attempts` int NOT NULL,
+  `content_hash` varchar(64) NOT NULL,
+  `html_content` text NOT NULL,
+  `last_error` varchar(1000) DEFAULT NULL,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `recipient` varchar(255) NOT NULL,
+  `sent_at` datetime(6) DEFAULT NULL,
+  `status` enum('FAILED','PENDING','SENT') NOT NULL,
+  `subject` varchar(255) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_mail_outbox_status_next` (`status`,`next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
 -- Đang kết xuất đổ cấu trúc cho bảng job_management.users
 CREATE TABLE IF NOT EXISTS `users` (
   `id` bigint NOT NULL AUTO_INCREMENT,
@@ -36,12 +36,17 @@ const TaskHistoryModal: React.FC<Props> = ({ open, onClose, taskId }) => {
   const [loading, setLoading] = useState<boolean>(false);
   const [error, setError] = useState<string | null>(null);
   const [detail, setDetail] = useState<TaskHistoryResponse | null>(null);
+  const [page, setPage] = useState<number>(0);
+  const [hasNext, setHasNext] = useState<boolean>(false);
+  const [loadingMore, setLoadingMore] = useState<boolean>(false);
 
   useEffect(() => {
     if (!open) {
       setHistory([]);
       setError(null);
       setLoading(false);
+      setPage(0);
+      setHasNext(false);
       return;
     }
 
@@ -50,6 +55,7 @@ const TaskHistoryModal: React.FC<Props> = ({ open, onClose, taskId }) => {
     const fetchHistory = async () => {
       if (taskId === null) {
         setHistory([]);
+        setHasNext(false);
         return;
       }
 
@@ -57,8 +63,12 @@ const TaskHistoryModal: React.FC<Props> = ({ open, onClose, taskId }) => {
       setError(null);
 
       try {
-        const res = (await getTaskHistory(taskId)) as TaskHistoryResponse[];
-        if (!cancelled) setHistory(res);
+        const res = await getTaskHistory(taskId);
+        if (!cancelled) {
+          setHistory(res.data);
+          setPage(0);
+          setHasNext(Boolean(res.hasNext));
+        }
       } catch (e: any) {
         console.error("Error fetching task history:", e);
         if (!cancelled) setError(e?.message || "Failed to load history");
@@ -75,6 +85,22 @@ const TaskHistoryModal: React.FC<Props> = ({ open, onClose, taskId }) => {
   }, [taskId, open]);
 
   if (!open) return null;
+  const handleLoadMore = async () => {
+    if (taskId === null || !hasNext) return;
+    setLoadingMore(true);
+    setError(null);
+    try {
+      const res = await getTaskHistory(taskId, page + 1);
+      setHistory((prev) => [...prev, ...res.data]);
+      setPage(page + 1);
+      setHasNext(Boolean(res.hasNext));
+    } catch (e: any) {
+      console.error("Error fetching more task history:", e);
+      setError(e?.message || "Failed to load history");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
   const handleClose = () => {
     setDetail(null);
     onClose();
@@ -211,6 +237,17 @@ const TaskHistoryModal: React.FC<Props> = ({ open, onClose, taskId }) => {
                   ))}
                 </tbody>
               </table>
+              {hasNext && (
+                <div className="flex justify-center pt-3">
+                  <button
+                    onClick={handleLoadMore}
+                    disabled={loadingMore}
+                    className={`px-3 py-1 bg-blue-500 text-white rounded disabled:opacity-50 ${loadingMore ? "cursor-not-allowed" : "cursor-pointer"}`}
+                  >
+                    {loadingMore ? "Loading..." : "Load more"}
+                  </button>
+                </div>
+              )}
             </div>
           )}
         </div>
@@ -1,9 +1,10 @@
 import apiClient from "../lib/apt-client-sp";
-import type { TaskHistoryResponse } from "../types/type";
+import type { PaginatedResponse, TaskHistoryResponse } from "../types/type";
 
-export async function getTaskHistory(taskId: number) {
+// One page, newest first; no total count, the list pages on hasNext
+export async function getTaskHistory(taskId: number, page = 0, size = 20) {
   try {
-    const res = await apiClient.get(`/task-histories/by-task-id?taskId=${taskId}`) as TaskHistoryResponse[]; 
+    const res = await apiClient.get(`/task-histories/by-task-id?taskId=${taskId}&page=${page}&size=${size}&includeTotal=false`) as PaginatedResponse<TaskHistoryResponse>;
     return res;
   } catch (e) {
     console.error(`Error fetching history for task with id ${taskId}:`, e);
@@ -0,0 +1,108 @@
+package com.vku.job.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.vku.job.entities.Role;
+import com.vku.job.entities.User;
+import com.vku.job.filters.JwtAuthenticationFilter;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.services.auth.CustomUserDetailsService;
+import com.vku.job.services.auth.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Cost of authenticating one request in JwtAuthenticationFilter.
+ * The user repository is stubbed; in the steady state the principal comes
+ * from the cache, so only token handling is measured.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+    private static final String SECRET_KEY = "NBZzu/XN0IgTPw/EfJgOkYD+tK5JdLLhQdNkUsPl2AU=";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(10_000);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        token = jwtService.generateAccessToken(user);
+
+        Role role = new Role();
+        role.setName("Administrators");
+        user.setRoles(List.of(role));
+        filter = new JwtAuthenticationFilter(jwtService, new CustomUserDetailsService(userRepository(user), 60, 100));
+    }
+
+    // repository stub: only findById is used once the principal cache is warm
+    private static UserJpaRepository userRepository(User user) {
+        return (UserJpaRepository) Proxy.newProxyInstance(
+                UserJpaRepository.class.getClassLoader(),
+                new Class<?>[] { UserJpaRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // whole filter: claims verified once, then served from the cache
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // cached verification alone
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtService.verify(token);
+    }
+
+    // previous behaviour: key decoded and parser built on every call, and the
+    // token parsed for the username, validity check (3x) and controller user id
+    @Benchmark
+    public void uncachedParsing(Blackhole blackhole) {
+        for (int i = 0; i < 5; i++) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+            Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            blackhole.consume(claims);
+        }
+    }
+}
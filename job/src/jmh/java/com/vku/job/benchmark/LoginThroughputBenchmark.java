@@ -0,0 +1,81 @@
+package com.vku.job.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.vku.job.services.auth.AdaptiveBCryptPasswordEncoder;
+import com.vku.job.services.auth.OtpHasher;
+
+/**
+ * Logins per second on one core: the password check of /api/auth/login at
+ * each BCrypt cost (every step halves throughput), and an OTP check with the
+ * old BCrypt hash versus the HMAC.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class LoginThroughputBenchmark {
+    private static final String PASSWORD = "Nhan@123456";
+    private static final String EMAIL = "user@gmail.com";
+    private static final String OTP = "482913";
+
+    @Param({ "10", "11", "12" })
+    public int cost;
+
+    private PasswordEncoder passwordEncoder;
+    private String storedPassword;
+
+    @Setup
+    public void setUp() {
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        passwordEncoder = encoder;
+        storedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean passwordLogin() {
+        return passwordEncoder.matches(PASSWORD, storedPassword);
+    }
+
+    // OTP checks do not depend on the password cost
+    @State(Scope.Benchmark)
+    public static class OtpState {
+        final PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        final OtpHasher hmac = new OtpHasher("c2VjcmV0LWtleS1mb3ItdGhlLWJlbmNobWFyay0xMjM0NQ==");
+        String bcryptHash;
+        String hmacHash;
+
+        @Setup
+        public void setUp() {
+            bcryptHash = bcrypt.encode(OTP);
+            hmacHash = hmac.hash(EMAIL, OTP);
+        }
+    }
+
+    @Benchmark
+    public boolean otpBcrypt(OtpState state) {
+        return state.bcrypt.matches(OTP, state.bcryptHash);
+    }
+
+    @Benchmark
+    public boolean otpHmac(OtpState state) {
+        return state.hmac.matches(EMAIL, OTP, state.hmacHash);
+    }
+}
@@ -0,0 +1,73 @@
+package com.vku.job.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Time to serve a burst of blocking requests with Tomcat's default platform
+ * pool (200 threads) versus one virtual thread per request
+ * (spring.threads.virtual.enabled). Each request blocks for ioMillis, like a
+ * call waiting on the database or the mail API.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModelBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "1000" })
+    public int requests;
+
+    @Param({ "20" })
+    public int ioMillis;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // one burst of concurrent requests, finished when the last one returns
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int id = i;
+            responses.add(executor.submit(() -> {
+                Thread.sleep(ioMillis);
+                return id;
+            }));
+        }
+        int sum = 0;
+        for (Future<Integer> response : responses) {
+            sum += response.get();
+        }
+        return sum;
+    }
+}
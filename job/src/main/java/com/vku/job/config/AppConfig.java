@@ -1,14 +1,22 @@
 package com.vku.job.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.observation.ObservationRegistry;
+
 @Configuration
 public class AppConfig {
+    // on the shared outbound pool (HttpClientConfig)
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory outboundRequestFactory,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        RestTemplate restTemplate = new RestTemplate(outboundRequestFactory);
+        restTemplate.setObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        return restTemplate;
     }
 
 }
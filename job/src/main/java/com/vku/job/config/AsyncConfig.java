@@ -0,0 +1,49 @@
+package com.vku.job.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor for {@code @Async} methods and mail outbox deliveries: one virtual
+ * thread per call, so waiting on the mail API does not hold a platform thread.
+ * The concurrency limit bounds how many calls run at once; outbound Brevo calls
+ * are capped separately in BrevoMailSender.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Value("${app.async.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Value("${app.async.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public SimpleAsyncTaskExecutor asyncExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        // let queued mails finish on shutdown
+        executor.setTaskTerminationTimeout(shutdownTimeoutMs);
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async call {} failed", method.getName(), ex);
+    }
+}
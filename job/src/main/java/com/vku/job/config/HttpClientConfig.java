@@ -0,0 +1,105 @@
+package com.vku.job.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * The one HTTP client every outbound call goes through (Google, Brevo): a
+ * keep-alive connection pool with a total and a per-host limit, connect and
+ * response timeouts, and a short lease timeout. A slow host can hold at most
+ * max-per-route connections; further callers fail after the lease timeout
+ * instead of queueing request threads behind it.
+ * Pool usage is published as httpcomponents.httpclient.pool.* gauges and call
+ * latency as the http.client.requests timer.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${app.http.client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${app.http.client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${app.http.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http.client.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    @Value("${app.http.client.lease-timeout-ms:2000}")
+    private long leaseTimeoutMs;
+
+    @Value("${app.http.client.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.http.client.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        // re-check connections that sat idle before reusing them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        // recycle long-lived connections so DNS changes are picked up
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory outboundRequestFactory(CloseableHttpClient outboundHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+    }
+
+    @Bean
+    public MeterBinder outboundPoolMetrics(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(outboundConnectionManager, "outbound");
+    }
+
+    // a fresh builder per injection point, already on the shared pool and observed
+    @Bean
+    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+    public RestClient.Builder outboundRestClientBuilder(HttpComponentsClientHttpRequestFactory outboundRequestFactory,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return RestClient.builder()
+                .requestFactory(outboundRequestFactory)
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
@@ -3,7 +3,9 @@ package com.vku.job.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,7 +13,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,6 +24,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.vku.job.exceptions.CustomAccessDeniedHandler;
 import com.vku.job.exceptions.CustomAuthenticationEntryPoint;
 import com.vku.job.filters.JwtAuthenticationFilter;
+import com.vku.job.services.auth.AdaptiveBCryptPasswordEncoder;
 
 import lombok.RequiredArgsConstructor;
 
@@ -50,6 +53,9 @@ public class SecurityConfig {
                                                 .requestMatchers("/swagger-ui.html*").permitAll()
                                                 .requestMatchers("/swagger-ui/**").permitAll()
                                                 .requestMatchers("/v3/api-docs/**").permitAll()
+                                                .requestMatchers("/actuator/health").permitAll()
+                                                .requestMatchers("/actuator/**")
+                                                .hasAnyRole("Administrators")
                                                 .requestMatchers(HttpMethod.POST, "/api/tasks")
                                                 .hasAllRoles("Administrators")
                                                 .requestMatchers(HttpMethod.GET, "/api/tasks")
@@ -58,6 +64,12 @@ public class SecurityConfig {
                                                 .hasAnyRole("Administrators")
                                                 .requestMatchers("/api/tasks/export")
                                                 .hasAnyRole("Administrators")
+                                                .requestMatchers(HttpMethod.POST, "/api/tasks/export-jobs")
+                                                .hasAnyRole("Administrators")
+                                                .requestMatchers("/api/tasks/batch")
+                                                .hasAnyRole("Administrators")
+                                                .requestMatchers("/api/tasks/import")
+                                                .hasAnyRole("Administrators")
                                                 .requestMatchers("/api/tasks/search-by-title")
                                                 .hasAnyRole("Administrators")
                                                 .requestMatchers("/api/tasks/filter-by-status")
@@ -95,8 +107,20 @@ public class SecurityConfig {
                 return source;
         }
 
+        // BCrypt at a cost calibrated to the target hash time (or a fixed cost when set).
+        // Hashes are stored as {bcrypt}...; older unprefixed hashes still match and are
+        // rehashed on login, as are hashes of a lower cost.
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(
+                        @Value("${app.security.bcrypt.cost:0}") int fixedCost,
+                        @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+                        @Value("${app.security.bcrypt.min-cost:10}") int minCost,
+                        @Value("${app.security.bcrypt.max-cost:14}") int maxCost) {
+                int cost = fixedCost > 0 ? fixedCost
+                                : AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minCost, maxCost);
+                AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(cost);
+                DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+                encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+                return encoder;
         }
 }
\ No newline at end of file
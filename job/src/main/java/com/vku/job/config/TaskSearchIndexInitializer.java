@@ -0,0 +1,53 @@
+package com.vku.job.config;
+
+import java.sql.DatabaseMetaData;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the FULLTEXT index behind the task search on startup.
+ * Hibernate's ddl-auto cannot declare FULLTEXT indexes, so databases created
+ * from the entities would otherwise miss it. InnoDB keeps the index up to date
+ * on every insert, update and delete of a task.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndexInitializer implements ApplicationRunner {
+
+    static final String INDEX_NAME = "ft_tasks_title_description";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            String database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            if (!"MySQL".equalsIgnoreCase(database)) {
+                log.info("Skipping task search index on {}", database);
+                return;
+            }
+
+            Integer existing = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'tasks' AND index_name = ?
+                    """, Integer.class, INDEX_NAME);
+            if (existing != null && existing > 0) {
+                return;
+            }
+
+            log.info("Creating FULLTEXT index {} on tasks(title, description)", INDEX_NAME);
+            jdbcTemplate.execute("ALTER TABLE tasks ADD FULLTEXT INDEX " + INDEX_NAME + " (title, description)");
+        } catch (Exception e) {
+            log.warn("Could not create task search index: {}", e.getMessage());
+        }
+    }
+}
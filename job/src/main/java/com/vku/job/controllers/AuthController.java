@@ -16,9 +16,12 @@ import com.vku.job.dtos.auth.RegisterResponseDto;
 import com.vku.job.dtos.auth.ResetPasswordRequestDto;
 import com.vku.job.dtos.auth.VerifyEmailRequestDto;
 import com.vku.job.services.UserService;
+import com.vku.job.services.ratelimit.AuthRateLimiter;
+import com.vku.job.services.ratelimit.ClientIpResolver;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -28,9 +31,17 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthRateLimiter rateLimiter;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @PostMapping("/login")
     @Operation(summary = "User Login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<LoginResponseDto> login(@RequestBody @Valid LoginRequestDto request) throws Exception {
+    public ResponseEntity<LoginResponseDto> login(@RequestBody @Valid LoginRequestDto request,
+            HttpServletRequest httpRequest) throws Exception {
+        rateLimiter.check(AuthRateLimiter.LOGIN, clientIpResolver.resolve(httpRequest), request.getUsername());
         LoginResponseDto result = userService.login(request);
         return ResponseEntity.ok(result);
     }
@@ -52,7 +63,9 @@ public class AuthController {
 
     @PostMapping("/verify-email")
     @Operation(summary = "Verify Email", description = "Verify user's email using OTP")
-    public ResponseEntity<Void> verifyEmail(@RequestBody @Valid VerifyEmailRequestDto request) {
+    public ResponseEntity<Void> verifyEmail(@RequestBody @Valid VerifyEmailRequestDto request,
+            HttpServletRequest httpRequest) {
+        rateLimiter.check(AuthRateLimiter.OTP, clientIpResolver.resolve(httpRequest), request.getEmail());
         userService.verifyEmail(request.getEmail(), request.getOtp());
         return ResponseEntity.ok().build();
     }
@@ -68,7 +81,9 @@ public class AuthController {
     // forgot password - check otp
     @PostMapping("/check-reset-password-otp")
     @Operation(summary = "Check Reset Password OTP", description = "Check the OTP sent for password reset")
-    public ResponseEntity<Void> checkResetPasswordOtp(@RequestBody @Valid VerifyEmailRequestDto request) {
+    public ResponseEntity<Void> checkResetPasswordOtp(@RequestBody @Valid VerifyEmailRequestDto request,
+            HttpServletRequest httpRequest) {
+        rateLimiter.check(AuthRateLimiter.OTP, clientIpResolver.resolve(httpRequest), request.getEmail());
         userService.checkResetPasswordOtp(request);
         return ResponseEntity.ok().build();
     }
@@ -76,7 +91,9 @@ public class AuthController {
     // reset password
     @PostMapping("/reset-password")
     @Operation(summary = "Reset Password", description = "Reset user's password using OTP")
-    public ResponseEntity<Void> resetPassword(@RequestBody @Valid ResetPasswordRequestDto request) {
+    public ResponseEntity<Void> resetPassword(@RequestBody @Valid ResetPasswordRequestDto request,
+            HttpServletRequest httpRequest) {
+        rateLimiter.check(AuthRateLimiter.OTP, clientIpResolver.resolve(httpRequest), request.getEmail());
         userService.resetPassword(request);
         return ResponseEntity.ok().build();
     }
@@ -4,15 +4,14 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.vku.job.dtos.statistics.TaskForUserResponse;
 import com.vku.job.dtos.statistics.TaskSummaryResponse;
+import com.vku.job.resolvers.CurrentUserId;
 import com.vku.job.services.StatisticsService;
-import com.vku.job.services.auth.JwtService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -27,9 +26,6 @@ public class StatisticsController {
     @Autowired
     private StatisticsService statisticsService;
 
-    @Autowired
-    private JwtService jwtService;
-
     @GetMapping("/summary-by-status")
     @Operation(summary = "Get Task Summary by Status", description = "Retrieve task summary grouped by status within an optional date range")
     public List<TaskSummaryResponse> getTaskSummaryByStatus(
@@ -57,11 +53,9 @@ public class StatisticsController {
     @GetMapping("/summary-me")
     @Operation(summary = "Get My Task Summary", description = "Retrieve task summary for the authenticated user within an optional date range")
     public List<TaskSummaryResponse> getMyTaskStatistics(
-            @RequestHeader("Authorization") String authorization,
+            @CurrentUserId Long userId,
             @RequestParam(value = "createdAtFrom", required = false) String createdAtFrom,
             @RequestParam(value = "createdAtTo", required = false) String createdAtTo) {
-        String token = authorization.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
         return statisticsService.getTaskStatisticsByUser(userId, createdAtFrom, createdAtTo);
     }
 
@@ -3,28 +3,41 @@ package com.vku.job.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.vku.job.dtos.PaginatedResponseDto;
+import com.vku.job.dtos.task.BulkUpdateTaskRequestDto;
 import com.vku.job.dtos.task.CreateTaskRequestDto;
+import com.vku.job.dtos.task.ExportJobResponseDto;
 import com.vku.job.dtos.task.FilterTaskRequestDto;
+import com.vku.job.dtos.task.TaskBatchResponseDto;
+import com.vku.job.dtos.task.TaskImportResponseDto;
 import com.vku.job.dtos.task.TaskResponseDto;
 import com.vku.job.dtos.task.UpdateTaskByUserRequestDto;
 import com.vku.job.dtos.task.UpdateTaskRequestDto;
-import com.vku.job.services.TaskExportService;
+import com.vku.job.resolvers.CurrentUserId;
 import com.vku.job.services.TaskService;
-import com.vku.job.services.auth.JwtService;
+import com.vku.job.services.export.ExportJob;
+import com.vku.job.services.export.TaskExportJobService;
+import com.vku.job.services.export.TaskExporter;
+import com.vku.job.services.export.TaskExporterRegistry;
+import com.vku.job.services.imports.TaskImportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -41,10 +54,13 @@ public class TaskController {
     private TaskService taskService;
 
     @Autowired
-    private TaskExportService taskExportService;
+    private TaskExporterRegistry taskExporterRegistry;
 
     @Autowired
-    private JwtService jwtService;
+    private TaskExportJobService taskExportJobService;
+
+    @Autowired
+    private TaskImportService taskImportService;
 
     @PostMapping
     @Operation(summary = "Create Task", description = "Create a new task with the provided details")
@@ -54,14 +70,42 @@ public class TaskController {
         return ResponseEntity.status(201).body(taskResponseDto);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create Tasks in Batch", description = "Create many tasks in one request; invalid items are skipped and reported with their index")
+    public ResponseEntity<TaskBatchResponseDto> createTasks(@RequestBody List<CreateTaskRequestDto> createTaskRequestDtos) {
+        TaskBatchResponseDto response = taskService.addTasks(createTaskRequestDtos);
+        return ResponseEntity.status(201).body(response);
+    }
+
+    @PatchMapping("/batch")
+    @Operation(summary = "Bulk Update Tasks", description = "Set the status, assignee and/or deadline of many tasks; unknown ids are reported per item")
+    public ResponseEntity<TaskBatchResponseDto> bulkUpdateTasks(
+            @RequestBody @Valid BulkUpdateTaskRequestDto bulkUpdateTaskRequestDto,
+            @CurrentUserId Long userId) {
+        TaskBatchResponseDto response = taskService.bulkUpdateTasks(bulkUpdateTaskRequestDto, userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import Tasks", description = "Create tasks from an .xlsx or .csv file with the columns Title, Description, Deadline (yyyy-MM-dd), Status, Assignee (username or full name) and Allow User Update; returns the rows that were skipped")
+    public ResponseEntity<TaskImportResponseDto> importTasks(@RequestPart("file") MultipartFile file) {
+        TaskImportResponseDto response = taskImportService.importTasks(file);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
-    @Operation(summary = "Get All Tasks", description = "Retrieve a paginated list of all tasks with optional sorting")
+    @Operation(summary = "Get All Tasks", description = "Retrieve a paginated list of all tasks with optional sorting. Pass a cursor (empty for the first page) to use keyset pagination")
     public ResponseEntity<PaginatedResponseDto<TaskResponseDto>> getTasks(
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
             @RequestParam(name = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(name = "order", defaultValue = "asc") String order) {
-        return ResponseEntity.ok(taskService.getAllTasks(page, size, sortBy, order));
+            @RequestParam(name = "order", defaultValue = "asc") String order,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal) {
+        if (cursor != null) {
+            return ResponseEntity.ok(taskService.getAllTasksByCursor(cursor, size, sortBy, order));
+        }
+        return ResponseEntity.ok(taskService.getAllTasks(page, size, sortBy, order, includeTotal));
 
     }
 
@@ -82,9 +126,7 @@ public class TaskController {
     @PatchMapping
     @Operation(summary = "Update Task", description = "Update task details by its ID")
     public ResponseEntity<TaskResponseDto> updateTask(@RequestBody @Valid UpdateTaskRequestDto updateTaskRequestDto,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
+            @CurrentUserId Long userId) {
         TaskResponseDto updatedTask = taskService.updateTask(updateTaskRequestDto, userId);
         return ResponseEntity.ok(updatedTask);
     }
@@ -96,9 +138,14 @@ public class TaskController {
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
             @RequestParam(name = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(name = "order", defaultValue = "asc") String order) {
+            @RequestParam(name = "order", defaultValue = "asc") String order,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal) {
+        if (cursor != null) {
+            return ResponseEntity.ok(taskService.getTasksByUserIdByCursor(userId, cursor, size, sortBy, order));
+        }
         PaginatedResponseDto<TaskResponseDto> tasksByUser = taskService.getTasksByUserId(userId, page, size, sortBy,
-                order);
+                order, includeTotal);
         return ResponseEntity.ok(tasksByUser);
     }
 
@@ -106,24 +153,28 @@ public class TaskController {
     @Operation(summary = "Update Task by User", description = "Allow a user to update their own task details")
     public ResponseEntity<TaskResponseDto> updateTaskByUser(
             @RequestBody @Valid UpdateTaskByUserRequestDto updateTaskRequestDto,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
+            @CurrentUserId Long userId) {
         TaskResponseDto updatedTask = taskService.updateTaskByUser(updateTaskRequestDto, userId);
         return ResponseEntity.ok(updatedTask);
     }
 
     @GetMapping("/by-user/search-title")
-    @Operation(summary = "Get Tasks by User and Title", description = "Retrieve a paginated list of tasks for a specific user filtered by title with optional sorting")
+    @Operation(summary = "Get Tasks by User and Title", description = "Full-text search (title and description, word prefixes) over the tasks of a specific user; sortBy=relevance ranks by match score")
     public ResponseEntity<PaginatedResponseDto<TaskResponseDto>> getTasksByUserAndTitle(
             @RequestParam("userId") Long userId,
             @RequestParam("title") String title,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
-            @RequestParam(name = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(name = "order", defaultValue = "asc") String order) {
+            @RequestParam(name = "sortBy", defaultValue = "relevance") String sortBy,
+            @RequestParam(name = "order", defaultValue = "asc") String order,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal) {
+        if (cursor != null) {
+            return ResponseEntity.ok(
+                    taskService.getTasksByUserAndTitleByCursor(userId, title, cursor, size, sortBy, order));
+        }
         PaginatedResponseDto<TaskResponseDto> tasksByUserAndTitle = taskService.getTasksByUserAndTitle(userId, title,
-                page, size, sortBy, order);
+                page, size, sortBy, order, includeTotal);
         return ResponseEntity.ok(tasksByUserAndTitle);
     }
 
@@ -131,9 +182,7 @@ public class TaskController {
     @Operation(summary = "Get Tasks by User and Status", description = "Retrieve a paginated list of tasks for the authenticated user filtered by status and other criteria")
     public ResponseEntity<PaginatedResponseDto<TaskResponseDto>> getTasksByUserAndStatus(
             @RequestBody FilterTaskRequestDto filterTaskRequestDto,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
+            @CurrentUserId Long userId) {
         filterTaskRequestDto.setUserId(userId);
         PaginatedResponseDto<TaskResponseDto> tasksByUserAndStatus = taskService.getTasksByUserAndStatus(
                 filterTaskRequestDto);
@@ -141,14 +190,20 @@ public class TaskController {
     }
 
     @GetMapping("/search-by-title")
-    @Operation(summary = "Search Tasks by Title", description = "Search for tasks by title with pagination and sorting")
+    @Operation(summary = "Search Tasks by Title", description = "Full-text search over task title and description with word prefix matching; sortBy=relevance ranks by match score")
     public ResponseEntity<PaginatedResponseDto<TaskResponseDto>> searchTasksByTitle(
             @RequestParam("title") String title,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
-            @RequestParam(name = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(name = "order", defaultValue = "asc") String order) {
-        PaginatedResponseDto<TaskResponseDto> tasks = taskService.searchTasksByTitle(title, page, size, sortBy, order);
+            @RequestParam(name = "sortBy", defaultValue = "relevance") String sortBy,
+            @RequestParam(name = "order", defaultValue = "asc") String order,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal) {
+        if (cursor != null) {
+            return ResponseEntity.ok(taskService.searchTasksByTitleByCursor(title, cursor, size, sortBy, order));
+        }
+        PaginatedResponseDto<TaskResponseDto> tasks = taskService.searchTasksByTitle(title, page, size, sortBy, order,
+                includeTotal);
         return ResponseEntity.ok(tasks);
     }
 
@@ -163,34 +218,79 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
-    // export tasks to excel
+    // export tasks (xlsx, csv or ndjson), streamed to the response while rows are read
     @GetMapping("/export")
-    @Operation(summary = "Export Tasks to Excel", description = "Export all tasks to an Excel file")
-    public ResponseEntity<byte[]> exportTasks() {
-        List<TaskResponseDto> tasks = taskService.getTasksForExport();
+    @Operation(summary = "Export Tasks", description = "Export all tasks; format is xlsx (default), csv or ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(name = "format", defaultValue = "xlsx") String format) {
+        TaskExporter exporter = taskExporterRegistry.get(format);
 
-        byte[] excelStream = taskExportService.exportTasksToExcel(tasks);
+        StreamingResponseBody body = out -> taskService.streamTasksForExport(null,
+                tasks -> exporter.write(tasks, out));
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.xlsx")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelStream);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exporter.fileExtension())
+                .contentType(exporter.mediaType())
+                .body(body);
 
     }
 
     @GetMapping("/export-by-user")
-    @Operation(summary = "Export User's Tasks to Excel", description = "Export tasks assigned to the authenticated user to an Excel file")
-    public ResponseEntity<byte[]> exportTasksByUser(@RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
-        List<TaskResponseDto> tasks = taskService.getTasksForExportByUserId(userId);
+    @Operation(summary = "Export User's Tasks", description = "Export tasks assigned to the authenticated user; format is xlsx (default), csv or ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasksByUser(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "format", defaultValue = "xlsx") String format) {
+        TaskExporter exporter = taskExporterRegistry.get(format);
 
-        byte[] excelStream = taskExportService.exportTasksToExcel(tasks);
+        StreamingResponseBody body = out -> taskService.streamTasksForExport(userId,
+                tasks -> exporter.write(tasks, out));
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks_by_user.xlsx")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelStream);
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=tasks_by_user." + exporter.fileExtension())
+                .contentType(exporter.mediaType())
+                .body(body);
 
     }
-}
\ No newline at end of file
+
+    // background exports: queue a job, poll its progress, download the file when done
+    @PostMapping("/export-jobs")
+    @Operation(summary = "Start Task Export Job", description = "Export all tasks in the background; format is xlsx (default), csv or ndjson")
+    public ResponseEntity<ExportJobResponseDto> startExportJob(
+            @CurrentUserId Long ownerId,
+            @RequestParam(name = "format", defaultValue = "xlsx") String format) {
+        ExportJob job = taskExportJobService.submit(ownerId, null, format);
+        return ResponseEntity.accepted().body(job.toDto());
+    }
+
+    @PostMapping("/export-jobs/by-user")
+    @Operation(summary = "Start User's Task Export Job", description = "Export tasks assigned to the authenticated user in the background")
+    public ResponseEntity<ExportJobResponseDto> startExportJobByUser(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "format", defaultValue = "xlsx") String format) {
+        ExportJob job = taskExportJobService.submit(userId, userId, format);
+        return ResponseEntity.accepted().body(job.toDto());
+    }
+
+    @GetMapping("/export-jobs/{id}")
+    @Operation(summary = "Get Task Export Job", description = "Status and progress of an export job started by the authenticated user")
+    public ResponseEntity<ExportJobResponseDto> getExportJob(
+            @PathVariable("id") String id,
+            @CurrentUserId Long ownerId) {
+        return ResponseEntity.ok(taskExportJobService.getJob(id, ownerId).toDto());
+    }
+
+    @GetMapping("/export-jobs/{id}/download")
+    @Operation(summary = "Download Task Export", description = "Download the file of a finished export job")
+    public ResponseEntity<Resource> downloadExportJob(
+            @PathVariable("id") String id,
+            @CurrentUserId Long ownerId) {
+        ExportJob job = taskExportJobService.getFinishedJob(id, ownerId);
+        TaskExporter exporter = job.getExporter();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exporter.fileExtension())
+                .contentType(exporter.mediaType())
+                .body(new FileSystemResource(job.getFile()));
+    }
+}
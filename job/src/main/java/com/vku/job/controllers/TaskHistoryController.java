@@ -1,7 +1,5 @@
 package com.vku.job.controllers;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,8 +7,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.vku.job.dtos.PaginatedResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryDetailResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryResponse;
+import com.vku.job.dtos.task_history.TaskHistoryStateResponseDto;
 import com.vku.job.services.TaskHistoryService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,11 +27,13 @@ public class TaskHistoryController {
 
     // Get simple task histories by task ID
     @GetMapping("by-task-id")
-    @Operation(summary = "Get Task Histories by Task ID", description = "Retrieve simple task histories for a specific task")
-    public ResponseEntity<List<TaskHistoryResponse>> getTaskHistoriesByTaskId(@RequestParam("taskId") Long taskId) {
-        List<TaskHistoryResponse> histories = taskHistoryService.getSimpleTaskHistoriesByTaskId(taskId);
-        System.out.println(histories);
-        return ResponseEntity.ok(histories);
+    @Operation(summary = "Get Task Histories by Task ID", description = "Retrieve a paginated list of simple task histories for a specific task, newest first")
+    public ResponseEntity<PaginatedResponseDto<TaskHistoryResponse>> getTaskHistoriesByTaskId(
+            @RequestParam("taskId") Long taskId,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal) {
+        return ResponseEntity.ok(taskHistoryService.getSimpleTaskHistoriesByTaskId(taskId, page, size, includeTotal));
     }
 
     // Get task history detail by its ID
@@ -41,4 +43,11 @@ public class TaskHistoryController {
         TaskHistoryDetailResponseDto historyDetail = taskHistoryService.getTaskHistoriesDetailById(id);
         return ResponseEntity.ok(historyDetail);
     }
+
+    // Rebuild the task as it was at a history entry
+    @GetMapping("state-by-id")
+    @Operation(summary = "Get Task State at History Entry", description = "Rebuild the task fields right before and right after a specific task history entry")
+    public ResponseEntity<TaskHistoryStateResponseDto> getTaskStateById(@RequestParam("id") Long id) {
+        return ResponseEntity.ok(taskHistoryService.getTaskStateAt(id));
+    }
 }
@@ -8,7 +8,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
@@ -22,9 +21,9 @@ import com.vku.job.dtos.user.NameUserResponse;
 import com.vku.job.dtos.user.UserResponse;
 import com.vku.job.dtos.user_profile.UpdateUserProfileRequestDto;
 import com.vku.job.dtos.user_profile.UserProfileResponse;
+import com.vku.job.resolvers.CurrentUserId;
 import com.vku.job.services.UserProfileService;
 import com.vku.job.services.UserService;
-import com.vku.job.services.auth.JwtService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -42,9 +41,6 @@ public class UserController {
     @Autowired
     private UserProfileService userProfileService;
 
-    @Autowired
-    private JwtService jwtService;
-
     @GetMapping("/get-name")
     @Operation(summary = "Get All User Names", description = "Retrieve a list of all users' full names")
     public ResponseEntity<List<FullNameUserResponse>> getUserName() {
@@ -73,9 +69,7 @@ public class UserController {
     @GetMapping("/get-name-by-id")
     @Operation(summary = "Get My Name", description = "Retrieve the name of the authenticated user")
     public ResponseEntity<NameUserResponse> getNameUserById(
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
+            @CurrentUserId Long userId) {
         NameUserResponse response = userService.getNameUserById(userId);
         return ResponseEntity.ok(response);
     }
@@ -84,9 +78,7 @@ public class UserController {
     @GetMapping("/get-profile")
     @Operation(summary = "Get My Profile", description = "Retrieve the profile of the authenticated user")
     public ResponseEntity<UserProfileResponse> getProfileUserById(
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
+            @CurrentUserId Long userId) {
         UserProfileResponse response = userProfileService.getUserProfileByUserId(userId);
         return ResponseEntity.ok(response);
     }
@@ -95,11 +87,9 @@ public class UserController {
     @PatchMapping(value = "/update-profile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Update My Profile", description = "Update the profile of the authenticated user, including avatar upload")
     public ResponseEntity<UserProfileResponse> updateProfileUserById(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestPart(value = "avatar", required = false) MultipartFile avatar,
             @Valid @RequestPart("userProfileRequest") UpdateUserProfileRequestDto userProfileRequest) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
 
         UserProfileResponse response = userProfileService.updateUserProfile(userId,
                 avatar, userProfileRequest);
@@ -111,10 +101,8 @@ public class UserController {
     @PatchMapping("/change-password")
     @Operation(summary = "Change My Password", description = "Change the password of the authenticated user")
     public ResponseEntity<Void> changePassword(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUserId Long userId,
             @RequestBody @Valid ChangePassRequestDto changePassRequest) {
-        String token = authHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserIdFromToken(token);
         userService.changePassword(userId, changePassRequest);
         return ResponseEntity.ok().build();
     }
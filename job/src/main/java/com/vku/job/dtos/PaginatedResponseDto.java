@@ -11,8 +11,16 @@ public class PaginatedResponseDto<T> {
     private List<T> data;
     private int page;
     private int size;
+    // -1 when the total was not requested (slice or cursor mode)
     private long totalElements;
     private int totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
+    // opaque keyset cursor of the next page, only set in cursor mode
+    private String nextCursor;
+
+    public PaginatedResponseDto(List<T> data, int page, int size, long totalElements, int totalPages,
+            boolean hasNext, boolean hasPrevious) {
+        this(data, page, size, totalElements, totalPages, hasNext, hasPrevious, null);
+    }
 }
@@ -0,0 +1,22 @@
+package com.vku.job.dtos.task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class BulkUpdateTaskRequestDto {
+    @NotEmpty(message = "Task IDs are required")
+    private List<Long> ids;
+
+    // null fields are left unchanged, at least one must be set
+    @Pattern(regexp = "^(OPEN|IN_PROGRESS|DONE|CANCELED)$", message = "Status must be one of: OPEN, IN_PROGRESS, DONE, CANCELED")
+    private String status;
+
+    private Long assignedUserId;
+
+    private LocalDate deadline;
+}
@@ -0,0 +1,26 @@
+package com.vku.job.dtos.task;
+
+import java.time.LocalDateTime;
+
+import com.vku.job.enums.ExportJobStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExportJobResponseDto {
+    private String id;
+    private String format;
+    private ExportJobStatus status;
+    private long rowsWritten;
+    private long totalRows;
+    private int percent;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
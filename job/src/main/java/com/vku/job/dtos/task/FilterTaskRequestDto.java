@@ -16,4 +16,8 @@ public class FilterTaskRequestDto {
     private int size = 10;
     private String sortBy = "id";
     private String order = "asc";
+    // keyset cursor, null for offset pagination and blank for the first cursor page
+    private String cursor;
+    // false skips the COUNT query, totals are then returned as -1
+    private boolean includeTotal = true;
 }
@@ -0,0 +1,27 @@
+package com.vku.job.dtos.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskBatchItemDto {
+    // position of the item in the request
+    private int index;
+    private Long id;
+    private TaskResponseDto task;
+    // set when the item was skipped
+    private String error;
+
+    public static TaskBatchItemDto succeeded(int index, TaskResponseDto task) {
+        return TaskBatchItemDto.builder().index(index).id(task.getId()).task(task).build();
+    }
+
+    public static TaskBatchItemDto failed(int index, Long id, String error) {
+        return TaskBatchItemDto.builder().index(index).id(id).error(error).build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.vku.job.dtos.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskBatchResponseDto {
+    private int succeeded;
+    private int failed;
+    // one entry per request item, in request order
+    private List<TaskBatchItemDto> items;
+
+    public static TaskBatchResponseDto of(List<TaskBatchItemDto> items) {
+        int failed = (int) items.stream().filter(item -> item.getError() != null).count();
+        return new TaskBatchResponseDto(items.size() - failed, failed, items);
+    }
+}
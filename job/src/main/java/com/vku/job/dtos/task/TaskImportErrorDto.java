@@ -0,0 +1,14 @@
+package com.vku.job.dtos.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskImportErrorDto {
+    // row number as shown by the spreadsheet, the header is row 1
+    private int row;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.vku.job.dtos.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskImportResponseDto {
+    // data rows read, blank rows not counted
+    private long totalRows;
+    private long imported;
+    private long failed;
+    // the first failed rows; errorsTruncated when there were more
+    private List<TaskImportErrorDto> errors;
+    private boolean errorsTruncated;
+}
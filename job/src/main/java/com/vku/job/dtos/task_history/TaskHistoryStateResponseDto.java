@@ -0,0 +1,18 @@
+package com.vku.job.dtos.task_history;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskHistoryStateResponseDto {
+    private Long historyId;
+    private LocalDateTime updatedAt;
+    // task as it was right before and right after this history entry
+    private UpdateTaskHistoryResponseDto before;
+    private UpdateTaskHistoryResponseDto after;
+}
@@ -0,0 +1,65 @@
+package com.vku.job.entities;
+
+import java.time.LocalDateTime;
+
+import com.vku.job.enums.MailStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * One outgoing email for one recipient, written in the caller's transaction
+ * and delivered later by MailOutboxWorker. Rows with the same content hash
+ * are sent together in one Brevo call.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next", columnList = "status, next_attempt_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class MailMessage extends BaseEntity {
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "html_content", nullable = false, columnDefinition = "TEXT")
+    private String htmlContent;
+
+    @Column(name = "attachment_name")
+    private String attachmentName;
+
+    // base64, as Brevo expects it
+    @Lob
+    @Column(name = "attachment_content", columnDefinition = "LONGTEXT")
+    private String attachmentContent;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MailStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -22,7 +23,12 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // filterTasks: assignee + status + created date range
+        @Index(name = "idx_tasks_user_status_created", columnList = "user_id, status, createddate"),
+        @Index(name = "idx_tasks_status_created", columnList = "status, createddate"),
+        @Index(name = "idx_tasks_created", columnList = "createddate")
+})
 @Getter
 @Setter
 @EqualsAndHashCode(callSuper = true)
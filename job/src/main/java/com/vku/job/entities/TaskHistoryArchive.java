@@ -0,0 +1,51 @@
+package com.vku.job.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Task history entry moved out of task_history by TaskHistoryArchiveService.
+ * Keeps the original id and timestamps; task and updater are plain ids so the
+ * archive does not hold foreign keys into the hot tables.
+ */
+@Entity
+@Table(name = "task_history_archive", indexes = {
+        @Index(name = "idx_task_history_archive_task", columnList = "task_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskHistoryArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "updated_by", nullable = false)
+    private Long updatedById;
+
+    @Column(name = "old_data", columnDefinition = "json")
+    private String oldData;
+
+    @Column(name = "new_data", columnDefinition = "json")
+    private String newData;
+
+    @Column(name = "createddate")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updateddate")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archiveddate", nullable = false)
+    private LocalDateTime archivedAt;
+}
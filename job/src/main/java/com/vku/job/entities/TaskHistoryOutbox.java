@@ -0,0 +1,46 @@
+package com.vku.job.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Task history entry committed with its update and not yet moved to
+ * task_history. Written with plain JDBC by TaskHistoryWriter and drained by
+ * TaskHistoryOutboxWorker; mapped so ddl-auto creates the table. No foreign
+ * keys or secondary indexes, so the insert in the update transaction stays cheap.
+ */
+@Entity
+@Table(name = "task_history_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskHistoryOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "updated_by", nullable = false)
+    private Long updatedById;
+
+    @Column(name = "old_data", columnDefinition = "json")
+    private String oldData;
+
+    @Column(name = "new_data", columnDefinition = "json")
+    private String newData;
+
+    @Column(name = "createddate", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.vku.job.entities;
+
+import java.time.LocalDate;
+
+import com.vku.job.enums.TaskStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Materialized task count per assignee, status and creation day.
+ * Kept up to date by TaskStatsService in the same transaction as the task
+ * write, so statistics never have to scan the tasks table.
+ */
+@Entity
+@Table(name = "task_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_stats_user_status_day", columnNames = { "user_id", "status",
+                "bucket_date" })
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TaskStat extends BaseEntity {
+    // tasks without an assignee are counted under 0, a NULL would break the unique key
+    public static final long UNASSIGNED = 0L;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
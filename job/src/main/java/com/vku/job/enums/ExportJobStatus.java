@@ -0,0 +1,8 @@
+package com.vku.job.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.vku.job.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -35,6 +36,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(HttpException.class)
+    public ResponseEntity<CustomErrorResponse> handleHttpException(HttpException ex) {
+        List<String> messages = List.of(ex.getMessage());
+        return ResponseEntity.status(ex.getStatus()).body(
+                new CustomErrorResponse(messages, ex.getStatus().getReasonPhrase(), ex.getStatus().value()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<CustomErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        List<String> messages = List.of(ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new CustomErrorResponse(messages, ex.getStatus().getReasonPhrase(), ex.getStatus().value()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<?> handleIllegalArgument(IllegalArgumentException ex) {
         List<String> messages = List.of(ex.getMessage());
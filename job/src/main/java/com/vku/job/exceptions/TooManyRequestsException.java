@@ -0,0 +1,16 @@
+package com.vku.job.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+// 429 with the seconds a client should wait (sent as Retry-After)
+@Getter
+public class TooManyRequestsException extends HttpException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vku.job.entities.MailMessage;
+import com.vku.job.enums.MailStatus;
+
+@Repository
+public interface MailMessageJpaRepository extends JpaRepository<MailMessage, Long> {
+
+    // Outbox rows due for (re)delivery, oldest first
+    List<MailMessage> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            MailStatus status,
+            LocalDateTime now,
+            Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MailMessage m WHERE m.status = :status AND m.updatedAt < :before")
+    int deleteByStatusUpdatedBefore(@Param("status") MailStatus status, @Param("before") LocalDateTime before);
+}
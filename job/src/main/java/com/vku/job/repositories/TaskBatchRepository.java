@@ -0,0 +1,15 @@
+package com.vku.job.repositories;
+
+import java.util.List;
+
+import com.vku.job.entities.Task;
+
+/**
+ * Multi-row task inserts. Task ids are IDENTITY columns, which Hibernate never
+ * batches, so these go through one JDBC batch instead of one INSERT per entity.
+ */
+public interface TaskBatchRepository {
+
+    // inserts the tasks as they are (createdAt included) and sets their generated ids
+    void insertAll(List<Task> tasks);
+}
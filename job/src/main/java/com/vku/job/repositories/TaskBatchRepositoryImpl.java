@@ -0,0 +1,69 @@
+package com.vku.job.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.vku.job.entities.Task;
+
+class TaskBatchRepositoryImpl implements TaskBatchRepository {
+    private static final String INSERT = """
+            INSERT INTO tasks (title, description, status, deadline, allow_user_update, user_id,
+                createddate, updateddate, createby, updateby)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = tasks.get(i);
+                        ps.setString(1, task.getTitle());
+                        ps.setString(2, task.getDescription());
+                        ps.setString(3, task.getStatus() != null ? task.getStatus().name() : null);
+                        ps.setObject(4, task.getDeadline());
+                        ps.setBoolean(5, task.isAllowUserUpdate());
+                        if (task.getAssignedUser() != null) {
+                            ps.setLong(6, task.getAssignedUser().getId());
+                        } else {
+                            ps.setNull(6, Types.BIGINT);
+                        }
+                        ps.setTimestamp(7, task.getCreatedAt() != null ? Timestamp.valueOf(task.getCreatedAt()) : null);
+                        ps.setTimestamp(8, task.getUpdatedAt() != null ? Timestamp.valueOf(task.getUpdatedAt()) : null);
+                        ps.setString(9, task.getCreateBy());
+                        ps.setString(10, task.getUpdateBy());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
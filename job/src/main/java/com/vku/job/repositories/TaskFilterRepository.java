@@ -0,0 +1,34 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.projection.TaskListProjection;
+
+/**
+ * Task filter queries built with the Criteria API.
+ * Only the supplied conditions end up in the WHERE clause, so the database
+ * can pick the matching composite index on {@code tasks}.
+ */
+public interface TaskFilterRepository {
+
+    // null arguments are left out of the query
+    Page<TaskListProjection> filterTasks(
+            Long userId,
+            TaskStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable);
+
+    // fetches size + 1 rows to compute hasNext and skips the COUNT query
+    Slice<TaskListProjection> filterTasksSlice(
+            Long userId,
+            TaskStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable);
+}
@@ -0,0 +1,127 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.vku.job.entities.Task;
+import com.vku.job.entities.User;
+import com.vku.job.entities.UserProfile;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.projection.TaskListProjection;
+import com.vku.job.repositories.specification.TaskSpecifications;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class TaskFilterRepositoryImpl implements TaskFilterRepository {
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TaskListProjection> filterTasks(
+            Long userId,
+            TaskStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+        Specification<Task> spec = TaskSpecifications.filter(userId, status, from, to);
+
+        List<TaskListProjection> content = findRows(spec, pageable, pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<TaskListProjection> filterTasksSlice(
+            Long userId,
+            TaskStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+        Specification<Task> spec = TaskSpecifications.filter(userId, status, from, to);
+
+        List<TaskListProjection> content = findRows(spec, pageable, pageable.getPageSize() + 1);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    // Same columns as TaskJpaRepository.TASK_LIST_SELECT: one LEFT JOIN to the assignee profile
+    private List<TaskListProjection> findRows(Specification<Task> spec, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> user = task.join("assignedUser", JoinType.LEFT);
+        Join<User, UserProfile> profile = user.join("profile", JoinType.LEFT);
+
+        query.select(cb.tuple(
+                task.get("id").alias("id"),
+                task.get("title").alias("title"),
+                task.get("description").alias("description"),
+                task.get("status").alias("status"),
+                task.get("deadline").alias("deadline"),
+                task.get("allowUserUpdate").alias("allowUserUpdate"),
+                user.get("id").alias("assignedUserId"),
+                profile.get("fullName").alias("assignedFullName"),
+                task.get("createdAt").alias("createdAt")));
+
+        Predicate where = spec.toPredicate(task, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), task, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(limit);
+
+        return typedQuery.getResultList().stream()
+                .map(this::toProjection)
+                .toList();
+    }
+
+    private long count(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task));
+
+        Predicate where = spec.toPredicate(task, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private TaskListProjection toProjection(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return projectionFactory.createProjection(TaskListProjection.class, row);
+    }
+}
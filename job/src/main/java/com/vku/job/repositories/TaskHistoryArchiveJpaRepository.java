@@ -0,0 +1,38 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.vku.job.entities.TaskHistoryArchive;
+
+@Repository
+public interface TaskHistoryArchiveJpaRepository extends JpaRepository<TaskHistoryArchive, Long> {
+
+    // Copies one archival chunk of task_history: entries up to lastId created before the cutoff
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_history_archive
+                (id, task_id, updated_by, old_data, new_data, createddate, updateddate, archiveddate)
+            SELECT h.id, h.task_id, h.updated_by, h.old_data, h.new_data, h.createddate, h.updateddate, :archivedAt
+            FROM task_history h
+            WHERE h.id <= :lastId AND h.createddate < :before
+            """, nativeQuery = true)
+    int copyFromHistory(
+            @Param("lastId") Long lastId,
+            @Param("before") LocalDateTime before,
+            @Param("archivedAt") LocalDateTime archivedAt);
+
+    // old values of the archived entries written after the given one, newest first
+    @Query("SELECT a.oldData FROM TaskHistoryArchive a WHERE a.taskId = :taskId AND a.id > :id ORDER BY a.id DESC")
+    List<String> findOldDataAfter(@Param("taskId") Long taskId, @Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM TaskHistoryArchive a WHERE a.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
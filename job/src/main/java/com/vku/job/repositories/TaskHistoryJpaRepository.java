@@ -1,17 +1,69 @@
 package com.vku.job.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.vku.job.entities.TaskHistory;
+import com.vku.job.repositories.projection.TaskHistoryListProjection;
 
 @Repository
 public interface TaskHistoryJpaRepository extends JpaRepository<TaskHistory, Long> {
 
     Optional<TaskHistory> findById(Long id);
 
-    List<TaskHistory> findByTaskId(Long taskId);
+    // History list rows over the hot table and the archive: archived entries keep their
+    // ids, so one id order pages across both. The updater name is joined once, after the
+    // union, and the old_data/new_data JSON columns are never read.
+    String HISTORY_LIST_SELECT = """
+                SELECT
+                    h.id AS id,
+                    up.full_name AS updatedByName,
+                    h.updateddate AS updatedAt
+                FROM (
+                    SELECT id, updated_by, updateddate FROM task_history WHERE task_id = :taskId
+                    UNION ALL
+                    SELECT id, updated_by, updateddate FROM task_history_archive WHERE task_id = :taskId
+                ) h
+                LEFT JOIN users u ON u.id = h.updated_by
+                LEFT JOIN user_profiles up ON up.id = u.profile_id
+                ORDER BY h.id DESC
+            """;
+
+    String HISTORY_LIST_COUNT = """
+                SELECT (SELECT COUNT(*) FROM task_history WHERE task_id = :taskId)
+                     + (SELECT COUNT(*) FROM task_history_archive WHERE task_id = :taskId)
+            """;
+
+    // newest first; the pageable carries no sort
+    @Query(value = HISTORY_LIST_SELECT, countQuery = HISTORY_LIST_COUNT, nativeQuery = true)
+    Page<TaskHistoryListProjection> findHistoryListByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    @Query(value = HISTORY_LIST_SELECT, nativeQuery = true)
+    Slice<TaskHistoryListProjection> findHistoryListSliceByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    // Last id of the next archival chunk: the oldest entries created before the cutoff
+    @Query(value = """
+            SELECT MAX(chunk.id) FROM (
+                SELECT h.id FROM task_history h WHERE h.createddate < :before ORDER BY h.id LIMIT :limit
+            ) chunk
+            """, nativeQuery = true)
+    Long findArchiveChunkEnd(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_history WHERE id <= :lastId AND createddate < :before", nativeQuery = true)
+    int deleteArchived(@Param("lastId") Long lastId, @Param("before") LocalDateTime before);
+
+    // old values of the entries written after the given one, newest first
+    @Query("SELECT h.oldData FROM TaskHistory h WHERE h.task.id = :taskId AND h.id > :id ORDER BY h.id DESC")
+    List<String> findOldDataAfter(@Param("taskId") Long taskId, @Param("id") Long id);
 }
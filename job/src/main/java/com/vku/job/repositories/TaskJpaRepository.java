@@ -1,43 +1,153 @@
 package com.vku.job.repositories;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.vku.job.entities.Task;
 import com.vku.job.enums.TaskStatus;
-import com.vku.job.repositories.projection.TaskForUserProjection;
-import com.vku.job.repositories.projection.TaskStatusUserProjection;
-import com.vku.job.repositories.projection.TaskSummaryProjection;
+import com.vku.job.repositories.projection.TaskListProjection;
 
 @Repository
-public interface TaskJpaRepository extends JpaRepository<Task, Long> {
-
-        Page<Task> findByAssignedUserId(Long userId, Pageable pageable);
-
-        @Query("""
-                            SELECT t FROM Task t
-                            WHERE (:userId IS NULL OR t.assignedUser.id = :userId)
-                              AND (:status IS NULL OR t.status = :status)
-                              AND (:from IS NULL OR t.createdAt >= :from)
-                              AND (:to IS NULL OR t.createdAt <= :to)
-                        """)
-        Page<Task> filterTasks(
+public interface TaskJpaRepository
+                extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskFilterRepository,
+                TaskBatchRepository, TaskSearchRepository {
+
+        // Task list rows: one LEFT JOIN to the assignee profile instead of loading users per row
+        String TASK_LIST_SELECT = """
+                            SELECT
+                                t.id AS id,
+                                t.title AS title,
+                                t.description AS description,
+                                t.status AS status,
+                                t.deadline AS deadline,
+                                t.allowUserUpdate AS allowUserUpdate,
+                                u.id AS assignedUserId,
+                                up.fullName AS assignedFullName,
+                                t.createdAt AS createdAt
+                            FROM Task t
+                            LEFT JOIN t.assignedUser u
+                            LEFT JOIN u.profile up
+                        """;
+
+        String BY_USER = " WHERE u.id = :userId";
+
+        String EXPORT_FETCH_SIZE = "1000";
+
+        String BY_TITLE = " WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))";
+
+        String BY_USER_AND_TITLE = " WHERE u.id = :userId AND LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))";
+
+        @Query(value = TASK_LIST_SELECT, countQuery = "SELECT COUNT(t) FROM Task t")
+        Page<TaskListProjection> findTaskList(Pageable pageable);
+
+        @Query(value = TASK_LIST_SELECT + BY_USER, countQuery = "SELECT COUNT(t) FROM Task t WHERE t.assignedUser.id = :userId")
+        Page<TaskListProjection> findTaskListByUser(@Param("userId") Long userId, Pageable pageable);
+
+        @Query(value = TASK_LIST_SELECT + BY_TITLE, countQuery = "SELECT COUNT(t) FROM Task t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+        Page<TaskListProjection> findTaskListByTitle(@Param("title") String title, Pageable pageable);
+
+        @Query(value = TASK_LIST_SELECT + BY_USER_AND_TITLE, countQuery = "SELECT COUNT(t) FROM Task t LEFT JOIN t.assignedUser u" + BY_USER_AND_TITLE)
+        Page<TaskListProjection> findTaskListByUserAndTitle(
                         @Param("userId") Long userId,
-                        @Param("status") TaskStatus status,
-                        @Param("from") LocalDateTime from,
-                        @Param("to") LocalDateTime to,
+                        @Param("title") String title,
                         Pageable pageable);
 
-        Page<Task> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+        // Slice variants fetch size + 1 rows to compute hasNext and skip the COUNT query
+        @Query(TASK_LIST_SELECT)
+        Slice<TaskListProjection> findTaskListSlice(Pageable pageable);
 
-        Page<Task> findByAssignedUserIdAndTitleContainingIgnoreCase(Long userId, String title, Pageable pageable);
+        @Query(TASK_LIST_SELECT + BY_USER)
+        Slice<TaskListProjection> findTaskListSliceByUser(@Param("userId") Long userId, Pageable pageable);
+
+        @Query(TASK_LIST_SELECT + BY_TITLE)
+        Slice<TaskListProjection> findTaskListSliceByTitle(@Param("title") String title, Pageable pageable);
+
+        @Query(TASK_LIST_SELECT + BY_USER_AND_TITLE)
+        Slice<TaskListProjection> findTaskListSliceByUserAndTitle(
+                        @Param("userId") Long userId,
+                        @Param("title") String title,
+                        Pageable pageable);
+
+        // Export: forward-only stream read in fetch-size batches instead of loading every task.
+        // MySQL only honours the fetch size with useCursorFetch=true on the connection.
+        @QueryHints({
+                        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query(TASK_LIST_SELECT + " ORDER BY t.id")
+        Stream<TaskListProjection> streamTaskList();
+
+        @QueryHints({
+                        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query(TASK_LIST_SELECT + BY_USER + " ORDER BY t.id")
+        Stream<TaskListProjection> streamTaskListByUser(@Param("userId") Long userId);
+
+        // Full-text search over title and description (FULLTEXT index ft_tasks_title_description,
+        // added on startup by TaskSearchIndexInitializer when missing).
+        // :query is a boolean-mode query; score is the relevance and can be sorted on.
+        String SEARCH_SELECT = """
+                            SELECT
+                                t.id AS id,
+                                t.title AS title,
+                                t.description AS description,
+                                t.status AS status,
+                                t.deadline AS deadline,
+                                t.allow_user_update AS allowUserUpdate,
+                                u.id AS assignedUserId,
+                                up.full_name AS assignedFullName,
+                                t.createddate AS createdAt,
+                                MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE) AS score
+                            FROM tasks t
+                            LEFT JOIN users u ON u.id = t.user_id
+                            LEFT JOIN user_profiles up ON up.id = u.profile_id
+                            WHERE MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)
+                        """;
+
+        String SEARCH_COUNT = """
+                            SELECT COUNT(*) FROM tasks t
+                            WHERE MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)
+                        """;
+
+        @Query(value = SEARCH_SELECT, countQuery = SEARCH_COUNT, nativeQuery = true)
+        Page<TaskListProjection> searchTaskList(@Param("query") String query, Pageable pageable);
+
+        @Query(value = SEARCH_SELECT, nativeQuery = true)
+        Slice<TaskListProjection> searchTaskListSlice(@Param("query") String query, Pageable pageable);
+
+        @Query(value = SEARCH_SELECT + " AND t.user_id = :userId", countQuery = SEARCH_COUNT
+                        + " AND t.user_id = :userId", nativeQuery = true)
+        Page<TaskListProjection> searchTaskListByUser(
+                        @Param("userId") Long userId,
+                        @Param("query") String query,
+                        Pageable pageable);
+
+        @Query(value = SEARCH_SELECT + " AND t.user_id = :userId", nativeQuery = true)
+        Slice<TaskListProjection> searchTaskListSliceByUser(
+                        @Param("userId") Long userId,
+                        @Param("query") String query,
+                        Pageable pageable);
 
         Page<Task> findByStatus(TaskStatus status, Pageable pageable);
 
@@ -45,87 +155,25 @@ public interface TaskJpaRepository extends JpaRepository<Task, Long> {
 
         List<Task> findByAssignedUserId(Long userId);
 
-        // Statistics queries task summary by status
-        @Query("SELECT t.status AS status, COUNT(t) AS count FROM Task t GROUP BY t.status")
-        List<TaskSummaryProjection> countTasksByStatus();
+        long countByAssignedUserId(Long userId);
 
-        // Statistics queries task summary by user
-        @Query("""
-                            SELECT
-                                up.fullName AS fullName,
-                                COUNT(t) AS count
-                            FROM Task t
-                            JOIN t.assignedUser u
-                            JOIN u.profile up
-                            GROUP BY up.fullName
-                        """)
-        List<TaskForUserProjection> countTasksByUser();
+        // Bulk updates: the tasks and their assignee profiles in one query
+        @EntityGraph(attributePaths = { "assignedUser", "assignedUser.profile" })
+        List<Task> findByIdIn(Collection<Long> ids);
 
-        @Query("""
-                            SELECT
-                                t.status AS status,
-                                COUNT(t) AS count
-                            FROM Task t
-                            WHERE t.assignedUser.id = :userId
-                            GROUP BY t.status
-                        """)
-        List<TaskSummaryProjection> countTasksByStatusByUser(
-                        @Param("userId") Long userId);
-
-        // Statistics queries task summary by status between dates
-        @Query("""
-                            SELECT t.status AS status, COUNT(t) AS count
-                            FROM Task t
-                            WHERE t.createdAt BETWEEN :start AND :end
-                            GROUP BY t.status
-                        """)
-        List<TaskSummaryProjection> countTasksByStatusBetween(
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
-
-        // Statistics queries task summary by user between dates
-        @Query("""
-                            SELECT up.fullName AS fullName, COUNT(t) AS count
-                            FROM Task t
-                            JOIN t.assignedUser u
-                            JOIN u.profile up
-                            WHERE t.createdAt BETWEEN :start AND :end
-                            GROUP BY up.fullName
-                        """)
-        List<TaskForUserProjection> countTasksByUserBetween(
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
-
-        @Query("""
-                            SELECT
-                            up.fullName AS fullName,
-                                t.status AS status,
-                                COUNT(t) AS value
-                            FROM Task t
-                            JOIN t.assignedUser u
-                            JOIN u.profile up
-                            WHERE t.createdAt BETWEEN :start AND :end
-                            GROUP BY up.fullName, t.status
-                        """)
-        List<TaskStatusUserProjection> countTasksByStatusByAllUserBetween(
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
-
-        @Query("""
-                            SELECT
-                            up.fullName AS fullName,
-                                t.status AS status,
-                                COUNT(t) AS value
-                            FROM Task t
-                            JOIN t.assignedUser u
-                            JOIN u.profile up
-                            Where u.id = :userId
-                            AND t.createdAt BETWEEN :start AND :end
-                            GROUP BY up.fullName, t.status
-                        """)
-        List<TaskStatusUserProjection> countTasksByStatusByUserBetween(
-                        @Param("userId") Long userId,
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
+        // Keyset (seek) pagination: the sort must end with id so the position is unique.
+        // Scrolling needs entity queries, so the assignee profile is fetched in the same join.
+        @EntityGraph(attributePaths = { "assignedUser", "assignedUser.profile" })
+        Window<Task> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+        @EntityGraph(attributePaths = { "assignedUser", "assignedUser.profile" })
+        Window<Task> findByAssignedUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+        @EntityGraph(attributePaths = { "assignedUser", "assignedUser.profile" })
+        Window<Task> findByTitleContainingIgnoreCase(String title, ScrollPosition position, Sort sort, Limit limit);
+
+        @EntityGraph(attributePaths = { "assignedUser", "assignedUser.profile" })
+        Window<Task> findByAssignedUserIdAndTitleContainingIgnoreCase(Long userId, String title,
+                        ScrollPosition position, Sort sort, Limit limit);
 
 }
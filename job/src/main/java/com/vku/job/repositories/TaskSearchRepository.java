@@ -0,0 +1,29 @@
+package com.vku.job.repositories;
+
+import java.util.List;
+
+import com.vku.job.repositories.projection.TaskSearchProjection;
+
+/**
+ * Keyset pages of the task full-text search (native MATCH ... AGAINST).
+ * The seek runs on (sort key, id), the relevance score being the sort key for
+ * a relevance sort, so later pages cost the same as the first.
+ */
+public interface TaskSearchRepository {
+
+    /**
+     * Rows matching the boolean-mode query, ordered by the sort key then id,
+     * starting after (afterValue, afterId), or from the first row when afterId is null.
+     *
+     * @param sortKey one of score, title, createdAt, deadline, id
+     * @param userId  limits the search to the user's tasks when not null
+     */
+    List<TaskSearchProjection> searchTaskListAfter(
+            String query,
+            Long userId,
+            String sortKey,
+            boolean descending,
+            Object afterValue,
+            Long afterId,
+            int limit);
+}
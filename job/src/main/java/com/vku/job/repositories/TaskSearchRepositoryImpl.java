@@ -0,0 +1,112 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.projection.TaskSearchProjection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    private static final String MATCH = "MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)";
+
+    // sort keys and the expressions they seek on; the score alias cannot be used in WHERE
+    private static final Map<String, String> SORT_KEYS = Map.of(
+            "score", MATCH,
+            "title", "t.title",
+            "createdAt", "t.createddate",
+            "deadline", "t.deadline",
+            "id", "t.id");
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskSearchProjection> searchTaskListAfter(
+            String query,
+            Long userId,
+            String sortKey,
+            boolean descending,
+            Object afterValue,
+            Long afterId,
+            int limit) {
+        String key = SORT_KEYS.get(sortKey);
+        if (key == null) {
+            throw new IllegalArgumentException("Invalid sort key: " + sortKey);
+        }
+        String seek = descending ? "<" : ">";
+        String direction = descending ? " DESC" : " ASC";
+
+        StringBuilder sql = new StringBuilder(TaskJpaRepository.SEARCH_SELECT);
+        if (userId != null) {
+            sql.append(" AND t.user_id = :userId");
+        }
+        if (afterId != null) {
+            sql.append("id".equals(sortKey)
+                    ? " AND t.id " + seek + " :afterId"
+                    : " AND (" + key + " " + seek + " :afterValue OR (" + key + " = :afterValue AND t.id " + seek
+                            + " :afterId))");
+        }
+        // ORDER BY may use the select alias
+        String orderKey = "score".equals(sortKey) ? "score" : key;
+        sql.append(" ORDER BY ").append("id".equals(sortKey) ? "" : orderKey + direction + ", ")
+                .append("t.id").append(direction);
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .setParameter("query", query)
+                .setMaxResults(limit);
+        if (userId != null) {
+            nativeQuery.setParameter("userId", userId);
+        }
+        if (afterId != null) {
+            nativeQuery.setParameter("afterId", afterId);
+            if (!"id".equals(sortKey)) {
+                nativeQuery.setParameter("afterValue", afterValue);
+            }
+        }
+
+        // scalar types fixed here, so the rows read the same on every driver
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = nativeQuery.unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("status", String.class)
+                .addScalar("deadline", LocalDate.class)
+                .addScalar("allowUserUpdate", Boolean.class)
+                .addScalar("assignedUserId", Long.class)
+                .addScalar("assignedFullName", String.class)
+                .addScalar("createdAt", LocalDateTime.class)
+                .addScalar("score", Double.class)
+                .getResultList();
+        return rows.stream().map(this::toProjection).toList();
+    }
+
+    private TaskSearchProjection toProjection(Object[] row) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", row[0]);
+        values.put("title", row[1]);
+        values.put("description", row[2]);
+        values.put("status", row[3] != null ? TaskStatus.valueOf((String) row[3]) : null);
+        values.put("deadline", row[4]);
+        values.put("allowUserUpdate", Boolean.TRUE.equals(row[5]));
+        values.put("assignedUserId", row[6]);
+        values.put("assignedFullName", row[7]);
+        values.put("createdAt", row[8]);
+        values.put("score", row[9]);
+        return projectionFactory.createProjection(TaskSearchProjection.class, values);
+    }
+}
@@ -0,0 +1,118 @@
+package com.vku.job.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.vku.job.entities.TaskStat;
+import com.vku.job.repositories.projection.TaskForUserProjection;
+import com.vku.job.repositories.projection.TaskStatusUserProjection;
+import com.vku.job.repositories.projection.TaskSummaryProjection;
+
+// Statistics read from the task_stats aggregate: rows are (user, status, day), not tasks
+@Repository
+public interface TaskStatJpaRepository extends JpaRepository<TaskStat, Long> {
+
+        // Statistics queries task summary by status
+        @Query("""
+                            SELECT s.status AS status, SUM(s.taskCount) AS count
+                            FROM TaskStat s
+                            GROUP BY s.status
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskSummaryProjection> countTasksByStatus();
+
+        // Statistics queries task summary by status between days
+        @Query("""
+                            SELECT s.status AS status, SUM(s.taskCount) AS count
+                            FROM TaskStat s
+                            WHERE s.bucketDate BETWEEN :from AND :to
+                            GROUP BY s.status
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskSummaryProjection> countTasksByStatusBetween(
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        // Statistics queries task summary by user
+        @Query("""
+                            SELECT up.fullName AS fullName, SUM(s.taskCount) AS count
+                            FROM TaskStat s
+                            JOIN User u ON u.id = s.userId
+                            JOIN u.profile up
+                            GROUP BY up.fullName
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskForUserProjection> countTasksByUser();
+
+        // Statistics queries task summary by user between days
+        @Query("""
+                            SELECT up.fullName AS fullName, SUM(s.taskCount) AS count
+                            FROM TaskStat s
+                            JOIN User u ON u.id = s.userId
+                            JOIN u.profile up
+                            WHERE s.bucketDate BETWEEN :from AND :to
+                            GROUP BY up.fullName
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskForUserProjection> countTasksByUserBetween(
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        @Query("""
+                            SELECT s.status AS status, SUM(s.taskCount) AS count
+                            FROM TaskStat s
+                            WHERE s.userId = :userId
+                            GROUP BY s.status
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskSummaryProjection> countTasksByStatusByUser(@Param("userId") Long userId);
+
+        @Query("""
+                            SELECT up.fullName AS fullName, s.status AS status, SUM(s.taskCount) AS value
+                            FROM TaskStat s
+                            JOIN User u ON u.id = s.userId
+                            JOIN u.profile up
+                            WHERE u.id = :userId
+                            AND s.bucketDate BETWEEN :from AND :to
+                            GROUP BY up.fullName, s.status
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskStatusUserProjection> countTasksByStatusByUserBetween(
+                        @Param("userId") Long userId,
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        @Query("""
+                            SELECT up.fullName AS fullName, s.status AS status, SUM(s.taskCount) AS value
+                            FROM TaskStat s
+                            JOIN User u ON u.id = s.userId
+                            JOIN u.profile up
+                            WHERE s.bucketDate BETWEEN :from AND :to
+                            GROUP BY up.fullName, s.status
+                            HAVING SUM(s.taskCount) > 0
+                        """)
+        List<TaskStatusUserProjection> countTasksByStatusByAllUserBetween(
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        // Rebuild: recount every bucket from the tasks table
+        @Modifying
+        @Query(value = "DELETE FROM task_stats", nativeQuery = true)
+        int deleteAllBuckets();
+
+        @Modifying
+        @Query(value = """
+                            INSERT INTO task_stats (user_id, status, bucket_date, task_count)
+                            SELECT COALESCE(t.user_id, 0), t.status, CAST(t.createddate AS DATE), COUNT(*)
+                            FROM tasks t
+                            WHERE t.status IS NOT NULL AND t.createddate IS NOT NULL
+                            GROUP BY COALESCE(t.user_id, 0), t.status, CAST(t.createddate AS DATE)
+                        """, nativeQuery = true)
+        int insertBucketsFromTasks();
+}
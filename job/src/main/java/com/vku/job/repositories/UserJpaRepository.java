@@ -6,11 +6,15 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.vku.job.entities.User;
 import com.vku.job.repositories.projection.FullNameUserProjection;
+import com.vku.job.repositories.projection.UserLookupProjection;
 
 @Repository
 public interface UserJpaRepository extends JpaRepository<User, Long> {
@@ -30,6 +34,10 @@ public interface UserJpaRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.id as id, u.profile.fullName as fullName FROM User u ")
     List<FullNameUserProjection> getAllFullNameUser();
 
+    // task import: every user's username and full name, to resolve assignees without a query per row
+    @Query("SELECT u.id AS id, u.username AS username, p.fullName AS fullName FROM User u LEFT JOIN u.profile p")
+    List<UserLookupProjection> findAllForLookup();
+
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = 'Users'")
     Page<User> findAll(Pageable pageable);
 
@@ -41,4 +49,10 @@ public interface UserJpaRepository extends JpaRepository<User, Long> {
             """)
     List<String> findAdminEmails();
 
+    // reserves one OTP attempt; 0 when the user already used maxAttempts on the current code
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.emailOtpAttempts = u.emailOtpAttempts + 1 WHERE u.id = :id AND u.emailOtpAttempts < :maxAttempts")
+    int consumeOtpAttempt(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+
 }
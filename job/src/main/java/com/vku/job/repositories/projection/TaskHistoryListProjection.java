@@ -0,0 +1,12 @@
+package com.vku.job.repositories.projection;
+
+import java.time.LocalDateTime;
+
+public interface TaskHistoryListProjection {
+
+    Long getId();
+
+    String getUpdatedByName();
+
+    LocalDateTime getUpdatedAt();
+}
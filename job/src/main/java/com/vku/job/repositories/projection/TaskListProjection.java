@@ -0,0 +1,26 @@
+package com.vku.job.repositories.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.vku.job.enums.TaskStatus;
+
+public interface TaskListProjection {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    TaskStatus getStatus();
+
+    LocalDate getDeadline();
+
+    boolean isAllowUserUpdate();
+
+    Long getAssignedUserId();
+
+    String getAssignedFullName();
+
+    LocalDateTime getCreatedAt();
+}
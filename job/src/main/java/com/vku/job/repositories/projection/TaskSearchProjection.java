@@ -0,0 +1,6 @@
+package com.vku.job.repositories.projection;
+
+// Full-text search row: the list columns plus the match score
+public interface TaskSearchProjection extends TaskListProjection {
+    Double getScore();
+}
@@ -0,0 +1,10 @@
+package com.vku.job.repositories.projection;
+
+public interface UserLookupProjection {
+
+    Long getId();
+
+    String getUsername();
+
+    String getFullName();
+}
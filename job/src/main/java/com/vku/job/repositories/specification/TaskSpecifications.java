@@ -0,0 +1,54 @@
+package com.vku.job.repositories.specification;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.vku.job.entities.Task;
+import com.vku.job.enums.TaskStatus;
+
+/**
+ * Reusable {@link Specification}s for querying tasks.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> assignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedUser").get("id"), userId);
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Task> createdTo(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), to);
+    }
+
+    /**
+     * Combines only the filter conditions that were actually supplied.
+     */
+    public static Specification<Task> filter(Long userId, TaskStatus status, LocalDateTime from,
+            LocalDateTime to) {
+        Specification<Task> spec = Specification.unrestricted();
+        if (userId != null) {
+            spec = spec.and(assignedTo(userId));
+        }
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (from != null) {
+            spec = spec.and(createdFrom(from));
+        }
+        if (to != null) {
+            spec = spec.and(createdTo(to));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,18 @@
+package com.vku.job.resolvers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+/**
+ * Binds a controller parameter to the id of the authenticated user, taken from
+ * the principal set by JwtAuthenticationFilter.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Parameter(hidden = true)
+public @interface CurrentUserId {
+}
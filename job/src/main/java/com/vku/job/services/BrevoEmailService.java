@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,7 +17,9 @@ import com.vku.job.config.EnvLoader;
 @Service
 public class BrevoEmailService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // shared pooled client (AppConfig / HttpClientConfig)
+    @Autowired
+    private RestTemplate restTemplate;
 
     public void sendEmail(String toEmail, String subject, String content) {
         // 1. Chuẩn bị Header với API Key từ file môi trường
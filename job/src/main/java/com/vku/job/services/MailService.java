@@ -1,74 +1,99 @@
 package com.vku.job.services;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.vku.job.config.EnvLoader;
+import com.vku.job.entities.MailMessage;
+import com.vku.job.enums.MailStatus;
+import com.vku.job.repositories.MailMessageJpaRepository;
 
+/**
+ * Queues emails in the mail outbox. Messages are written in the caller's
+ * transaction, so a rolled back registration sends no code, and are
+ * delivered by MailOutboxWorker. Callers in a read-only transaction get a
+ * separate one for the insert.
+ */
 @Service
 public class MailService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String BREVO_API_URL = "https://api.brevo.com/v3/smtp/email";
+    @Autowired
+    private MailMessageJpaRepository mailMessageRepository;
 
-    // Email này PHẢI là email đã Verified trên Brevo của bạn
-    private final String SENDER_EMAIL = "phamphunhan625@gmail.com";
-    private final String SENDER_NAME = "Manageme Tasks System";
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    @Async
     public void sendVerificationCode(String to, String code) {
         String content = "Your verification code is: <b>" + code + "</b>. It will expire in 10 minutes.";
-        sendBrevoApi(to, "Your Verification Code for Registration", content, null, null);
+        enqueue(List.of(to), "Your Verification Code for Registration", content, null, null);
     }
 
-    @Async
     public void sendPasswordResetCode(String to, String code) {
         String content = "Your password reset code is: <b>" + code + "</b>. It will expire in 10 minutes.";
-        sendBrevoApi(to, "Your Password Reset Code", content, null, null);
+        enqueue(List.of(to), "Your Password Reset Code", content, null, null);
     }
 
-    @Async
-    public void sendPdfReport(String to, byte[] pdfBytes, String subject, String body) {
+    public void sendPdfReport(List<String> to, byte[] pdfBytes, String subject, String body) {
         // Brevo yêu cầu file đính kèm phải mã hóa Base64
         String base64Content = Base64.getEncoder().encodeToString(pdfBytes);
-        sendBrevoApi(to, subject, body, base64Content, "weekly-task-report.pdf");
+        enqueue(to, subject, body, "weekly-task-report.pdf", base64Content);
     }
 
-    private void sendBrevoApi(String to, String subject, String htmlContent, String base64File, String fileName) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            String apiKey = EnvLoader.get("BREVO_API_KEY");
-            headers.set("api-key", apiKey);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("sender", Map.of("name", SENDER_NAME, "email", SENDER_EMAIL));
-            requestBody.put("to", List.of(Map.of("email", to)));
-            requestBody.put("subject", subject);
-            requestBody.put("htmlContent", "<html><body>" + htmlContent + "</body></html>");
+    // One outbox row per recipient; rows with the same content share a hash and go out in one call
+    public void enqueue(List<String> recipients, String subject, String htmlContent, String attachmentName,
+            String attachmentContent) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        String contentHash = contentHash(subject, htmlContent, attachmentName, attachmentContent);
+        LocalDateTime now = LocalDateTime.now();
 
-            // Xử lý file đính kèm nếu có
-            if (base64File != null && fileName != null) {
-                requestBody.put("attachment", List.of(
-                        Map.of("content", base64File, "name", fileName)));
-            }
+        List<MailMessage> messages = recipients.stream().map(recipient -> {
+            MailMessage message = new MailMessage();
+            message.setRecipient(recipient);
+            message.setSubject(subject);
+            message.setHtmlContent(htmlContent);
+            message.setAttachmentName(attachmentName);
+            message.setAttachmentContent(attachmentContent);
+            message.setContentHash(contentHash);
+            message.setStatus(MailStatus.PENDING);
+            message.setNextAttemptAt(now);
+            return message;
+        }).toList();
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            restTemplate.postForEntity(BREVO_API_URL, entity, String.class);
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // a read-only caller cannot insert (MySQL rejects it): queue in a transaction of its own
+            TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+            requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            requiresNew.executeWithoutResult(status -> mailMessageRepository.saveAll(messages));
+        } else {
+            mailMessageRepository.saveAll(messages);
+        }
+    }
 
-            System.out.println("Brevo API: Sent email to " + to + " [" + subject + "]");
-        } catch (Exception e) {
-            System.err.println("Brevo API Error: Failed to send email to " + to);
-            e.printStackTrace();
+    private static String contentHash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
-}
\ No newline at end of file
+}
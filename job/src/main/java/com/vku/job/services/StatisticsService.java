@@ -11,7 +11,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,11 +19,14 @@ import com.vku.job.dtos.statistics.TaskStatutesUserResponse;
 import com.vku.job.dtos.statistics.TaskSummaryResponse;
 import com.vku.job.dtos.statistics.WeeklyReportData;
 import com.vku.job.enums.TaskStatus;
-import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.TaskStatJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
 import com.vku.job.repositories.projection.TaskForUserProjection;
 import com.vku.job.repositories.projection.TaskStatusUserProjection;
 import com.vku.job.repositories.projection.TaskSummaryProjection;
+import com.vku.job.services.statistics.StatisticsCache;
+import com.vku.job.services.statistics.StatisticsCacheKey;
+import com.vku.job.services.statistics.StatisticsCacheKey.Type;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +34,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Service for generating task statistics and reports.
  * Provides statistics by status, user, and date ranges.
+ * Counts come from the task_stats aggregate (per user, status and day), so
+ * date ranges are whole days.
  */
 @Slf4j
 @Service
@@ -40,10 +44,11 @@ import lombok.extern.slf4j.Slf4j;
 public class StatisticsService {
         private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-        private final TaskJpaRepository taskJpaRepository;
+        private final TaskStatJpaRepository taskStatJpaRepository;
         private final TaskPdfService taskPdfService;
         private final MailService mailService;
         private final UserJpaRepository userJpaRepository;
+        private final StatisticsCache statisticsCache;
 
         /**
          * Validates and parses date range parameters.
@@ -125,6 +130,12 @@ public class StatisticsService {
         private record DateRange(LocalDateTime start, LocalDateTime end) {
         }
 
+        private StatisticsCacheKey cacheKey(Type type, Long userId, DateRange dateRange) {
+                return dateRange != null
+                                ? StatisticsCacheKey.of(type, userId, dateRange.start(), dateRange.end())
+                                : StatisticsCacheKey.of(type, userId, null, null);
+        }
+
         /**
          * Get task statistics grouped by status.
          * Optionally filter by date range.
@@ -138,15 +149,20 @@ public class StatisticsService {
 
                 DateRange dateRange = validateAndParseDateRange(createdAtFrom, createdAtTo);
 
+                return statisticsCache.get(cacheKey(Type.SUMMARY_BY_STATUS, null, dateRange),
+                                () -> loadTaskSummaryByStatus(dateRange));
+        }
+
+        private List<TaskSummaryResponse> loadTaskSummaryByStatus(DateRange dateRange) {
                 if (dateRange != null) {
-                        List<TaskSummaryProjection> projections = taskJpaRepository
-                                        .countTasksByStatusBetween(dateRange.start(), dateRange.end());
+                        List<TaskSummaryProjection> projections = taskStatJpaRepository
+                                        .countTasksByStatusBetween(dateRange.start().toLocalDate(), dateRange.end().toLocalDate());
                         return projections.stream()
                                         .map(p -> new TaskSummaryResponse(p.getStatus(), p.getCount()))
                                         .toList();
                 }
 
-                List<TaskSummaryProjection> projections = taskJpaRepository.countTasksByStatus();
+                List<TaskSummaryProjection> projections = taskStatJpaRepository.countTasksByStatus();
                 return projections.stream()
                                 .map(p -> new TaskSummaryResponse(p.getStatus(), p.getCount()))
                                 .toList();
@@ -165,15 +181,20 @@ public class StatisticsService {
 
                 DateRange dateRange = validateAndParseDateRange(createdAtFrom, createdAtTo);
 
+                return statisticsCache.get(cacheKey(Type.SUMMARY_BY_USER, null, dateRange),
+                                () -> loadTaskSummaryByUser(dateRange));
+        }
+
+        private List<TaskForUserResponse> loadTaskSummaryByUser(DateRange dateRange) {
                 if (dateRange != null) {
-                        List<TaskForUserProjection> projections = taskJpaRepository
-                                        .countTasksByUserBetween(dateRange.start(), dateRange.end());
+                        List<TaskForUserProjection> projections = taskStatJpaRepository
+                                        .countTasksByUserBetween(dateRange.start().toLocalDate(), dateRange.end().toLocalDate());
                         return projections.stream()
                                         .map(this::mapToTaskForUserResponse)
                                         .toList();
                 }
 
-                List<TaskForUserProjection> projections = taskJpaRepository.countTasksByUser();
+                List<TaskForUserProjection> projections = taskStatJpaRepository.countTasksByUser();
                 return projections.stream()
                                 .map(this::mapToTaskForUserResponse)
                                 .toList();
@@ -200,9 +221,14 @@ public class StatisticsService {
 
                 DateRange dateRange = validateAndParseDateRange(createdAtFrom, createdAtTo);
 
+                return statisticsCache.get(cacheKey(Type.STATUS_BY_USER_ID, userId, dateRange),
+                                () -> loadTaskStatisticsByUser(userId, dateRange));
+        }
+
+        private List<TaskSummaryResponse> loadTaskStatisticsByUser(Long userId, DateRange dateRange) {
                 if (dateRange != null) {
-                        List<TaskStatusUserProjection> projections = taskJpaRepository
-                                        .countTasksByStatusByUserBetween(userId, dateRange.start(), dateRange.end());
+                        List<TaskStatusUserProjection> projections = taskStatJpaRepository
+                                        .countTasksByStatusByUserBetween(userId, dateRange.start().toLocalDate(), dateRange.end().toLocalDate());
 
                         Map<TaskStatus, Long> countMap = projections.stream()
                                         .collect(Collectors.toMap(
@@ -216,16 +242,17 @@ public class StatisticsService {
                                         .toList();
                 }
 
-                List<TaskSummaryProjection> projections = taskJpaRepository
+                List<TaskSummaryProjection> projections = taskStatJpaRepository
                                 .countTasksByStatusByUser(userId);
                 return mapToTaskSummaryWithAllStatuses(projections);
         }
 
         /**
-         * Scheduled job to export and email weekly task reports.
-         * Runs every Monday at 8 AM.
+         * Exports and emails the weekly task report to every admin.
+         * Triggered by WeeklyReportScheduler and by the admin test-email endpoint.
+         * Read-write: the report is queued in the mail outbox.
          */
-        @Scheduled(cron = "0 0 8 ? * MON")
+        @Transactional
         public void exportWeeklyTaskReportPdf() {
                 LocalDate today = LocalDate.now();
                 LocalDate weekEnd = today.with(TemporalAdjusters.previous(DayOfWeek.SUNDAY));
@@ -261,8 +288,8 @@ public class StatisticsService {
 
                 List<TaskForUserResponse> summaryByUser = getTaskSummaryByUserBetween(startDateTime, endDateTime);
 
-                List<TaskStatutesUserResponse> statusByUser = taskJpaRepository
-                                .countTasksByStatusByAllUserBetween(startDateTime, endDateTime)
+                List<TaskStatutesUserResponse> statusByUser = taskStatJpaRepository
+                                .countTasksByStatusByAllUserBetween(startDateTime.toLocalDate(), endDateTime.toLocalDate())
                                 .stream()
                                 .map(this::mapToTaskStatusUserResponse)
                                 .toList();
@@ -287,14 +314,8 @@ public class StatisticsService {
 
                 log.info("Sending weekly report to {} admin(s)", adminEmails.size());
 
-                for (String email : adminEmails) {
-                        try {
-                                mailService.sendPdfReport(email, pdfBytes, subject, message);
-                                log.debug("Report sent to: {}", email);
-                        } catch (Exception e) {
-                                log.error("Failed to send report to: {}", email, e);
-                        }
-                }
+                // queued once for all admins; the outbox sends them in one Brevo call
+                mailService.sendPdfReport(adminEmails, pdfBytes, subject, message);
         }
 
         /**
@@ -312,31 +333,31 @@ public class StatisticsService {
          * Get task statistics grouped by status for a specific date range.
          * Returns all task statuses with zeros for missing statuses.
          *
-         * @param start start of date range
-         * @param end   end of date range
+         * @param start start of date range (counted from the start of its day)
+         * @param end   end of date range (counted to the end of its day)
          * @return list of task counts by status
          */
         public List<TaskSummaryResponse> getTaskSummaryByStatusBetween(
                         LocalDateTime start, LocalDateTime end) {
                 log.debug("Getting task summary by status between {} and {}", start, end);
 
-                List<TaskSummaryProjection> projections = taskJpaRepository
-                                .countTasksByStatusBetween(start, end);
+                List<TaskSummaryProjection> projections = taskStatJpaRepository
+                                .countTasksByStatusBetween(start.toLocalDate(), end.toLocalDate());
                 return mapToTaskSummaryWithAllStatuses(projections);
         }
 
         /**
          * Get task statistics grouped by user for a specific date range.
          *
-         * @param start start of date range
-         * @param end   end of date range
+         * @param start start of date range (counted from the start of its day)
+         * @param end   end of date range (counted to the end of its day)
          * @return list of task counts by user
          */
         public List<TaskForUserResponse> getTaskSummaryByUserBetween(
                         LocalDateTime start, LocalDateTime end) {
                 log.debug("Getting task summary by user between {} and {}", start, end);
 
-                return taskJpaRepository.countTasksByUserBetween(start, end)
+                return taskStatJpaRepository.countTasksByUserBetween(start.toLocalDate(), end.toLocalDate())
                                 .stream()
                                 .map(this::mapToTaskForUserResponse)
                                 .toList();
@@ -0,0 +1,115 @@
+package com.vku.job.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.ScrollPosition;
+
+import com.vku.job.entities.Task;
+import com.vku.job.repositories.projection.TaskSearchProjection;
+
+/**
+ * Opaque keyset cursor for task listings.
+ * Holds the sort key and id of the last row of a page, so the next page can be
+ * fetched with a {@code WHERE (sortKey, id) > (?, ?)} seek instead of an offset.
+ */
+public record TaskCursor(String sortBy, Object value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Builds the cursor pointing after the given task.
+     */
+    public static TaskCursor after(Task task, String sortBy) {
+        Object value = switch (sortBy) {
+            case "title" -> task.getTitle();
+            case "createdAt" -> task.getCreatedAt();
+            case "deadline" -> task.getDeadline();
+            default -> task.getId();
+        };
+        return new TaskCursor(sortBy, value, task.getId());
+    }
+
+    /**
+     * Builds the cursor pointing after the given full-text search row;
+     * a relevance sort keeps the match score as its key.
+     */
+    public static TaskCursor after(TaskSearchProjection row, String sortBy) {
+        Object value = switch (sortBy) {
+            case "relevance" -> row.getScore();
+            case "title" -> row.getTitle();
+            case "createdAt" -> row.getCreatedAt();
+            case "deadline" -> row.getDeadline();
+            default -> row.getId();
+        };
+        return new TaskCursor(sortBy, value, row.getId());
+    }
+
+    /**
+     * Decodes a cursor previously returned to the client.
+     * A blank cursor means the first page.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued
+     *                                  for a different sort key
+     */
+    public static TaskCursor decode(String cursor, String sortBy) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] parts = raw.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || !parts[0].equals(sortBy)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        try {
+            Long id = Long.valueOf(parts[1]);
+            Object value = switch (sortBy) {
+                case "relevance" -> Double.valueOf(parts[2]);
+                case "title" -> parts[2];
+                case "createdAt" -> LocalDateTime.parse(parts[2]);
+                case "deadline" -> LocalDate.parse(parts[2]);
+                default -> id;
+            };
+            return new TaskCursor(sortBy, value, id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keyset position to continue scrolling forward from this cursor.
+     */
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!"id".equals(sortBy)) {
+            keys.put(sortBy, value);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Keyset position for the given cursor, or the first page if none.
+     */
+    public static ScrollPosition positionOf(TaskCursor cursor) {
+        return cursor != null ? cursor.toScrollPosition() : ScrollPosition.keyset();
+    }
+}
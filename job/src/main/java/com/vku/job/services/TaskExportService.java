@@ -2,24 +2,65 @@ package com.vku.job.services;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import com.vku.job.dtos.task.TaskResponseDto;
+import com.vku.job.services.export.TaskExporter;
 
 @Service
-public class TaskExportService {
+public class TaskExportService implements TaskExporter {
+    // rows kept in memory by SXSSF, older rows are flushed to a temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    private static final String[] HEADERS = {
+            "ID", "Title", "Status", "Deadline",
+            "Assigned User", "Created At"
+    };
+
+    // fixed widths in characters: autoSizeColumn cannot see rows already flushed
+    private static final int[] COLUMN_WIDTHS = { 10, 40, 14, 12, 30, 20 };
+
+    @Override
+    public String format() {
+        return "xlsx";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    @Override
+    public void write(Stream<TaskResponseDto> tasks, OutputStream out) {
+        writeTasksToExcel(tasks, out);
+    }
+
     // Export list of tasks to Excel file
     public byte[] exportTasksToExcel(List<TaskResponseDto> tasks) {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTasksToExcel(tasks.stream(), out);
+        return out.toByteArray();
+    }
+
+    // Write tasks to an Excel file row by row, memory stays bounded by the row window
+    public void writeTasksToExcel(Stream<TaskResponseDto> tasks, OutputStream out) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW)) {
+            workbook.setCompressTempFiles(true);
 
             Sheet sheet = workbook.createSheet("Tasks");
             DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -27,19 +68,15 @@ public class TaskExportService {
 
             // ================= HEADER =================
             Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                    "ID", "Title", "Status", "Deadline",
-                    "Assigned User", "Created At"
-            };
-
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(HEADERS[i]);
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
             }
 
-            int rowIdx = 1;
-            for (TaskResponseDto task : tasks) {
-                Row row = sheet.createRow(rowIdx++);
+            int[] rowIdx = { 1 };
+            tasks.forEach(task -> {
+                Row row = sheet.createRow(rowIdx[0]++);
 
                 row.createCell(0).setCellValue(task.getId());
                 row.createCell(1).setCellValue(task.getTitle());
@@ -51,16 +88,10 @@ public class TaskExportService {
                                 : "");
                 row.createCell(5)
                         .setCellValue(task.getCreatedAt() != null ? task.getCreatedAt().format(dateTimeFormatter) : "");
-            }
-
-            // Auto size
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            });
 
             workbook.write(out);
-            workbook.close();
-            return out.toByteArray();
+            out.flush();
 
         } catch (IOException e) {
             throw new RuntimeException("Failed to export Excel file", e);
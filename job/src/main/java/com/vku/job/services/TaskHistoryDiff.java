@@ -0,0 +1,78 @@
+package com.vku.job.services;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vku.job.dtos.task_history.UpdateTaskHistoryResponseDto;
+import com.vku.job.entities.Task;
+import com.vku.job.enums.TaskStatus;
+
+/**
+ * Field-level change of a task, stored as the oldData/newData JSON of a
+ * TaskHistory row: only the fields an update changed, with their old and new
+ * values. Older rows hold full snapshots of the same fields, which read the
+ * same way.
+ */
+public record TaskHistoryDiff(Map<String, Object> oldValues, Map<String, Object> newValues) {
+
+    /**
+     * Tracked fields of a task, named as in UpdateTaskHistoryResponseDto.
+     * Status and deadline are kept as their JSON strings.
+     */
+    public static Map<String, Object> snapshot(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("allowUserUpdate", task.isAllowUserUpdate());
+        fields.put("status", task.getStatus() != null ? task.getStatus().name() : null);
+        fields.put("deadline", task.getDeadline() != null ? task.getDeadline().toString() : null);
+        fields.put("assignedUserId", task.getAssignedUser() != null ? task.getAssignedUser().getId() : null);
+        return fields;
+    }
+
+    public static TaskHistoryDiff between(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            Object previous = before.get(field);
+            if (!Objects.equals(previous, value)) {
+                oldValues.put(field, previous);
+                newValues.put(field, value);
+            }
+        });
+        return new TaskHistoryDiff(oldValues, newValues);
+    }
+
+    public boolean isEmpty() {
+        return newValues.isEmpty();
+    }
+
+    /**
+     * Task state from a map of tracked fields (a snapshot with history values
+     * applied). Deadlines written as [year, month, day] arrays are accepted too.
+     */
+    public static UpdateTaskHistoryResponseDto toDto(Long taskId, Map<String, Object> state) {
+        Object status = state.get("status");
+        Object assignedUserId = state.get("assignedUserId");
+        return UpdateTaskHistoryResponseDto.builder()
+                .id(taskId)
+                .title((String) state.get("title"))
+                .description((String) state.get("description"))
+                .allowUserUpdate(Boolean.TRUE.equals(state.get("allowUserUpdate")))
+                .status(status != null ? TaskStatus.valueOf(status.toString()) : null)
+                .deadline(toLocalDate(state.get("deadline")))
+                .assignedUserId(assignedUserId instanceof Number id ? id.longValue() : null)
+                .build();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof List<?> parts && parts.size() == 3) {
+            return LocalDate.of(((Number) parts.get(0)).intValue(), ((Number) parts.get(1)).intValue(),
+                    ((Number) parts.get(2)).intValue());
+        }
+        return value != null ? LocalDate.parse(value.toString()) : null;
+    }
+}
@@ -1,31 +1,79 @@
 package com.vku.job.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.vku.job.dtos.PaginatedResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryDetailResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryResponse;
+import com.vku.job.dtos.task_history.TaskHistoryStateResponseDto;
+import com.vku.job.dtos.task_history.UpdateTaskHistoryResponseDto;
+import com.vku.job.entities.Task;
 import com.vku.job.entities.TaskHistory;
+import com.vku.job.entities.TaskHistoryArchive;
+import com.vku.job.entities.User;
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
 import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.TaskHistoryListProjection;
 
 @Service
 public class TaskHistoryService {
 
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
     @Autowired
     private TaskHistoryJpaRepository taskHistoryJpaRepository;
 
-    // Get task history detail by id
+    @Autowired
+    private TaskHistoryArchiveJpaRepository taskHistoryArchiveRepository;
+
+    @Autowired
+    private TaskJpaRepository taskJpaRepository;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Get task history detail by id, from the archive once the entry has been moved there
     public TaskHistoryDetailResponseDto getTaskHistoriesDetailById(Long id) {
-        TaskHistory taskHistory = taskHistoryJpaRepository.findById(id)
+        TaskHistory taskHistory = taskHistoryJpaRepository.findById(id).orElse(null);
+        if (taskHistory != null) {
+            return toDetail(taskHistory.getId(), taskHistory.getUpdatedBy(), taskHistory.getOldData(),
+                    taskHistory.getNewData(), taskHistory.getUpdatedAt());
+        }
+
+        TaskHistoryArchive archived = taskHistoryArchiveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task history not found"));
+        User updater = userJpaRepository.findById(archived.getUpdatedById()).orElse(null);
+        return toDetail(archived.getId(), updater, archived.getOldData(), archived.getNewData(),
+                archived.getUpdatedAt());
+    }
 
+    private TaskHistoryDetailResponseDto toDetail(Long id, User updater, String oldData, String newData,
+            LocalDateTime updatedAt) {
         TaskHistoryDetailResponseDto dto = new TaskHistoryDetailResponseDto();
-        dto.setId(taskHistory.getId());
+        dto.setId(id);
 
-        if (taskHistory.getUpdatedBy() != null) {
-            var updater = taskHistory.getUpdatedBy();
+        if (updater != null) {
             dto.setUpdatedByName(
                     updater.getProfile() != null
                             ? updater.getProfile().getFullName()
@@ -42,25 +90,87 @@ public class TaskHistoryService {
             dto.setRoles(List.of());
         }
 
-        dto.setOldData(taskHistory.getOldData());
-        dto.setNewData(taskHistory.getNewData());
-        dto.setUpdatedAt(taskHistory.getUpdatedAt());
+        dto.setOldData(oldData);
+        dto.setNewData(newData);
+        dto.setUpdatedAt(updatedAt);
 
         return dto;
     }
 
-    public List<TaskHistoryResponse> getSimpleTaskHistoriesByTaskId(Long taskId) {
-        return taskHistoryJpaRepository.findByTaskId(taskId).stream().map(taskHistory -> {
-            TaskHistoryResponse dto = new TaskHistoryResponse();
-            dto.setId(taskHistory.getId());
-            if (taskHistory.getUpdatedBy() != null) {
-                var updater = taskHistory.getUpdatedBy();
-                dto.setUpdateBy(updater.getProfile() != null ? updater.getProfile().getFullName() : null);
-            } else {
-                dto.setUpdateBy(null);
-            }
-            dto.setUpdatedAt(taskHistory.getUpdatedAt());
-            return dto;
-        }).toList();
+    // Task history list including archived entries, newest first; the COUNT query only runs when includeTotal
+    public PaginatedResponseDto<TaskHistoryResponse> getSimpleTaskHistoriesByTaskId(
+            Long taskId,
+            int page,
+            int size,
+            boolean includeTotal) {
+        // the query orders by id, newest first, across the hot table and the archive
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<TaskHistoryListProjection> histories = includeTotal
+                ? taskHistoryJpaRepository.findHistoryListByTaskId(taskId, pageable)
+                : taskHistoryJpaRepository.findHistoryListSliceByTaskId(taskId, pageable);
+
+        boolean counted = histories instanceof Page;
+        return new PaginatedResponseDto<>(
+                histories.map(this::toResponse).getContent(),
+                histories.getNumber(),
+                histories.getSize(),
+                counted ? ((Page<TaskHistoryListProjection>) histories).getTotalElements() : -1,
+                counted ? ((Page<TaskHistoryListProjection>) histories).getTotalPages() : -1,
+                histories.hasNext(),
+                histories.hasPrevious());
+    }
+
+    private TaskHistoryResponse toResponse(TaskHistoryListProjection history) {
+        TaskHistoryResponse dto = new TaskHistoryResponse();
+        dto.setId(history.getId());
+        dto.setUpdateBy(history.getUpdatedByName());
+        dto.setUpdatedAt(history.getUpdatedAt());
+        return dto;
+    }
+
+    // Task state before and after a history entry: start from the current task and
+    // undo the newer entries, newest first, by putting back their old values.
+    // Archived entries are the oldest ones, so they only come after the hot table.
+    @Transactional(readOnly = true)
+    public TaskHistoryStateResponseDto getTaskStateAt(Long id) {
+        TaskHistory taskHistory = taskHistoryJpaRepository.findById(id).orElse(null);
+        if (taskHistory != null) {
+            Task task = taskHistory.getTask();
+            return stateAt(task, id, taskHistory.getOldData(), taskHistory.getUpdatedAt(),
+                    taskHistoryJpaRepository.findOldDataAfter(task.getId(), id));
+        }
+
+        TaskHistoryArchive archived = taskHistoryArchiveRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task history not found"));
+        Task task = taskJpaRepository.findById(archived.getTaskId())
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        List<String> newer = new ArrayList<>(taskHistoryJpaRepository.findOldDataAfter(task.getId(), id));
+        newer.addAll(taskHistoryArchiveRepository.findOldDataAfter(task.getId(), id));
+        return stateAt(task, id, archived.getOldData(), archived.getUpdatedAt(), newer);
+    }
+
+    private TaskHistoryStateResponseDto stateAt(Task task, Long id, String oldData, LocalDateTime updatedAt,
+            List<String> newerOldData) {
+        Map<String, Object> state = TaskHistoryDiff.snapshot(task);
+        for (String newer : newerOldData) {
+            state.putAll(readFields(newer));
+        }
+        UpdateTaskHistoryResponseDto after = TaskHistoryDiff.toDto(task.getId(), state);
+
+        state.putAll(readFields(oldData));
+        UpdateTaskHistoryResponseDto before = TaskHistoryDiff.toDto(task.getId(), state);
+
+        return new TaskHistoryStateResponseDto(id, updatedAt, before, after);
+    }
+
+    private Map<String, Object> readFields(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, FIELDS);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot read task history data");
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.vku.job.services;
+
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the MySQL boolean-mode query used by the task full-text search.
+ * Every word becomes a required prefix term ({@code +word*}), so typing
+ * "rep sta" already matches "Report status".
+ */
+public final class TaskSearchQuery {
+
+    // innodb_ft_min_token_size: shorter words are not in the index
+    static final int MIN_TOKEN_LENGTH = 3;
+
+    private static final Pattern OPERATORS = Pattern.compile("[+\\-<>()~*\"@]+");
+
+    private TaskSearchQuery() {
+    }
+
+    /**
+     * Converts user input to a boolean-mode query.
+     *
+     * @return the query, or null when no word is long enough to be indexed
+     */
+    public static String toBooleanMode(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        StringJoiner query = new StringJoiner(" ");
+        for (String word : OPERATORS.matcher(text).replaceAll(" ").trim().split("\\s+")) {
+            if (word.length() >= MIN_TOKEN_LENGTH) {
+                query.add("+" + word + "*");
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
@@ -2,31 +2,59 @@ package com.vku.job.services;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vku.job.dtos.PaginatedResponseDto;
+import com.vku.job.dtos.task.BulkUpdateTaskRequestDto;
 import com.vku.job.dtos.task.CreateTaskRequestDto;
 import com.vku.job.dtos.task.FilterTaskRequestDto;
+import com.vku.job.dtos.task.TaskBatchItemDto;
+import com.vku.job.dtos.task.TaskBatchResponseDto;
 import com.vku.job.dtos.task.TaskResponseDto;
 import com.vku.job.dtos.task.UpdateTaskByUserRequestDto;
 import com.vku.job.dtos.task.UpdateTaskRequestDto;
 import com.vku.job.dtos.task_history.UpdateTaskHistoryResponseDto;
 import com.vku.job.entities.Task;
-import com.vku.job.entities.TaskHistory;
 import com.vku.job.entities.User;
 import com.vku.job.enums.TaskStatus;
-import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
 import com.vku.job.repositories.TaskJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.TaskListProjection;
+import com.vku.job.repositories.projection.TaskSearchProjection;
+import com.vku.job.repositories.specification.TaskSpecifications;
+import com.vku.job.services.history.TaskHistoryEvent;
+import com.vku.job.services.history.TaskHistoryWriter;
+import com.vku.job.services.statistics.StatisticsCache;
+import com.vku.job.services.statistics.TaskStatsService;
+import com.vku.job.services.statistics.TaskStatsService.TaskChange;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class TaskService {
@@ -41,7 +69,22 @@ public class TaskService {
     private ObjectMapper objectMapper;
 
     @Autowired
-    private TaskHistoryJpaRepository taskHistoryRepository;
+    private TaskHistoryWriter taskHistoryWriter;
+
+    @Autowired
+    private TaskHistoryArchiveJpaRepository taskHistoryArchiveRepository;
+
+    @Autowired
+    private StatisticsCache statisticsCache;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.tasks.batch.max-size:500}")
+    private int maxBatchSize;
 
     public TaskResponseDto convertToDto(Task task) {
         return TaskResponseDto.builder()
@@ -58,6 +101,20 @@ public class TaskService {
                 .build();
     }
 
+    public TaskResponseDto convertToDto(TaskListProjection task) {
+        return TaskResponseDto.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .deadline(task.getDeadline())
+                .status(task.getStatus() != null ? task.getStatus().name() : null)
+                .allowUserUpdate(task.isAllowUserUpdate())
+                .assignedFullName(task.getAssignedFullName())
+                .assignedUserId(task.getAssignedUserId())
+                .createdAt(task.getCreatedAt())
+                .build();
+    }
+
     public UpdateTaskHistoryResponseDto toTaskHistoryDto(Task task) {
         return UpdateTaskHistoryResponseDto.builder()
                 .id(task.getId())
@@ -73,7 +130,126 @@ public class TaskService {
                 .build();
     }
 
+    // Sort for keyset pagination: id is appended as tie-breaker so positions are unique
+    private Sort keysetSort(String sortBy, String order) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy, "id");
+    }
+
+    private String resolveSortBy(String sortBy) {
+        return switch (sortBy) {
+            case "id", "title", "createdAt", "deadline" -> sortBy;
+            default -> "id";
+        };
+    }
+
+    // Sort for full-text search: "relevance" ranks by match score, other keys are the select aliases
+    private Sort searchSort(String sortBy, String order) {
+        if ("relevance".equals(sortBy)) {
+            return Sort.by(Sort.Direction.DESC, "score", "id");
+        }
+        String column = resolveSortBy(sortBy);
+        return "desc".equalsIgnoreCase(order)
+                ? Sort.by(column).descending()
+                : Sort.by(column).ascending();
+    }
+
+    // Page carries totals from the COUNT query, a plain Slice skips it (-1 = not computed)
+    private PaginatedResponseDto<TaskResponseDto> toPaginatedResponse(Slice<TaskListProjection> tasks) {
+        boolean counted = tasks instanceof Page;
+        return new PaginatedResponseDto<>(
+                tasks.map(this::convertToDto).getContent(),
+                tasks.getNumber(),
+                tasks.getSize(),
+                counted ? ((Page<TaskListProjection>) tasks).getTotalElements() : -1,
+                counted ? ((Page<TaskListProjection>) tasks).getTotalPages() : -1,
+                tasks.hasNext(),
+                tasks.hasPrevious());
+    }
+
+    private PaginatedResponseDto<TaskResponseDto> toCursorPage(
+            Window<Task> tasks,
+            int size,
+            String sortBy,
+            TaskCursor cursor) {
+        List<Task> content = tasks.getContent();
+        String nextCursor = tasks.hasNext() && !content.isEmpty()
+                ? TaskCursor.after(content.get(content.size() - 1), sortBy).encode()
+                : null;
+
+        // totals are unknown in cursor mode
+        return new PaginatedResponseDto<>(
+                content.stream().map(this::convertToDto).toList(),
+                0,
+                size,
+                -1,
+                -1,
+                tasks.hasNext(),
+                cursor != null,
+                nextCursor);
+    }
+
+    // Full-text search page seeking on (score, id) for relevance, (sort key, id) otherwise;
+    // one extra row is fetched to know whether a next page exists
+    private PaginatedResponseDto<TaskResponseDto> searchByCursor(
+            String query,
+            Long userId,
+            String cursor,
+            int size,
+            String sortBy,
+            String order) {
+        sortBy = "relevance".equals(sortBy) ? sortBy : resolveSortBy(sortBy);
+        TaskCursor after = TaskCursor.decode(cursor, sortBy);
+        boolean relevance = "relevance".equals(sortBy);
+
+        List<TaskSearchProjection> rows = taskRepository.searchTaskListAfter(
+                query,
+                userId,
+                relevance ? "score" : sortBy,
+                relevance || "desc".equalsIgnoreCase(order),
+                after != null ? after.value() : null,
+                after != null ? after.id() : null,
+                size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<TaskSearchProjection> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? TaskCursor.after(content.get(content.size() - 1), sortBy).encode()
+                : null;
+
+        return new PaginatedResponseDto<>(
+                content.stream().map(this::convertToDto).toList(),
+                0,
+                size,
+                -1,
+                -1,
+                hasNext,
+                after != null,
+                nextCursor);
+    }
+
+    // History event holding only the changed fields, not full snapshots of the task
+    private TaskHistoryEvent toHistory(Task task, TaskHistoryDiff diff, Long updatedById, LocalDateTime at) {
+        try {
+            return new TaskHistoryEvent(
+                    task.getId(),
+                    updatedById,
+                    objectMapper.writeValueAsString(diff.oldValues()),
+                    objectMapper.writeValueAsString(diff.newValues()),
+                    at);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize task history");
+        }
+    }
+
+    private Long assignedUserId(Task task) {
+        return task.getAssignedUser() != null ? task.getAssignedUser().getId() : null;
+    }
+
     // Add task
+    @Transactional
     public TaskResponseDto addTask(CreateTaskRequestDto createTastRequestDto) {
 
         Task task = new Task();
@@ -89,15 +265,182 @@ public class TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+        taskStatsService.taskCreated(savedTask);
+        statisticsCache.evictTask(savedTask.getCreatedAt(), assignedUserId(savedTask));
         return convertToDto(savedTask);
     }
 
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new HttpException("At most " + maxBatchSize + " tasks per batch", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Bean validation messages of one batch item, null when it is valid
+    public String validationError(Object item) {
+        if (item == null) {
+            return "Task is required";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+
+    // New, not yet saved task from a validated create request
+    public Task newTask(CreateTaskRequestDto request, User assignee, LocalDateTime createdAt) {
+        Task task = new Task();
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setDeadline(request.getDeadline());
+        if (request.getStatus() != null) {
+            task.setStatus(TaskStatus.valueOf(request.getStatus()));
+        }
+        task.setAllowUserUpdate(request.isAllowUserUpdate());
+        task.setAssignedUser(assignee);
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(createdAt);
+        return task;
+    }
+
+    // Insert new tasks with one JDBC batch and count them in task_stats, in one transaction
+    @Transactional
+    public void insertTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        taskRepository.insertAll(tasks);
+        taskStatsService.tasksCreated(tasks);
+        Long[] userIds = tasks.stream().map(this::assignedUserId).distinct().toArray(Long[]::new);
+        tasks.stream().map(Task::getCreatedAt).distinct()
+                .forEach(createdAt -> statisticsCache.evictTask(createdAt, userIds));
+    }
+
+    // Add tasks in one batch: assignees are loaded with one query and the rows are
+    // written with one JDBC batch. Invalid items are reported and skipped.
+    @Transactional
+    public TaskBatchResponseDto addTasks(List<CreateTaskRequestDto> requests) {
+        checkBatchSize(requests.size());
+
+        List<Long> userIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(CreateTaskRequestDto::getAssignedUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        TaskBatchItemDto[] items = new TaskBatchItemDto[requests.size()];
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> taskIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequestDto request = requests.get(i);
+            String error = validationError(request);
+            if (error == null && !users.containsKey(request.getAssignedUserId())) {
+                error = "User not found";
+            }
+            if (error != null) {
+                items[i] = TaskBatchItemDto.failed(i, null, error);
+                continue;
+            }
+
+            tasks.add(newTask(request, users.get(request.getAssignedUserId()), now));
+            taskIndexes.add(i);
+        }
+
+        insertTasks(tasks);
+        for (int k = 0; k < tasks.size(); k++) {
+            int index = taskIndexes.get(k);
+            items[index] = TaskBatchItemDto.succeeded(index, convertToDto(tasks.get(k)));
+        }
+        return TaskBatchResponseDto.of(List.of(items));
+    }
+
+    // Bulk update the status, assignee and/or deadline of many tasks: the tasks are
+    // loaded with one query, updated in JDBC batches and get one batch of history rows.
+    // Unknown ids and invalid deadlines are reported per item and skipped.
+    @Transactional
+    public TaskBatchResponseDto bulkUpdateTasks(BulkUpdateTaskRequestDto dto, Long currentUserId) {
+        if (dto.getStatus() == null && dto.getAssignedUserId() == null && dto.getDeadline() == null) {
+            throw new RuntimeException("At least one field to update is required");
+        }
+        List<Long> ids = dto.getIds();
+        checkBatchSize(ids.size());
+
+        TaskStatus status = dto.getStatus() != null ? TaskStatus.valueOf(dto.getStatus()) : null;
+        User assignee = dto.getAssignedUserId() != null
+                ? userRepository.findById(dto.getAssignedUserId())
+                        .orElseThrow(() -> new RuntimeException("User not found"))
+                : null;
+        Map<Long, Task> tasks = taskRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskBatchItemDto> items = new ArrayList<>(ids.size());
+        List<TaskChange> changes = new ArrayList<>();
+        List<TaskHistoryEvent> histories = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Task task = tasks.get(ids.get(i));
+            if (task == null) {
+                items.add(TaskBatchItemDto.failed(i, ids.get(i), "Task not found"));
+                continue;
+            }
+            if (dto.getDeadline() != null && dto.getDeadline().isBefore(task.getCreatedAt().toLocalDate())) {
+                items.add(TaskBatchItemDto.failed(i, task.getId(), "Deadline cannot be before created date"));
+                continue;
+            }
+
+            Map<String, Object> before = TaskHistoryDiff.snapshot(task);
+            changes.add(new TaskChange(assignedUserId(task), task.getStatus(), task));
+            if (status != null) {
+                task.setStatus(status);
+            }
+            if (assignee != null) {
+                task.setAssignedUser(assignee);
+            }
+            if (dto.getDeadline() != null) {
+                task.setDeadline(dto.getDeadline());
+            }
+            TaskHistoryDiff diff = TaskHistoryDiff.between(before, TaskHistoryDiff.snapshot(task));
+
+            if (!diff.isEmpty()) {
+                histories.add(toHistory(task, diff, currentUserId, now));
+            }
+            items.add(TaskBatchItemDto.succeeded(i, convertToDto(task)));
+        }
+
+        taskStatsService.tasksChanged(changes);
+        taskHistoryWriter.enqueueAll(histories);
+        if (!histories.isEmpty()) {
+            // the changed tasks span many users and days: drop the whole statistics cache once
+            statisticsCache.evictAll();
+        }
+        return TaskBatchResponseDto.of(items);
+    }
+
     // get all tasks with pagination
     public PaginatedResponseDto<TaskResponseDto> getAllTasks(
             int page,
             int size,
             String sortBy,
             String order) {
+        return getAllTasks(page, size, sortBy, order, true);
+    }
+
+    // get all tasks with pagination, the COUNT query only runs when includeTotal
+    public PaginatedResponseDto<TaskResponseDto> getAllTasks(
+            int page,
+            int size,
+            String sortBy,
+            String order,
+            boolean includeTotal) {
         sortBy = switch (sortBy) {
             case "id", "title", "createdAt", "deadline" -> sortBy;
             default -> "id";
@@ -109,35 +452,49 @@ public class TaskService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Task> tasks = taskRepository.findAll(pageable);
+        Slice<TaskListProjection> tasks = includeTotal
+                ? taskRepository.findTaskList(pageable)
+                : taskRepository.findTaskListSlice(pageable);
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        return toPaginatedResponse(tasks);
+    }
+
+    // get all tasks with keyset pagination
+    public PaginatedResponseDto<TaskResponseDto> getAllTasksByCursor(
+            String cursor,
+            int size,
+            String sortBy,
+            String order) {
+        sortBy = resolveSortBy(sortBy);
+        TaskCursor after = TaskCursor.decode(cursor, sortBy);
+
+        Window<Task> tasks = taskRepository.findAllBy(
+                TaskCursor.positionOf(after),
+                keysetSort(sortBy, order),
+                Limit.of(size));
+
+        return toCursorPage(tasks, size, sortBy, after);
     }
 
     // delete task by id
+    @Transactional
     public void deleteTask(Long id) {
-        taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
         taskRepository.deleteById(id);
+        taskHistoryArchiveRepository.deleteByTaskId(id);
+        taskStatsService.taskDeleted(task);
+        statisticsCache.evictTask(task.getCreatedAt(), assignedUserId(task));
     }
 
     // update task
+    @Transactional
     public TaskResponseDto updateTask(UpdateTaskRequestDto updateTaskRequestDto, Long currentUserId) {
         Task task = taskRepository.findById(updateTaskRequestDto.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
-        String oldData;
-        try {
-            oldData = objectMapper.writeValueAsString(toTaskHistoryDto(task));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Cannot serialize old task data");
-        }
+        Map<String, Object> before = TaskHistoryDiff.snapshot(task);
+        Long previousUserId = assignedUserId(task);
+        TaskStatus previousStatus = task.getStatus();
 
         task.setTitle(updateTaskRequestDto.getTitle());
         task.setDescription(updateTaskRequestDto.getDescription());
@@ -161,28 +518,15 @@ public class TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
+        taskStatsService.taskChanged(previousUserId, previousStatus, updatedTask);
+        statisticsCache.evictTask(updatedTask.getCreatedAt(), previousUserId, assignedUserId(updatedTask));
 
-        String newData;
-        try {
-            newData = objectMapper.writeValueAsString(toTaskHistoryDto(updatedTask));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Cannot serialize new task data");
-        }
-        User updatedBy = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (oldData.equals(newData)) {
+        TaskHistoryDiff diff = TaskHistoryDiff.between(before, TaskHistoryDiff.snapshot(updatedTask));
+        if (diff.isEmpty()) {
             return convertToDto(updatedTask);
         }
 
-        TaskHistory history = TaskHistory.builder()
-                .task(updatedTask)
-                .updatedBy(updatedBy)
-                .oldData(oldData)
-                .newData(newData)
-                .build();
-
-        taskHistoryRepository.save(history);
+        taskHistoryWriter.enqueue(toHistory(updatedTask, diff, currentUserId, LocalDateTime.now()));
         return convertToDto(updatedTask);
     }
 
@@ -193,6 +537,17 @@ public class TaskService {
             int size,
             String sortBy,
             String order) {
+        return getTasksByUserId(userId, page, size, sortBy, order, true);
+    }
+
+    // get tasks by user id with pagination, the COUNT query only runs when includeTotal
+    public PaginatedResponseDto<TaskResponseDto> getTasksByUserId(
+            Long userId,
+            int page,
+            int size,
+            String sortBy,
+            String order,
+            boolean includeTotal) {
 
         sortBy = switch (sortBy) {
             case "id", "title", "createdAt", "deadline" -> sortBy;
@@ -205,16 +560,30 @@ public class TaskService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Task> tasks = taskRepository.findByAssignedUserId(userId, pageable);
+        Slice<TaskListProjection> tasks = includeTotal
+                ? taskRepository.findTaskListByUser(userId, pageable)
+                : taskRepository.findTaskListSliceByUser(userId, pageable);
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        return toPaginatedResponse(tasks);
+    }
+
+    // get tasks by user id with keyset pagination
+    public PaginatedResponseDto<TaskResponseDto> getTasksByUserIdByCursor(
+            Long userId,
+            String cursor,
+            int size,
+            String sortBy,
+            String order) {
+        sortBy = resolveSortBy(sortBy);
+        TaskCursor after = TaskCursor.decode(cursor, sortBy);
+
+        Window<Task> tasks = taskRepository.findByAssignedUserId(
+                userId,
+                TaskCursor.positionOf(after),
+                keysetSort(sortBy, order),
+                Limit.of(size));
+
+        return toCursorPage(tasks, size, sortBy, after);
     }
 
     // get task by id
@@ -231,6 +600,27 @@ public class TaskService {
             int size,
             String sortBy,
             String order) {
+        return searchTasksByTitle(title, page, size, sortBy, order, true);
+    }
+
+    // search tasks by title with pagination, the COUNT query only runs when includeTotal
+    public PaginatedResponseDto<TaskResponseDto> searchTasksByTitle(
+            String title,
+            int page,
+            int size,
+            String sortBy,
+            String order,
+            boolean includeTotal) {
+        String query = TaskSearchQuery.toBooleanMode(title);
+        if (query != null) {
+            Pageable pageable = PageRequest.of(page, size, searchSort(sortBy, order));
+            Slice<TaskListProjection> tasks = includeTotal
+                    ? taskRepository.searchTaskList(query, pageable)
+                    : taskRepository.searchTaskListSlice(query, pageable);
+            return toPaginatedResponse(tasks);
+        }
+
+        // no word long enough for the full-text index: substring match on the title
         sortBy = switch (sortBy) {
             case "id", "title", "createdAt", "deadline" -> sortBy;
             default -> "id";
@@ -242,16 +632,36 @@ public class TaskService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Task> tasks = taskRepository.findByTitleContainingIgnoreCase(title, pageable);
+        Slice<TaskListProjection> tasks = includeTotal
+                ? taskRepository.findTaskListByTitle(title, pageable)
+                : taskRepository.findTaskListSliceByTitle(title, pageable);
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        return toPaginatedResponse(tasks);
+    }
+
+    // search tasks by title with keyset pagination
+    public PaginatedResponseDto<TaskResponseDto> searchTasksByTitleByCursor(
+            String title,
+            String cursor,
+            int size,
+            String sortBy,
+            String order) {
+        String query = TaskSearchQuery.toBooleanMode(title);
+        if (query != null) {
+            return searchByCursor(query, null, cursor, size, sortBy, order);
+        }
+
+        // no word long enough for the full-text index: substring match on the title
+        sortBy = resolveSortBy(sortBy);
+        TaskCursor after = TaskCursor.decode(cursor, sortBy);
+
+        Window<Task> tasks = taskRepository.findByTitleContainingIgnoreCase(
+                title,
+                TaskCursor.positionOf(after),
+                keysetSort(sortBy, order),
+                Limit.of(size));
+
+        return toCursorPage(tasks, size, sortBy, after);
     }
 
     // filter tasks with pagination
@@ -304,21 +714,28 @@ public class TaskService {
                 ? LocalDate.parse(dto.getCreateAtTo()).atTime(23, 59, 59)
                 : null;
 
-        Page<Task> tasks = taskRepository.filterTasks(
-                dto.getUserId(),
-                taskStatus,
-                from,
-                to,
-                pageable);
+        if (dto.getCursor() != null) {
+            return filterTasksByCursor(dto, sortBy, taskStatus, from, to);
+        }
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        Slice<TaskListProjection> tasks = dto.isIncludeTotal()
+                ? taskRepository.filterTasks(dto.getUserId(), taskStatus, from, to, pageable)
+                : taskRepository.filterTasksSlice(dto.getUserId(), taskStatus, from, to, pageable);
+
+        return toPaginatedResponse(tasks);
+    }
+
+    // Keyset page of the filtered tasks, assignee profiles fetched in the same query
+    private PaginatedResponseDto<TaskResponseDto> filterTasksByCursor(FilterTaskRequestDto dto, String sortBy,
+            TaskStatus status, LocalDateTime from, LocalDateTime to) {
+        TaskCursor after = TaskCursor.decode(dto.getCursor(), sortBy);
+        Window<Task> window = taskRepository.findBy(
+                TaskSpecifications.filter(dto.getUserId(), status, from, to),
+                query -> query.sortBy(keysetSort(sortBy, dto.getOrder()))
+                        .project("assignedUser", "assignedUser.profile")
+                        .limit(dto.getSize())
+                        .scroll(TaskCursor.positionOf(after)));
+        return toCursorPage(window, dto.getSize(), sortBy, after);
     }
 
     // get tasks by user id and title with pagination
@@ -329,6 +746,28 @@ public class TaskService {
             int size,
             String sortBy,
             String order) {
+        return getTasksByUserAndTitle(userId, title, page, size, sortBy, order, true);
+    }
+
+    // get tasks by user id and title with pagination, the COUNT query only runs when includeTotal
+    public PaginatedResponseDto<TaskResponseDto> getTasksByUserAndTitle(
+            Long userId,
+            String title,
+            int page,
+            int size,
+            String sortBy,
+            String order,
+            boolean includeTotal) {
+        String query = TaskSearchQuery.toBooleanMode(title);
+        if (query != null) {
+            Pageable pageable = PageRequest.of(page, size, searchSort(sortBy, order));
+            Slice<TaskListProjection> tasks = includeTotal
+                    ? taskRepository.searchTaskListByUser(userId, query, pageable)
+                    : taskRepository.searchTaskListSliceByUser(userId, query, pageable);
+            return toPaginatedResponse(tasks);
+        }
+
+        // no word long enough for the full-text index: substring match on the title
         sortBy = switch (sortBy) {
             case "id", "title", "createdAt", "deadline" -> sortBy;
             default -> "id";
@@ -340,19 +779,38 @@ public class TaskService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Task> tasks = taskRepository.findByAssignedUserIdAndTitleContainingIgnoreCase(
+        Slice<TaskListProjection> tasks = includeTotal
+                ? taskRepository.findTaskListByUserAndTitle(userId, title, pageable)
+                : taskRepository.findTaskListSliceByUserAndTitle(userId, title, pageable);
+
+        return toPaginatedResponse(tasks);
+    }
+
+    // get tasks by user id and title with keyset pagination
+    public PaginatedResponseDto<TaskResponseDto> getTasksByUserAndTitleByCursor(
+            Long userId,
+            String title,
+            String cursor,
+            int size,
+            String sortBy,
+            String order) {
+        String query = TaskSearchQuery.toBooleanMode(title);
+        if (query != null) {
+            return searchByCursor(query, userId, cursor, size, sortBy, order);
+        }
+
+        // no word long enough for the full-text index: substring match on the title
+        sortBy = resolveSortBy(sortBy);
+        TaskCursor after = TaskCursor.decode(cursor, sortBy);
+
+        Window<Task> tasks = taskRepository.findByAssignedUserIdAndTitleContainingIgnoreCase(
                 userId,
                 title,
-                pageable);
+                TaskCursor.positionOf(after),
+                keysetSort(sortBy, order),
+                Limit.of(size));
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        return toCursorPage(tasks, size, sortBy, after);
     }
 
     // get tasks by user id and status with pagination
@@ -405,24 +863,19 @@ public class TaskService {
                 ? LocalDate.parse(dto.getCreateAtTo()).atTime(23, 59, 59)
                 : null;
 
-        Page<Task> tasks = taskRepository.filterTasks(
-                dto.getUserId(),
-                taskStatus,
-                from,
-                to,
-                pageable);
+        if (dto.getCursor() != null) {
+            return filterTasksByCursor(dto, sortBy, taskStatus, from, to);
+        }
 
-        return new PaginatedResponseDto<>(
-                tasks.map(this::convertToDto).getContent(),
-                tasks.getNumber(),
-                tasks.getSize(),
-                tasks.getTotalElements(),
-                tasks.getTotalPages(),
-                tasks.hasNext(),
-                tasks.hasPrevious());
+        Slice<TaskListProjection> tasks = dto.isIncludeTotal()
+                ? taskRepository.filterTasks(dto.getUserId(), taskStatus, from, to, pageable)
+                : taskRepository.filterTasksSlice(dto.getUserId(), taskStatus, from, to, pageable);
+
+        return toPaginatedResponse(tasks);
     }
 
     // user update task by id
+    @Transactional
     public TaskResponseDto updateTaskByUser(UpdateTaskByUserRequestDto updateTaskRequestDto, Long currentUserId) {
         Task task = taskRepository.findById(updateTaskRequestDto.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -430,12 +883,8 @@ public class TaskService {
         if (!task.isAllowUserUpdate()) {
             throw new RuntimeException("User is not allowed to update this task");
         }
-        String oldData;
-        try {
-            oldData = objectMapper.writeValueAsString(toTaskHistoryDto(task));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Cannot serialize old task data");
-        }
+        Map<String, Object> before = TaskHistoryDiff.snapshot(task);
+        TaskStatus previousStatus = task.getStatus();
         task.setTitle(updateTaskRequestDto.getTitle());
         task.setDescription(updateTaskRequestDto.getDescription());
         task.setDeadline(updateTaskRequestDto.getDeadline());
@@ -447,40 +896,31 @@ public class TaskService {
             throw new RuntimeException("Deadline cannot be before created date");
         }
         Task updatedTask = taskRepository.save(task);
+        taskStatsService.taskChanged(assignedUserId(updatedTask), previousStatus, updatedTask);
+        statisticsCache.evictTask(updatedTask.getCreatedAt(), assignedUserId(updatedTask));
 
-        String newData;
-        try {
-            newData = objectMapper.writeValueAsString(toTaskHistoryDto(updatedTask));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Cannot serialize new task data");
-        }
-
-        if (oldData.equals(newData)) {
+        TaskHistoryDiff diff = TaskHistoryDiff.between(before, TaskHistoryDiff.snapshot(updatedTask));
+        if (diff.isEmpty()) {
             return convertToDto(updatedTask);
         }
 
-        User updatedBy = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        TaskHistory history = TaskHistory.builder()
-                .task(updatedTask)
-                .updatedBy(updatedBy)
-                .oldData(oldData)
-                .newData(newData)
-                .build();
-        taskHistoryRepository.save(history);
+        taskHistoryWriter.enqueue(toHistory(updatedTask, diff, currentUserId, LocalDateTime.now()));
         return convertToDto(updatedTask);
     }
 
-    // get all tasks for export
-    public List<TaskResponseDto> getTasksForExport() {
-        List<Task> tasks = taskRepository.findAll();
-        return tasks.stream().map(this::convertToDto).toList();
+    // number of rows an export will write (all tasks when userId is null)
+    public long countTasksForExport(Long userId) {
+        return userId == null ? taskRepository.count() : taskRepository.countByAssignedUserId(userId);
     }
 
-    // get tasks for export by user id
-    public List<TaskResponseDto> getTasksForExportByUserId(Long userId) {
-        List<Task> tasks = taskRepository.findByAssignedUserId(userId);
-        return tasks.stream().map(this::convertToDto).toList();
+    // stream tasks for export (all tasks when userId is null) in fetch-size batches;
+    // the consumer runs inside the read-only transaction that keeps the cursor open
+    @Transactional(readOnly = true)
+    public void streamTasksForExport(Long userId, Consumer<Stream<TaskResponseDto>> consumer) {
+        try (Stream<TaskListProjection> rows = userId == null
+                ? taskRepository.streamTaskList()
+                : taskRepository.streamTaskListByUser(userId)) {
+            consumer.accept(rows.map(this::convertToDto));
+        }
     }
 }
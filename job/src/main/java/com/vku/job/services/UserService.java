@@ -2,17 +2,15 @@ package com.vku.job.services;
 
 import java.security.SecureRandom;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.vku.job.dtos.PaginatedResponseDto;
 import com.vku.job.dtos.auth.ChangePassRequestDto;
@@ -33,8 +31,12 @@ import com.vku.job.exceptions.HttpException;
 import com.vku.job.repositories.RoleJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
 import com.vku.job.repositories.projection.FullNameUserProjection;
+import com.vku.job.services.auth.CustomUserDetailsService;
+import com.vku.job.services.auth.GoogleIdTokenVerifier;
 import com.vku.job.services.auth.JwtService;
+import com.vku.job.services.auth.OtpHasher;
 
+import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -45,9 +47,15 @@ public class UserService {
         @Autowired
         private JwtService jwtService;
 
+        @Autowired
+        private CustomUserDetailsService userDetailsService;
+
         @Autowired
         private PasswordEncoder passwordEncoder;
 
+        @Autowired
+        private OtpHasher otpHasher;
+
         @Autowired
         private RoleJpaRepository roleJpaRepository;
 
@@ -55,7 +63,10 @@ public class UserService {
         private MailService emailService;
 
         @Autowired
-        private RestTemplate restTemplate;
+        private GoogleIdTokenVerifier googleIdTokenVerifier;
+
+        @Value("${app.security.otp.max-attempts:5}")
+        private int maxOtpAttempts;
 
         private static final SecureRandom secureRandom = new SecureRandom();
 
@@ -80,6 +91,13 @@ public class UserService {
                         throw new HttpException("Invalid username or password", HttpStatus.UNAUTHORIZED);
                 }
 
+                // hashed with another cost (or before the {bcrypt} prefix): store a fresh hash
+                if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                        user.setPassword(passwordEncoder.encode(request.getPassword()));
+                        userJpaRepository.save(user);
+                        userDetailsService.evict(user.getId());
+                }
+
                 if (!user.isEmailVerified()) {
                         throw new HttpException("Email is not verified. Please verify your email before logging in.",
                                         HttpStatus.FORBIDDEN);
@@ -113,31 +131,11 @@ public class UserService {
         // login with google
         @Transactional
         public LoginResponseDto googleLogin(GoogleLoginRequestDto requestDto) {
-                String credential = requestDto.getCredential();
-                String url = "https://oauth2.googleapis.com/tokeninfo?id_token=" + credential;
-                @SuppressWarnings("rawtypes")
-                ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-                @SuppressWarnings("unchecked")
-                Map<String, Object> payload = response.getBody();
-                if (response.getStatusCode() != HttpStatus.OK) {
-                        throw new HttpException("Invalid Google token", HttpStatus.UNAUTHORIZED);
-                }
-
-                String email;
-                if (payload != null && payload.containsKey("email")) {
-                        email = payload.get("email").toString();
-                } else {
-                        throw new HttpException("Email not found in token", HttpStatus.UNAUTHORIZED);
-                }
-
-                String iss = payload.get("iss").toString();
-                if (!iss.equals("https://accounts.google.com") && !iss.equals("accounts.google.com")) {
-                        throw new HttpException("Invalid Google token issuer", HttpStatus.UNAUTHORIZED);
-                }
+                Claims payload = googleIdTokenVerifier.verify(requestDto.getCredential());
 
-                long exp = Long.parseLong(payload.get("exp").toString());
-                if (exp < System.currentTimeMillis() / 1000) {
-                        throw new HttpException("Google token has expired", HttpStatus.UNAUTHORIZED);
+                String email = payload.get("email", String.class);
+                if (email == null) {
+                        throw new HttpException("Email not found in token", HttpStatus.UNAUTHORIZED);
                 }
                 // check if user exists
 
@@ -157,7 +155,7 @@ public class UserService {
                         user.setIsActive(0);
                         user.setPassword(null);
                         UserProfile profile = new UserProfile();
-                        profile.setFullName(payload.get("name").toString());
+                        profile.setFullName(payload.get("name", String.class));
                         profile.setUser(user);
                         user.setProfile(profile);
                         Role userRole = roleJpaRepository.findByName("Users").orElseThrow(
@@ -196,6 +194,14 @@ public class UserService {
                 return String.valueOf(otp);
         }
 
+        // counts a guess at the current code, atomically, before it is checked
+        private void consumeOtpAttempt(User user) {
+                if (userJpaRepository.consumeOtpAttempt(user.getId(), maxOtpAttempts) == 0) {
+                        throw new HttpException("Too many incorrect codes. Please request a new one.",
+                                        HttpStatus.TOO_MANY_REQUESTS);
+                }
+        }
+
         // register new user
         @Transactional
         public RegisterResponseDto register(RegisterRequestDto request) throws Exception {
@@ -234,8 +240,9 @@ public class UserService {
                 profile.setFullName(request.getFullName());
 
                 String otp = generateOtp();
-                user.setEmailOtpHash(passwordEncoder.encode(otp));
+                user.setEmailOtpHash(otpHasher.hash(request.getEmail(), otp));
                 user.setEmailOtpExpiry(System.currentTimeMillis() + 1 * 60 * 1000); // 1 minute expiry
+                user.setEmailOtpAttempts(0);
 
                 userJpaRepository.save(user);
 
@@ -260,13 +267,15 @@ public class UserService {
                         throw new HttpException("OTP has expired", HttpStatus.BAD_REQUEST);
                 }
 
-                if (!passwordEncoder.matches(otp, user.getEmailOtpHash())) {
+                consumeOtpAttempt(user);
+                if (!otpHasher.matches(email, otp, user.getEmailOtpHash())) {
                         throw new HttpException("Invalid OTP", HttpStatus.BAD_REQUEST);
                 }
 
                 user.setEmailVerified(true);
                 user.setEmailOtpHash(null);
                 user.setEmailOtpExpiry(null);
+                user.setEmailOtpAttempts(0);
                 userJpaRepository.save(user);
         }
 
@@ -307,6 +316,7 @@ public class UserService {
                 }
                 user.setIsActive(isActive);
                 userJpaRepository.save(user);
+                userDetailsService.evict(userId);
         }
 
         // fetch name user
@@ -330,6 +340,7 @@ public class UserService {
                 }
                 user.setPassword(passwordEncoder.encode(changePassRequest.getNewPassword()));
                 userJpaRepository.save(user);
+                userDetailsService.evict(userId);
         }
 
         // forget password
@@ -347,8 +358,9 @@ public class UserService {
                 }
 
                 String otp = generateOtp();
-                user.setEmailOtpHash(passwordEncoder.encode(otp));
+                user.setEmailOtpHash(otpHasher.hash(email, otp));
                 user.setEmailOtpExpiry(System.currentTimeMillis() + 10 * 60 * 1000); // 10 minutes expiry
+                user.setEmailOtpAttempts(0);
 
                 userJpaRepository.save(user);
 
@@ -371,7 +383,8 @@ public class UserService {
                 if (user.getEmailOtpExpiry() == null || user.getEmailOtpExpiry() < System.currentTimeMillis()) {
                         throw new IllegalArgumentException("OTP has expired");
                 }
-                if (!passwordEncoder.matches(request.getOtp(), user.getEmailOtpHash())) {
+                consumeOtpAttempt(user);
+                if (!otpHasher.matches(request.getEmail(), request.getOtp(), user.getEmailOtpHash())) {
                         throw new IllegalArgumentException("Invalid OTP");
                 }
         }
@@ -393,13 +406,16 @@ public class UserService {
                         throw new IllegalArgumentException("OTP has expired");
                 }
 
-                if (!passwordEncoder.matches(request.getOtp(), user.getEmailOtpHash())) {
+                consumeOtpAttempt(user);
+                if (!otpHasher.matches(request.getEmail(), request.getOtp(), user.getEmailOtpHash())) {
                         throw new IllegalArgumentException("Invalid OTP");
                 }
 
                 user.setPassword(passwordEncoder.encode(request.getNewPassword()));
                 user.setEmailOtpHash(null);
                 user.setEmailOtpExpiry(null);
+                user.setEmailOtpAttempts(0);
                 userJpaRepository.save(user);
+                userDetailsService.evict(user.getId());
         }
 }
@@ -0,0 +1,24 @@
+package com.vku.job.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the weekly task report every Monday at 8 AM.
+ * The report mails every admin, so the schedule only exists where
+ * app.reports.weekly.enabled is set; the manual trigger is not affected.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reports.weekly.enabled", havingValue = "true")
+public class WeeklyReportScheduler {
+    private final StatisticsService statisticsService;
+
+    @Scheduled(cron = "0 0 8 ? * MON")
+    public void exportWeeklyTaskReport() {
+        statisticsService.exportWeeklyTaskReportPdf();
+    }
+}
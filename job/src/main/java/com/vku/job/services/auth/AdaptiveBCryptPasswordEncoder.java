@@ -0,0 +1,75 @@
+package com.vku.job.services.auth;
+
+import java.util.Arrays;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BCrypt at a cost measured on this machine, so one hash takes about the
+ * target time. The cost is a floor: stored hashes below it report an upgrade,
+ * which rehashes them on the next successful login, while stronger ones are
+ * kept, so instances calibrated on different hardware never undo each other.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+
+    private final int cost;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String encodedPassword) {
+        int stored = costOf(encodedPassword);
+        return stored > 0 && stored < cost;
+    }
+
+    // the cost of a $2a$10$... hash, -1 if it is not a BCrypt hash
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Largest cost within [minCost, maxCost] whose hash time stays under the
+     * target. Times one hash at minCost (median of three) and doubles from there,
+     * since each cost step doubles the work.
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(SAMPLE_PASSWORD); // warm-up
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            probe.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double millisAtMin = Math.max(samples[1] / 1_000_000.0, 0.001);
+
+        int cost = minCost;
+        double millis = millisAtMin;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        log.info("BCrypt cost {} (~{} ms per hash, {} ms at cost {}, target {} ms)", cost, Math.round(millis),
+                Math.round(millisAtMin), minCost, targetMillis);
+        return cost;
+    }
+}
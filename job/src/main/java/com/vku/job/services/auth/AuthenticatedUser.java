@@ -0,0 +1,25 @@
+package com.vku.job.services.auth;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Principal of an authenticated request; carries the user id so controllers
+ * do not have to read it back from the token.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AuthenticatedUser extends User {
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password, boolean enabled,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+}
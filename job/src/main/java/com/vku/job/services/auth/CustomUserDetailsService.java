@@ -1,8 +1,11 @@
 package com.vku.job.services.auth;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,6 +13,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.vku.job.entities.User;
 import com.vku.job.repositories.UserJpaRepository;
 
@@ -18,8 +23,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserJpaRepository userRepository;
 
-    public CustomUserDetailsService(UserJpaRepository userRepository) {
+    // principals of authenticated requests by user id (roles + active flag)
+    private final Cache<Long, UserDetails> principals;
+
+    @Autowired
+    public CustomUserDetailsService(UserJpaRepository userRepository,
+            @Value("${app.auth.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.auth.principal-cache.max-size:10000}") long maxSize) {
         this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
     }
 
     @Override
@@ -27,17 +42,33 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
+        String password = user.getPassword() != null ? user.getPassword() : "";
+        return toUserDetails(user, password);
+    }
+
+    /**
+     * Principal for a request authenticated by an access token. Served from a
+     * short-lived cache so steady-state requests run no query; call
+     * {@link #evict(Long)} when the user's status, roles or password change.
+     */
+    public UserDetails loadUserById(Long userId) throws UsernameNotFoundException {
+        return principals.get(userId, id -> userRepository.findById(id)
+                // the token is the credential here, the password hash is not kept
+                .map(user -> toUserDetails(user, ""))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id)));
+    }
+
+    public void evict(Long userId) {
+        principals.invalidate(userId);
+    }
+
+    private UserDetails toUserDetails(User user, String password) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         user.getRoles().forEach(role -> {
             authorities.add(new SimpleGrantedAuthority(role.getName()));
             authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
         });
-        String password = user.getPassword() != null ? user.getPassword() : "";
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(password)
-                .authorities(authorities)
-                .disabled(user.getIsActive() != 0)
-                .build();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), password, user.getIsActive() == 0,
+                authorities);
     }
-}
\ No newline at end of file
+}
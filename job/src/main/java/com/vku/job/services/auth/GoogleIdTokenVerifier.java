@@ -0,0 +1,246 @@
+package com.vku.job.services.auth;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.vku.job.config.EnvLoader;
+import com.vku.job.exceptions.HttpException;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.RsaPublicJwk;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies Google ID tokens locally: RS256 signature against Google's public
+ * keys, issuer, audience (our OAuth client ids) and expiry. The keys come from
+ * a JWKS document (https:, file: or classpath: URI) and are cached for the
+ * Cache-Control max-age Google sends; a token signed with an unknown key id
+ * triggers one early refresh, at most every min-refresh-seconds.
+ */
+@Slf4j
+@Component
+public class GoogleIdTokenVerifier {
+    private static final Set<String> ISSUERS = Set.of("https://accounts.google.com", "accounts.google.com");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final String jwksUri;
+    private final Set<String> audiences;
+    private final Duration keysTtl;
+    private final Duration minRefreshInterval;
+    private final RestClient restClient;
+    private final ResourceLoader resourceLoader;
+    private final Clock clock;
+    private final JwtParser parser;
+
+    private volatile KeySet keySet = new KeySet(Map.of(), Instant.MIN, Instant.MIN);
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${app.auth.google.jwks-preload:true}")
+    private boolean preload;
+
+    // keys by kid, usable until expiresAt
+    private record KeySet(Map<String, PublicKey> keys, Instant fetchedAt, Instant expiresAt) {
+    }
+
+    @Autowired
+    public GoogleIdTokenVerifier(
+            RestClient.Builder outboundRestClientBuilder,
+            ResourceLoader resourceLoader,
+            @Value("${app.auth.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri,
+            @Value("${app.auth.google.enabled:true}") boolean enabled,
+            @Value("${app.auth.google.client-ids:}") String clientIds,
+            @Value("${app.auth.google.keys-ttl-seconds:3600}") long keysTtlSeconds,
+            @Value("${app.auth.google.min-refresh-seconds:60}") long minRefreshSeconds,
+            @Value("${app.auth.google.clock-skew-seconds:60}") long clockSkewSeconds) {
+        this(outboundRestClientBuilder.build(), resourceLoader, jwksUri,
+                clientIds(enabled, clientIds, EnvLoader.get("GOOGLE_CLIENT_ID")),
+                Duration.ofSeconds(keysTtlSeconds), Duration.ofSeconds(minRefreshSeconds),
+                Duration.ofSeconds(clockSkewSeconds), Clock.systemUTC());
+    }
+
+    public GoogleIdTokenVerifier(RestClient restClient, ResourceLoader resourceLoader, String jwksUri,
+            Set<String> audiences, Duration keysTtl, Duration minRefreshInterval, Duration clockSkew, Clock clock) {
+        this.restClient = restClient;
+        this.resourceLoader = resourceLoader;
+        this.jwksUri = jwksUri;
+        this.audiences = audiences;
+        this.keysTtl = keysTtl;
+        this.minRefreshInterval = minRefreshInterval;
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        if (!"RS256".equals(header.getAlgorithm())) {
+                            throw new JwtException("Unexpected signing algorithm " + header.getAlgorithm());
+                        }
+                        return publicKey(header.getKeyId());
+                    }
+                })
+                .clockSkewSeconds(clockSkew.toSeconds())
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+    }
+
+    /**
+     * Accepted audiences: the client-ids property, else GOOGLE_CLIENT_ID from the
+     * .env file shipped with the image; none when Google sign-in is disabled.
+     *
+     * @throws IllegalStateException if Google sign-in is enabled without any
+     *                               client id, as it would reject every login
+     */
+    public static Set<String> clientIds(boolean enabled, String configured, String envFileValue) {
+        if (!enabled) {
+            return Set.of();
+        }
+        String value = configured != null && !configured.isBlank() ? configured : envFileValue;
+        Set<String> ids = value == null ? Set.of()
+                : Arrays.stream(value.split(",")).map(String::trim).filter(id -> !id.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("app.auth.google.client-ids (GOOGLE_CLIENT_ID) is not set; "
+                    + "set it or disable Google sign-in with app.auth.google.enabled=false");
+        }
+        return ids;
+    }
+
+    // load the keys once the app is up so the first Google login does not wait for them
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadKeys() {
+        if (preload && !audiences.isEmpty()) {
+            Thread.ofVirtual().name("google-jwks-preload").start(() -> refresh(keySet, false));
+        }
+    }
+
+    /**
+     * Returns the claims of a valid Google ID token.
+     *
+     * @throws HttpException 401 if the signature, issuer, audience or expiry is invalid,
+     *                       403 if Google sign-in is disabled
+     */
+    public Claims verify(String idToken) {
+        if (audiences.isEmpty()) {
+            throw new HttpException("Google sign-in is disabled", HttpStatus.FORBIDDEN);
+        }
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(idToken).getPayload();
+        } catch (ExpiredJwtException e) {
+            throw new HttpException("Google token has expired", HttpStatus.UNAUTHORIZED);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected Google token: {}", e.getMessage());
+            throw new HttpException("Invalid Google token", HttpStatus.UNAUTHORIZED);
+        }
+
+        if (claims.getIssuer() == null || !ISSUERS.contains(claims.getIssuer())) {
+            throw new HttpException("Invalid Google token issuer", HttpStatus.UNAUTHORIZED);
+        }
+        if (claims.getAudience() == null || claims.getAudience().stream().noneMatch(audiences::contains)) {
+            throw new HttpException("Invalid Google token audience", HttpStatus.UNAUTHORIZED);
+        }
+        if (claims.getExpiration() == null) {
+            throw new HttpException("Invalid Google token", HttpStatus.UNAUTHORIZED);
+        }
+        return claims;
+    }
+
+    private PublicKey publicKey(String kid) {
+        KeySet current = keySet;
+        if (clock.instant().isAfter(current.expiresAt())) {
+            current = refresh(current, false);
+        }
+        PublicKey key = current.keys().get(kid);
+        if (key == null) {
+            // Google rotated its keys since the last fetch
+            key = refresh(current, true).keys().get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
+    // one thread fetches; the others reuse its result. On failure the old keys stay in use.
+    private KeySet refresh(KeySet seen, boolean kidMiss) {
+        refreshLock.lock();
+        try {
+            KeySet current = keySet;
+            if (current != seen) {
+                return current;
+            }
+            Instant now = clock.instant();
+            if (kidMiss && now.isBefore(current.fetchedAt().plus(minRefreshInterval))) {
+                return current;
+            }
+            try {
+                keySet = load(now);
+            } catch (RuntimeException | IOException e) {
+                log.warn("Could not load Google signing keys from {}: {}", jwksUri, e.getMessage());
+                keySet = new KeySet(current.keys(), now, now.plus(minRefreshInterval));
+            }
+            return keySet;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private KeySet load(Instant now) throws IOException {
+        String json;
+        Duration ttl = keysTtl;
+        if (jwksUri.startsWith("http://") || jwksUri.startsWith("https://")) {
+            ResponseEntity<String> response = restClient.get().uri(jwksUri).retrieve().toEntity(String.class);
+            json = response.getBody();
+            String cacheControl = response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+            Matcher maxAge = MAX_AGE.matcher(cacheControl != null ? cacheControl : "");
+            if (maxAge.find()) {
+                ttl = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+            }
+        } else {
+            json = resourceLoader.getResource(jwksUri).getContentAsString(StandardCharsets.UTF_8);
+        }
+
+        JwkSet jwks = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : jwks.getKeys()) {
+            if (jwk instanceof RsaPublicJwk rsa && rsa.getId() != null) {
+                keys.put(rsa.getId(), rsa.toKey());
+            }
+        }
+        log.info("Loaded {} Google signing keys, valid for {}", keys.size(), ttl);
+        return new KeySet(Map.copyOf(keys), now, now.plus(ttl));
+    }
+}
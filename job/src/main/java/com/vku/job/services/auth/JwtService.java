@@ -1,5 +1,10 @@
 package com.vku.job.services.auth;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -7,24 +12,44 @@ import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.vku.job.entities.User;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
+    private static final String SECRET_KEY = "NBZzu/XN0IgTPw/EfJgOkYD+tK5JdLLhQdNkUsPl2AU=";
 
-    private SecretKey getSigningKey() {
-        String secretKey = "NBZzu/XN0IgTPw/EfJgOkYD+tK5JdLLhQdNkUsPl2AU=";
-        byte[] keyBytes = io.jsonwebtoken.io.Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // decoded once: the key and parser are immutable and thread-safe
+    private final SecretKey signingKey = Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser parser = Jwts.parser().verifyWith(signingKey).build();
+
+    // verified claims by token hash, each entry expires with its token
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtService(@Value("${app.jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(Expiry.creating((String hash, Claims claims) -> timeToExpiry(claims)))
+                .build();
+    }
+
+    private static Duration timeToExpiry(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return Duration.ZERO;
+        }
+        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, millis));
     }
 
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
@@ -36,7 +61,7 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -49,12 +74,29 @@ public class JwtService {
         return createToken(claims, user.getUsername(), jwtExpiration);
     }
 
+    /**
+     * Verifies the token and returns its claims. A token is only verified
+     * (HMAC + JSON parse) the first time it is seen; later calls are served
+     * from the cache until the token expires. Invalid tokens are never cached.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims verify(String token) {
+        return claimsCache.get(hash(token), hash -> parser.parseSignedClaims(token).getPayload());
+    }
+
+    // the cache keeps a digest rather than the bearer token itself
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verify(token);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -79,11 +121,13 @@ public class JwtService {
     }
 
     public Boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        final String tokenType = extractTokenType(token);
-        return (username.equals(userDetails.getUsername()))
-                && !isTokenExpired(token)
-                && "access_token".equals(tokenType); // Only access tokens for authentication
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public Boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date())
+                && "access_token".equals(claims.get("type", String.class)); // Only access tokens for authentication
     }
 
     public String generateRefreshToken(User user) {
@@ -105,8 +149,4 @@ public class JwtService {
             return false;
         }
     }
-
-    public Long extractUserIdFromToken(String token) {
-        return extractClaim(token, claims -> claims.get("id", Long.class));
-    }
 }
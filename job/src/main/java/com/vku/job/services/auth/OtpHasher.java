@@ -0,0 +1,68 @@
+package com.vku.job.services.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.vku.job.config.EnvLoader;
+
+/**
+ * Hashes one-time codes with HMAC-SHA256 under a server key. OTPs expire in
+ * minutes and only have a million values, so a slow password hash adds CPU
+ * without adding safety; the secret key is what stops offline guessing.
+ * The email is part of the input, so a hash is only valid for its own account.
+ */
+@Component
+public class OtpHasher {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    @Autowired
+    public OtpHasher(@Value("${app.security.otp.hmac-key:}") String base64Key) {
+        this(base64Key, EnvLoader.get("OTP_HMAC_KEY"));
+    }
+
+    /**
+     * The property wins; envFileKey is OTP_HMAC_KEY from the .env file shipped with the image.
+     *
+     * @throws IllegalStateException if neither is set: a per-process key would
+     *                               break codes across restarts and instances
+     */
+    public OtpHasher(String base64Key, String envFileKey) {
+        String configured = base64Key != null && !base64Key.isBlank() ? base64Key : envFileKey;
+        if (configured == null || configured.isBlank()) {
+            throw new IllegalStateException("app.security.otp.hmac-key (OTP_HMAC_KEY) is not set");
+        }
+        this.key = new SecretKeySpec(Base64.getDecoder().decode(configured.strip()), ALGORITHM);
+    }
+
+    public String hash(String email, String otp) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((email.toLowerCase() + ":" + otp).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    // constant-time comparison
+    public boolean matches(String email, String otp, String storedHash) {
+        if (otp == null || storedHash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                hash(email, otp).getBytes(StandardCharsets.US_ASCII),
+                storedHash.getBytes(StandardCharsets.US_ASCII));
+    }
+}
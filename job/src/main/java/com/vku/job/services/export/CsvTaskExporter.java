@@ -0,0 +1,85 @@
+package com.vku.job.services.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.vku.job.dtos.task.TaskResponseDto;
+
+// RFC 4180 CSV, one line per task
+@Component
+public class CsvTaskExporter implements TaskExporter {
+    private static final String HEADER = "ID,Title,Status,Deadline,Assigned User ID,Assigned User,Created At";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public String format() {
+        return "csv";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return new MediaType("text", "csv", StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(Stream<TaskResponseDto> tasks, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+
+            tasks.forEach(task -> {
+                try {
+                    writer.write(String.valueOf(task.getId()));
+                    writer.write(',');
+                    writer.write(escape(task.getTitle()));
+                    writer.write(',');
+                    writer.write(escape(task.getStatus()));
+                    writer.write(',');
+                    writer.write(task.getDeadline() != null ? task.getDeadline().toString() : "");
+                    writer.write(',');
+                    writer.write(task.getAssignedUserId() != null ? task.getAssignedUserId().toString() : "");
+                    writer.write(',');
+                    writer.write(escape(task.getAssignedFullName()));
+                    writer.write(',');
+                    writer.write(task.getCreatedAt() != null ? task.getCreatedAt().format(DATE_TIME_FORMATTER) : "");
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to export CSV file", e);
+        }
+    }
+
+    // quote fields containing a separator, quote or line break; double embedded quotes
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
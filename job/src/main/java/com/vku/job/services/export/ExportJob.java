@@ -0,0 +1,84 @@
+package com.vku.job.services.export;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.vku.job.dtos.task.ExportJobResponseDto;
+import com.vku.job.enums.ExportJobStatus;
+
+import lombok.Getter;
+
+/**
+ * State of one background export. Written by the export thread, read by
+ * status requests, so the mutable fields are volatile/atomic.
+ */
+@Getter
+public class ExportJob {
+    private final String id;
+    private final Long ownerId;
+    // null exports all tasks
+    private final Long userId;
+    private final TaskExporter exporter;
+    private final Path file;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile long totalRows;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    public ExportJob(String id, Long ownerId, Long userId, TaskExporter exporter, Path file) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.userId = userId;
+        this.exporter = exporter;
+        this.file = file;
+    }
+
+    void start(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = ExportJobStatus.RUNNING;
+    }
+
+    void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    void finish() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = ExportJobStatus.DONE;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = ExportJobStatus.FAILED;
+    }
+
+    public int getPercent() {
+        if (status == ExportJobStatus.DONE) {
+            return 100;
+        }
+        if (totalRows <= 0) {
+            return 0;
+        }
+        // rows added while exporting can push the count past the total
+        return (int) Math.min(99, rowsWritten.get() * 100 / totalRows);
+    }
+
+    public ExportJobResponseDto toDto() {
+        return ExportJobResponseDto.builder()
+                .id(id)
+                .format(exporter.format())
+                .status(status)
+                .rowsWritten(rowsWritten.get())
+                .totalRows(totalRows)
+                .percent(getPercent())
+                .error(error)
+                .createdAt(createdAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
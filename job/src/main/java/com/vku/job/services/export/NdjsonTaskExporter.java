@@ -0,0 +1,60 @@
+package com.vku.job.services.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vku.job.dtos.task.TaskResponseDto;
+
+// Newline-delimited JSON, one task object per line
+@Component
+public class NdjsonTaskExporter implements TaskExporter {
+    private final ObjectWriter writer;
+
+    public NdjsonTaskExporter(ObjectMapper objectMapper) {
+        // ISO dates instead of arrays, easier for downstream loaders
+        this.writer = objectMapper.writerFor(TaskResponseDto.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    public String format() {
+        return "ndjson";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "ndjson";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    @Override
+    public void write(Stream<TaskResponseDto> tasks, OutputStream out) {
+        try {
+            OutputStream buffered = new BufferedOutputStream(out);
+            tasks.forEach(task -> {
+                try {
+                    buffered.write(writer.writeValueAsBytes(task));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to export NDJSON file", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.vku.job.services.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.vku.job.enums.ExportJobStatus;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.services.TaskService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs task exports in the background on a bounded executor.
+ * Files are written to a local directory and removed once they are older
+ * than the TTL. Jobs are kept in memory, so they belong to this instance.
+ */
+@Slf4j
+@Service
+public class TaskExportJobService {
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private final TaskService taskService;
+    private final TaskExporterRegistry exporterRegistry;
+    private final TaskExecutor exportExecutor;
+    private final Path exportDir;
+    private final Duration ttl;
+
+    @Autowired
+    public TaskExportJobService(
+            TaskService taskService,
+            TaskExporterRegistry exporterRegistry,
+            @Value("${app.export.dir:${java.io.tmpdir}/job-exports}") String exportDir,
+            @Value("${app.export.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity) {
+        this(taskService, exporterRegistry, exportExecutor(maxConcurrent, queueCapacity), Paths.get(exportDir),
+                Duration.ofMinutes(ttlMinutes));
+    }
+
+    public TaskExportJobService(
+            TaskService taskService,
+            TaskExporterRegistry exporterRegistry,
+            TaskExecutor exportExecutor,
+            Path exportDir,
+            Duration ttl) {
+        this.taskService = taskService;
+        this.exporterRegistry = exporterRegistry;
+        this.exportExecutor = exportExecutor;
+        this.exportDir = exportDir;
+        this.ttl = ttl;
+    }
+
+    // Exports are heavy: a few run at once, the rest wait in a bounded queue
+    private static ThreadPoolTaskExecutor exportExecutor(int maxConcurrent, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("task-export-");
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (exportExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Queues an export of all tasks (userId null) or of one user's tasks.
+     *
+     * @throws HttpException 429 when the export queue is full
+     */
+    public ExportJob submit(Long ownerId, Long userId, String format) {
+        TaskExporter exporter = exporterRegistry.get(format);
+        String id = UUID.randomUUID().toString();
+        ExportJob job = new ExportJob(id, ownerId, userId, exporter,
+                exportDir.resolve(id + "." + exporter.fileExtension()));
+
+        jobs.put(id, job);
+        try {
+            exportExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(id);
+            throw new HttpException("Too many exports in progress, please try again later",
+                    HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return job;
+    }
+
+    /**
+     * @throws HttpException 404 if the job does not exist or belongs to someone else
+     */
+    public ExportJob getJob(String id, Long ownerId) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getOwnerId().equals(ownerId)) {
+            throw new HttpException("Export job not found", HttpStatus.NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * @throws HttpException 409 while the file is still being written
+     */
+    public ExportJob getFinishedJob(String id, Long ownerId) {
+        ExportJob job = getJob(id, ownerId);
+        if (job.getStatus() != ExportJobStatus.DONE) {
+            throw new HttpException("Export job is " + job.getStatus(), HttpStatus.CONFLICT);
+        }
+        return job;
+    }
+
+    void run(ExportJob job) {
+        Path partial = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            Files.createDirectories(exportDir);
+            job.start(taskService.countTasksForExport(job.getUserId()));
+
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                taskService.streamTasksForExport(job.getUserId(),
+                        tasks -> job.getExporter().write(tasks.peek(task -> job.rowWritten()), out));
+            }
+            // publish the file only once it is complete
+            Files.move(partial, job.getFile(), StandardCopyOption.REPLACE_EXISTING);
+            job.finish();
+            log.info("Export job {} finished: {} rows", job.getId(), job.getRowsWritten().get());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+            deleteQuietly(partial);
+        }
+    }
+
+    // Remove finished jobs and their files once they are older than the TTL
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:300000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiredBefore);
+            if (expired) {
+                deleteQuietly(job.getFile());
+                log.info("Removed expired export job {}", job.getId());
+            }
+            return expired;
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+}
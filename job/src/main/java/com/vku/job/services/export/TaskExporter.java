@@ -0,0 +1,24 @@
+package com.vku.job.services.export;
+
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+
+import com.vku.job.dtos.task.TaskResponseDto;
+
+/**
+ * Writes a stream of tasks in one export format.
+ * Implementations write row by row and never close {@code out}.
+ */
+public interface TaskExporter {
+
+    // value of the "format" request parameter, e.g. "csv"
+    String format();
+
+    String fileExtension();
+
+    MediaType mediaType();
+
+    void write(Stream<TaskResponseDto> tasks, OutputStream out);
+}
@@ -0,0 +1,27 @@
+package com.vku.job.services.export;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+// Looks up the exporter for a "format" request parameter
+@Component
+public class TaskExporterRegistry {
+    private final Map<String, TaskExporter> exporters;
+
+    public TaskExporterRegistry(List<TaskExporter> exporters) {
+        this.exporters = exporters.stream()
+                .collect(Collectors.toMap(TaskExporter::format, Function.identity()));
+    }
+
+    public TaskExporter get(String format) {
+        TaskExporter exporter = format != null ? exporters.get(format.toLowerCase()) : null;
+        if (exporter == null) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        return exporter;
+    }
+}
@@ -0,0 +1,91 @@
+package com.vku.job.services.history;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
+import com.vku.job.repositories.TaskHistoryJpaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves task history older than the retention period from task_history to
+ * task_history_archive, so the hot table stays small. Each chunk is copied
+ * and deleted in its own short transaction, oldest ids first.
+ */
+@Slf4j
+@Service
+public class TaskHistoryArchiveService {
+
+    private final TaskHistoryJpaRepository taskHistoryRepository;
+    private final TaskHistoryArchiveJpaRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskHistoryArchiveService(
+            TaskHistoryJpaRepository taskHistoryRepository,
+            TaskHistoryArchiveJpaRepository archiveRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.history.archive.enabled:true}") boolean enabled,
+            @Value("${app.history.archive.retention-days:180}") int retentionDays,
+            @Value("${app.history.archive.chunk-size:1000}") int chunkSize) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retention = Duration.ofDays(retentionDays);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${app.history.archive.cron:0 0 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int archived = archiveOlderThan(before);
+        if (archived > 0) {
+            log.info("Archived {} task history entries created before {}", archived, before);
+        }
+    }
+
+    /**
+     * Archives every entry created before the given time.
+     *
+     * @return the number of entries moved
+     */
+    public int archiveOlderThan(LocalDateTime before) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(before));
+            if (moved == null || moved == 0) {
+                return total;
+            }
+            total += moved;
+        }
+    }
+
+    private int archiveChunk(LocalDateTime before) {
+        Long lastId = taskHistoryRepository.findArchiveChunkEnd(before, chunkSize);
+        if (lastId == null) {
+            return 0;
+        }
+        int copied = archiveRepository.copyFromHistory(lastId, before, LocalDateTime.now());
+        int deleted = taskHistoryRepository.deleteArchived(lastId, before);
+        if (copied != deleted) {
+            // a row changed between copy and delete: roll back and let the next run retry
+            throw new IllegalStateException(
+                    "Archived " + copied + " task history entries but removed " + deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,11 @@
+package com.vku.job.services.history;
+
+import java.time.LocalDateTime;
+
+/**
+ * One task_history row waiting to be written: ids instead of entities, so
+ * queued events hold no persistence context and need no user lookup.
+ */
+public record TaskHistoryEvent(Long taskId, Long updatedById, String oldData, String newData,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,152 @@
+package com.vku.job.services.history;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves committed history from task_history_outbox into task_history in the
+ * background. A commit that wrote history wakes the worker on the async
+ * executor (at most one wake-up waits at a time); the poll picks up anything
+ * left behind, such as rows committed just before a crash. Each batch is
+ * copied with INSERT ... SELECT and deleted in one transaction, oldest first;
+ * the batch rows are locked, so instances sharing the database never move the
+ * same row twice.
+ * Rows moved, batch sizes, move time, the outbox backlog and the age of the
+ * oldest moved row are published as task.history.* metrics.
+ */
+@Slf4j
+@Component
+public class TaskHistoryOutboxWorker {
+    private static final String SELECT_BATCH = """
+            SELECT id, createddate FROM task_history_outbox ORDER BY id LIMIT ? FOR UPDATE
+            """;
+    private static final String MOVE = """
+            INSERT INTO task_history (task_id, updated_by, old_data, new_data, createddate, updateddate)
+            SELECT task_id, updated_by, old_data, new_data, createddate, createddate
+            FROM task_history_outbox WHERE id <= ? ORDER BY id
+            """;
+    private static final String DELETE = "DELETE FROM task_history_outbox WHERE id <= ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM task_history_outbox";
+
+    private record Row(long id, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int batchSize;
+
+    // one mover per instance; a wake-up during a drain queues one more pass
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private final Counter written;
+    private final DistributionSummary batchRows;
+    private final Timer flushTimer;
+
+    @Autowired
+    public TaskHistoryOutboxWorker(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("asyncExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${app.history.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.batchSize = batchSize;
+
+        this.written = Counter.builder("task.history.written").register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("task.history.batch.rows")
+                .description("History rows moved per batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("task.history.flush").register(meterRegistry);
+        Gauge.builder("task.history.outbox.backlog", backlog, AtomicLong::get)
+                .description("History rows waiting in the outbox after the last drain")
+                .register(meterRegistry);
+        Gauge.builder("task.history.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age in ms of the oldest row of the last moved batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asks for a drain soon, off the calling thread. Never blocks; if the
+     * executor refuses the task the next poll moves the rows.
+     */
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.history.outbox.poll-interval-ms:5000}")
+    public void drain() {
+        drainLock.lock();
+        try {
+            int moved;
+            do {
+                moved = moveBatch();
+            } while (moved == batchSize);
+            backlog.set(jdbcTemplate.queryForObject(COUNT, Long.class));
+        } catch (RuntimeException e) {
+            // rows stay in the outbox and are retried on the next poll
+            log.error("Moving task history out of the outbox failed", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int moveBatch() {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Row> batch = jdbcTemplate.query(SELECT_BATCH,
+                    (rs, i) -> new Row(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long lastId = batch.get(batch.size() - 1).id();
+            flushTimer.record(() -> {
+                jdbcTemplate.update(MOVE, lastId);
+                jdbcTemplate.update(DELETE, lastId);
+            });
+            lagMillis.set(Duration.between(batch.get(0).createdAt(), LocalDateTime.now()).toMillis());
+            return batch.size();
+        });
+        if (moved != null && moved > 0) {
+            written.increment(moved);
+            batchRows.record(moved);
+        }
+        return moved != null ? moved : 0;
+    }
+}
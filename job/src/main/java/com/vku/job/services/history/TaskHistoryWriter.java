@@ -0,0 +1,114 @@
+package com.vku.job.services.history;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records task history through a transactional outbox.
+ * Events enqueued in a transaction are collected and inserted, as one JDBC
+ * batch, into task_history_outbox in beforeCommit on the updating
+ * transaction's connection: they commit or roll back with the update, so a
+ * committed change never loses its history, even on a crash. The outbox table
+ * has no foreign keys or secondary indexes; the task_history insert itself
+ * runs later in TaskHistoryOutboxWorker, woken after the commit.
+ * Queued rows are counted in task.history.queued.
+ */
+@Component
+public class TaskHistoryWriter {
+    private static final String INSERT = """
+            INSERT INTO task_history_outbox (task_id, updated_by, old_data, new_data, createddate)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskHistoryOutboxWorker worker;
+    private final int batchSize;
+
+    private final Counter queued;
+
+    @Autowired
+    public TaskHistoryWriter(
+            JdbcTemplate jdbcTemplate,
+            TaskHistoryOutboxWorker worker,
+            MeterRegistry meterRegistry,
+            @Value("${app.history.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.worker = worker;
+        this.batchSize = batchSize;
+
+        this.queued = Counter.builder("task.history.queued")
+                .description("History rows written to the outbox")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(TaskHistoryEvent event) {
+        enqueueAll(List.of(event));
+    }
+
+    /**
+     * Adds the events to the current transaction's batch, written to the
+     * outbox just before it commits, or writes them right away outside a
+     * transaction.
+     */
+    public void enqueueAll(List<TaskHistoryEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(events);
+            worker.wakeUp();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<TaskHistoryEvent> pending = (List<TaskHistoryEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<TaskHistoryEvent> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(batch);
+                }
+
+                @Override
+                public void afterCommit() {
+                    worker.wakeUp();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskHistoryWriter.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.addAll(events);
+    }
+
+    // A failed insert throws, so the update rolls back instead of committing without history
+    private void write(List<TaskHistoryEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, events, batchSize, (ps, event) -> {
+            ps.setLong(1, event.taskId());
+            ps.setLong(2, event.updatedById());
+            ps.setString(3, event.oldData());
+            ps.setString(4, event.newData());
+            ps.setTimestamp(5, Timestamp.valueOf(event.createdAt()));
+        });
+        queued.increment(events.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.vku.job.services.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+// RFC 4180 CSV (quoted fields may contain separators, quotes and line breaks)
+@Component
+public class CsvTaskRowReader implements TaskRowReader {
+    private static final int BOM = 0xFEFF;
+
+    @Override
+    public String extension() {
+        return "csv";
+    }
+
+    @Override
+    public void read(Path file, RowHandler rows) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> cells = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean rowStarted = false;
+            int rowNumber = 1;
+
+            int c = reader.read();
+            if (c == BOM) {
+                c = reader.read();
+            }
+            for (; c != -1; c = reader.read()) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch != '"') {
+                        field.append(ch);
+                    } else {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    }
+                    continue;
+                }
+                switch (ch) {
+                    case '"' -> {
+                        quoted = true;
+                        rowStarted = true;
+                    }
+                    case ',' -> {
+                        cells.add(field.toString());
+                        field.setLength(0);
+                        rowStarted = true;
+                    }
+                    case '\r' -> {
+                        // the CR of a CRLF line ending
+                    }
+                    case '\n' -> {
+                        if (rowStarted || field.length() > 0) {
+                            cells.add(field.toString());
+                            rows.row(rowNumber, cells);
+                        }
+                        cells = new ArrayList<>();
+                        field.setLength(0);
+                        rowStarted = false;
+                        rowNumber++;
+                    }
+                    default -> {
+                        field.append(ch);
+                        rowStarted = true;
+                    }
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field in row " + rowNumber);
+            }
+            if (rowStarted || field.length() > 0) {
+                cells.add(field.toString());
+                rows.row(rowNumber, cells);
+            }
+        }
+    }
+}
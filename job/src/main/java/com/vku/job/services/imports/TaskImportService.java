@@ -0,0 +1,284 @@
+package com.vku.job.services.imports;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.vku.job.dtos.task.CreateTaskRequestDto;
+import com.vku.job.dtos.task.TaskImportErrorDto;
+import com.vku.job.dtos.task.TaskImportResponseDto;
+import com.vku.job.entities.Task;
+import com.vku.job.entities.User;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.UserLookupProjection;
+import com.vku.job.services.TaskService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports tasks from an uploaded .xlsx or .csv file.
+ * Rows are read one at a time, checked against the same rules as a create
+ * request and inserted in chunks, one transaction per chunk. Memory is bounded
+ * by the chunk size, the user lookup and the capped error list, not the file.
+ */
+@Slf4j
+@Service
+public class TaskImportService {
+    // sentinel in the assignee lookup: several users share this full name
+    private static final Long AMBIGUOUS = -1L;
+
+    private static final Map<String, String> HEADER_ALIASES = Map.of(
+            "title", "title",
+            "description", "description",
+            "deadline", "deadline",
+            "status", "status",
+            "assignee", "assignee",
+            "assigned user", "assignee",
+            "allow user update", "allowUserUpdate");
+
+    private final TaskService taskService;
+    private final UserJpaRepository userRepository;
+    private final Map<String, TaskRowReader> readers = new HashMap<>();
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public TaskImportService(
+            TaskService taskService,
+            UserJpaRepository userRepository,
+            List<TaskRowReader> readers,
+            @Value("${app.tasks.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.tasks.import.max-errors:1000}") int maxErrors) {
+        this.taskService = taskService;
+        this.userRepository = userRepository;
+        readers.forEach(reader -> this.readers.put(reader.extension(), reader));
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public TaskImportResponseDto importTasks(MultipartFile file) {
+        String extension = extensionOf(file.getOriginalFilename());
+        TaskRowReader reader = readers.get(extension);
+        if (reader == null) {
+            throw new HttpException("Unsupported import file, expected .xlsx or .csv", HttpStatus.BAD_REQUEST);
+        }
+
+        Path temp = null;
+        try {
+            // the xlsx reader needs random access to the zip entries, so both formats read from a file
+            temp = Files.createTempFile("task-import-", "." + extension);
+            file.transferTo(temp);
+            return importTasks(reader, temp);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public TaskImportResponseDto importTasks(TaskRowReader reader, Path file) throws IOException {
+        ImportRun run = new ImportRun(loadAssignees());
+        try {
+            reader.read(file, run::row);
+        } catch (IllegalArgumentException e) {
+            throw new HttpException(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        run.flush();
+        log.info("Task import: {} rows, {} imported, {} failed", run.totalRows, run.imported, run.failed);
+        return new TaskImportResponseDto(run.totalRows, run.imported, run.failed, run.errors,
+                run.failed > run.errors.size());
+    }
+
+    // lower-cased username or full name -> user id; usernames win over full names
+    private Map<String, Long> loadAssignees() {
+        Map<String, Long> assignees = new HashMap<>();
+        List<UserLookupProjection> users = userRepository.findAllForLookup();
+        for (UserLookupProjection user : users) {
+            if (user.getFullName() != null) {
+                assignees.merge(normalize(user.getFullName()), user.getId(),
+                        (existing, id) -> existing.equals(id) ? id : AMBIGUOUS);
+            }
+        }
+        for (UserLookupProjection user : users) {
+            if (user.getUsername() != null) {
+                assignees.put(normalize(user.getUsername()), user.getId());
+            }
+        }
+        return assignees;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+
+    // State of one import: column positions, the pending chunk and the error report
+    private class ImportRun {
+        private final Map<String, Long> assignees;
+        private final Map<Long, User> assigneeReferences = new HashMap<>();
+        // all imported tasks share the import time as createdAt
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private Map<String, Integer> columns;
+        private final List<Task> chunk = new ArrayList<>();
+        private final List<Integer> chunkRows = new ArrayList<>();
+        private final List<TaskImportErrorDto> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+
+        ImportRun(Map<String, Long> assignees) {
+            this.assignees = assignees;
+        }
+
+        void row(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            if (columns == null) {
+                columns = readHeader(cells);
+                return;
+            }
+            totalRows++;
+
+            CreateTaskRequestDto request = new CreateTaskRequestDto();
+            String error = fill(request, cells);
+            if (error == null) {
+                error = taskService.validationError(request);
+            }
+            if (error != null) {
+                fail(rowNumber, error);
+                return;
+            }
+
+            User assignee = assigneeReferences.computeIfAbsent(request.getAssignedUserId(),
+                    userRepository::getReferenceById);
+            chunk.add(taskService.newTask(request, assignee, createdAt));
+            chunkRows.add(rowNumber);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                taskService.insertTasks(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                // the chunk's transaction rolled back: none of its rows were imported
+                log.warn("Task import chunk of {} rows failed", chunk.size(), e);
+                chunkRows.forEach(row -> fail(row, "Insert failed: " + e.getMessage()));
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        private void fail(int rowNumber, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new TaskImportErrorDto(rowNumber, error));
+            }
+        }
+
+        private Map<String, Integer> readHeader(List<String> cells) {
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                String field = HEADER_ALIASES.get(normalize(cells.get(i)));
+                if (field != null) {
+                    header.putIfAbsent(field, i);
+                }
+            }
+            for (String required : List.of("title", "deadline", "assignee")) {
+                if (!header.containsKey(required)) {
+                    throw new HttpException("Missing column: " + required, HttpStatus.BAD_REQUEST);
+                }
+            }
+            return header;
+        }
+
+        private String cell(List<String> cells, String field) {
+            Integer index = columns.get(field);
+            if (index == null || index >= cells.size() || cells.get(index).isBlank()) {
+                return null;
+            }
+            return cells.get(index).trim();
+        }
+
+        // Copies the row into the request; returns the error of a value that cannot be parsed
+        private String fill(CreateTaskRequestDto request, List<String> cells) {
+            request.setTitle(cell(cells, "title"));
+            request.setDescription(cell(cells, "description"));
+
+            String status = cell(cells, "status");
+            request.setStatus(status != null ? status.toUpperCase(Locale.ROOT) : null);
+
+            String deadline = cell(cells, "deadline");
+            if (deadline != null) {
+                try {
+                    request.setDeadline(LocalDate.parse(deadline));
+                } catch (DateTimeParseException e) {
+                    return "Invalid deadline '" + deadline + "', expected yyyy-MM-dd";
+                }
+            }
+
+            String allowUserUpdate = cell(cells, "allowUserUpdate");
+            if (allowUserUpdate != null) {
+                switch (allowUserUpdate.toLowerCase(Locale.ROOT)) {
+                    case "true", "yes", "1" -> request.setAllowUserUpdate(true);
+                    case "false", "no", "0" -> request.setAllowUserUpdate(false);
+                    default -> {
+                        return "Invalid allow user update '" + allowUserUpdate + "', expected true or false";
+                    }
+                }
+            }
+
+            String assignee = cell(cells, "assignee");
+            if (assignee != null) {
+                Long userId = assignees.get(normalize(assignee));
+                if (userId == null) {
+                    return "Unknown assignee '" + assignee + "'";
+                }
+                if (Objects.equals(userId, AMBIGUOUS)) {
+                    return "Several users are named '" + assignee + "', use the username";
+                }
+                request.setAssignedUserId(userId);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.vku.job.services.imports;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Reads the rows of one import file format one at a time, so the whole file
+ * is never held in memory.
+ */
+public interface TaskRowReader {
+
+    // file extension handled by this reader, e.g. "csv"
+    String extension();
+
+    /**
+     * Calls {@code rows} for every row of the file, header included, in order.
+     *
+     * @throws IllegalArgumentException if the file is not in this format
+     */
+    void read(Path file, RowHandler rows) throws IOException;
+
+    @FunctionalInterface
+    interface RowHandler {
+        // rowNumber is 1-based as shown by a spreadsheet; cells are never null
+        void row(int rowNumber, List<String> cells);
+    }
+}
@@ -0,0 +1,135 @@
+package com.vku.job.services.mail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vku.job.config.EnvLoader;
+
+/**
+ * Sends emails through the Brevo transactional API on the shared outbound
+ * connection pool (HttpClientConfig). One call delivers the same
+ * content to several recipients as separate message versions, so nobody sees
+ * the other addresses.
+ */
+@Component
+public class BrevoMailSender {
+    private static final String SEND_PATH = "/v3/smtp/email";
+
+    // Email này PHẢI là email đã Verified trên Brevo của bạn
+    private static final String SENDER_EMAIL = "phamphunhan625@gmail.com";
+    private static final String SENDER_NAME = "Manageme Tasks System";
+
+    private final RestClient restClient;
+    private final String apiKey;
+    private final int maxRecipientsPerCall;
+
+    // caps concurrent calls to Brevo: deliveries run on virtual threads, so
+    // nothing else limits how many requests would be in flight at once
+    private final Semaphore permits;
+
+    @Autowired
+    public BrevoMailSender(
+            RestClient.Builder outboundRestClientBuilder,
+            CloseableHttpClient outboundHttpClient,
+            @Value("${app.mail.brevo.base-url:https://api.brevo.com}") String baseUrl,
+            @Value("${app.mail.brevo.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${app.mail.brevo.max-concurrent:10}") int maxConcurrentCalls,
+            @Value("${app.mail.brevo.max-recipients-per-call:100}") int maxRecipientsPerCall) {
+        this(outboundRestClientBuilder
+                .baseUrl(baseUrl)
+                .requestFactory(readTimeoutFactory(outboundHttpClient, Duration.ofMillis(readTimeoutMs)))
+                .build(),
+                EnvLoader.get("BREVO_API_KEY"), maxConcurrentCalls, maxRecipientsPerCall);
+    }
+
+    public BrevoMailSender(RestClient restClient, String apiKey, int maxConcurrentCalls, int maxRecipientsPerCall) {
+        this.restClient = restClient;
+        this.apiKey = apiKey != null ? apiKey : "";
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.maxRecipientsPerCall = maxRecipientsPerCall;
+    }
+
+    // same pooled connections, longer read timeout: uploads with a PDF attachment can be slow
+    private static HttpComponentsClientHttpRequestFactory readTimeoutFactory(CloseableHttpClient httpClient,
+            Duration readTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    public int maxRecipientsPerCall() {
+        return maxRecipientsPerCall;
+    }
+
+    /**
+     * Sends one message to every recipient in a single API call.
+     *
+     * @throws MailDeliveryException if Brevo did not accept the message
+     */
+    public void send(List<String> recipients, String subject, String htmlContent, String attachmentName,
+            String attachmentContent) {
+        List<Recipient> to = recipients.stream().map(Recipient::new).toList();
+        BrevoEmail email = new BrevoEmail(
+                new Sender(SENDER_NAME, SENDER_EMAIL),
+                to.size() == 1 ? to : null,
+                to.size() == 1 ? null : to.stream().map(recipient -> new MessageVersion(List.of(recipient))).toList(),
+                subject,
+                "<html><body>" + htmlContent + "</body></html>",
+                attachmentName != null ? List.of(new Attachment(attachmentContent, attachmentName)) : null);
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailDeliveryException("Interrupted before sending", true, e);
+        }
+        try {
+            restClient.post()
+                    .uri(SEND_PATH)
+                    .header("api-key", apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(email)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientResponseException e) {
+            boolean retryable = e.getStatusCode().is5xxServerError()
+                    || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+            throw new MailDeliveryException("Brevo responded " + e.getStatusCode().value() + ": "
+                    + e.getResponseBodyAsString(), retryable, e);
+        } catch (RestClientException e) {
+            throw new MailDeliveryException("Brevo unreachable: " + e.getMessage(), true, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record BrevoEmail(Sender sender, List<Recipient> to, List<MessageVersion> messageVersions, String subject,
+            String htmlContent, List<Attachment> attachment) {
+    }
+
+    record Sender(String name, String email) {
+    }
+
+    record Recipient(String email) {
+    }
+
+    record MessageVersion(List<Recipient> to) {
+    }
+
+    record Attachment(String content, String name) {
+    }
+}
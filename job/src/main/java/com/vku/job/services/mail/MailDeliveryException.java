@@ -0,0 +1,18 @@
+package com.vku.job.services.mail;
+
+/**
+ * A Brevo call that did not go through. Retryable failures (timeouts, 5xx,
+ * 429) are tried again later; the rest mark the messages as failed.
+ */
+public class MailDeliveryException extends RuntimeException {
+    private final boolean retryable;
+
+    public MailDeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
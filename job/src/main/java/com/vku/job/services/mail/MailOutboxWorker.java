@@ -0,0 +1,144 @@
+package com.vku.job.services.mail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vku.job.entities.MailMessage;
+import com.vku.job.enums.MailStatus;
+import com.vku.job.repositories.MailMessageJpaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the mail outbox. Each poll takes the due messages, groups the ones
+ * with identical content into one Brevo call per group and sends the groups
+ * in parallel. Failed calls are retried with exponential backoff until
+ * max-attempts, then the messages are marked FAILED.
+ * Polls run on this instance only; the outbox is not claimed across instances.
+ */
+@Slf4j
+@Component
+public class MailOutboxWorker {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailMessageJpaRepository mailMessageRepository;
+    private final BrevoMailSender sender;
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    @Autowired
+    public MailOutboxWorker(
+            MailMessageJpaRepository mailMessageRepository,
+            BrevoMailSender sender,
+            @Qualifier("asyncExecutor") Executor executor,
+            @Value("${app.mail.outbox.batch-size:200}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.backoff-initial-ms:30000}") long initialBackoffMs,
+            @Value("${app.mail.outbox.backoff-max-ms:3600000}") long maxBackoffMs,
+            @Value("${app.mail.outbox.retention-days:7}") int retentionDays) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.sender = sender;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        List<MailMessage> due = mailMessageRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                MailStatus.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<MailMessage>> byContent = due.stream()
+                .collect(Collectors.groupingBy(MailMessage::getContentHash, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (List<MailMessage> group : byContent.values()) {
+            for (int from = 0; from < group.size(); from += sender.maxRecipientsPerCall()) {
+                List<MailMessage> call = group.subList(from,
+                        Math.min(from + sender.maxRecipientsPerCall(), group.size()));
+                deliveries.add(CompletableFuture.runAsync(() -> deliver(call), executor));
+            }
+        }
+        // wait for every call, so the next poll never picks up a message still being sent
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void deliver(List<MailMessage> messages) {
+        MailMessage content = messages.get(0);
+        List<String> recipients = messages.stream().map(MailMessage::getRecipient).toList();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            sender.send(recipients, content.getSubject(), content.getHtmlContent(), content.getAttachmentName(),
+                    content.getAttachmentContent());
+            messages.forEach(message -> {
+                message.setStatus(MailStatus.SENT);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setSentAt(now);
+            });
+            log.info("Sent \"{}\" to {} recipient(s)", content.getSubject(), recipients.size());
+        } catch (MailDeliveryException e) {
+            messages.forEach(message -> failed(message, e, now));
+        }
+        mailMessageRepository.saveAll(messages);
+    }
+
+    private void failed(MailMessage message, MailDeliveryException e, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = e.getMessage();
+        message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+
+        if (!e.isRetryable() || attempts >= maxAttempts) {
+            message.setStatus(MailStatus.FAILED);
+            log.error("Giving up on mail {} to {} after {} attempt(s): {}", message.getId(),
+                    message.getRecipient(), attempts, error);
+        } else {
+            message.setNextAttemptAt(now.plus(backoff(attempts)));
+            log.warn("Mail {} to {} failed (attempt {}), retrying at {}: {}", message.getId(),
+                    message.getRecipient(), attempts, message.getNextAttemptAt(), error);
+        }
+    }
+
+    // initial, 2x, 4x ... capped at the maximum
+    public Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Sent messages are kept for a while for troubleshooting, failed ones until handled
+    @Scheduled(cron = "${app.mail.outbox.cleanup-cron:0 15 3 * * *}")
+    public void purgeSent() {
+        int removed = mailMessageRepository.deleteByStatusUpdatedBefore(MailStatus.SENT,
+                LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Removed {} sent mails from the outbox", removed);
+        }
+    }
+}
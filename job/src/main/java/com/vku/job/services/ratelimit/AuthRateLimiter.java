@@ -0,0 +1,99 @@
+package com.vku.job.services.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vku.job.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Throttles the unauthenticated auth endpoints (login, OTP checks) with one
+ * token bucket per client IP and one per username/email, checked before any
+ * password or OTP is hashed. Buckets are dropped once idle long enough to have
+ * refilled, so memory follows the number of active callers.
+ * Rejections are counted in auth.ratelimit.rejected.
+ */
+@Component
+public class AuthRateLimiter {
+    public static final String LOGIN = "login";
+    public static final String OTP = "otp";
+
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    // capacity tokens, one refilled every refillIntervalNanos
+    public record Limit(int capacity, long refillIntervalNanos) {
+        public static Limit perMinute(int capacity, int refillPerMinute) {
+            return new Limit(capacity, TimeUnit.MINUTES.toNanos(1) / refillPerMinute);
+        }
+
+        Duration timeToFull() {
+            return Duration.ofNanos(capacity * refillIntervalNanos);
+        }
+    }
+
+    @Autowired
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+            @Value("${app.ratelimit.ip.capacity:30}") int ipCapacity,
+            @Value("${app.ratelimit.ip.refill-per-minute:30}") int ipRefillPerMinute,
+            @Value("${app.ratelimit.account.capacity:5}") int accountCapacity,
+            @Value("${app.ratelimit.account.refill-per-minute:5}") int accountRefillPerMinute,
+            @Value("${app.ratelimit.max-keys:100000}") long maxKeys) {
+        this(meterRegistry, Limit.perMinute(ipCapacity, ipRefillPerMinute),
+                Limit.perMinute(accountCapacity, accountRefillPerMinute), maxKeys, System::nanoTime);
+    }
+
+    public AuthRateLimiter(MeterRegistry meterRegistry, Limit ipLimit, Limit accountLimit, long maxKeys,
+            LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.ipLimit = ipLimit;
+        this.accountLimit = accountLimit;
+        this.nanoClock = nanoClock;
+        this.ipBuckets = buckets(ipLimit, maxKeys);
+        this.accountBuckets = buckets(accountLimit, maxKeys);
+    }
+
+    private static Cache<String, TokenBucket> buckets(Limit limit, long maxKeys) {
+        // an idle bucket past its refill time is full, same as a new one
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(limit.timeToFull())
+                .build();
+    }
+
+    /**
+     * Takes a token from the caller's IP bucket and, when given, the account's.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void check(String action, String ip, String account) {
+        take(ipBuckets, ipLimit, action + ":" + ip, action, "ip");
+        if (account != null && !account.isBlank()) {
+            take(accountBuckets, accountLimit, action + ":" + account.trim().toLowerCase(), action, "account");
+        }
+    }
+
+    private void take(Cache<String, TokenBucket> buckets, Limit limit, String key, String action, String scope) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(key,
+                k -> new TokenBucket(limit.capacity(), limit.refillIntervalNanos(), now));
+        long waitNanos = bucket.tryTake(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter("auth.ratelimit.rejected", "action", action, "scope", scope).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            throw new TooManyRequestsException("Too many attempts. Please try again later.", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.vku.job.services.ratelimit;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the client IP used as rate-limit key behind a reverse proxy.
+ * X-Forwarded-For is only read when the connection comes from a trusted proxy,
+ * and walked from the right past the trusted hops: the first untrusted address
+ * is the one the proxy saw, so a client cannot pick its key by sending the
+ * header itself.
+ */
+@Component
+public class ClientIpResolver {
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    @Autowired
+    public ClientIpResolver(@Value("${app.ratelimit.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::strip)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            client = hops[i].strip();
+            if (!isTrusted(client)) {
+                break;
+            }
+        }
+        return client.isEmpty() ? remoteAddr : client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null || address.isEmpty()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // not an IP literal (the matcher refuses host names)
+                return false;
+            }
+        }
+        return false;
+    }
+}
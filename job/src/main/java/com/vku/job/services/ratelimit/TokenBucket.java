@@ -0,0 +1,42 @@
+package com.vku.job.services.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding {@code capacity} tokens and refilling one
+ * every {@code refillIntervalNanos}. Stored as a single timestamp (the time
+ * at which the bucket will be full again, as in GCRA), so taking a token is
+ * one compare-and-set with no lock and no refill bookkeeping.
+ */
+public final class TokenBucket {
+    private final long refillIntervalNanos;
+    private final long capacityNanos;
+
+    // when every token taken so far has been refilled; at or before now means full
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.capacityNanos = capacity * refillIntervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanos until one is available
+     */
+    public long tryTake(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + refillIntervalNanos;
+            long waitNanos = next - nowNanos - capacityNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vku.job.services.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through cache for the statistics GROUP BY queries.
+ * Bounded in size, entries expire after the TTL, and task writes evict only
+ * the entries whose user and date range they touch. Hit/miss counts are
+ * published as the {@code cache.gets} metric with {@code cache=statistics}.
+ */
+@Slf4j
+@Component
+public class StatisticsCache {
+    public static final String NAME = "statistics";
+
+    private final Cache<StatisticsCacheKey, List<?>> cache;
+
+    @Autowired
+    public StatisticsCache(
+            @Value("${app.statistics.cache.max-size:1000}") long maxSize,
+            @Value("${app.statistics.cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this(maxSize, Duration.ofSeconds(ttlSeconds), meterRegistry);
+    }
+
+    public StatisticsCache(long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Returns the cached result for the key, running the query on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(StatisticsCacheKey key, Supplier<List<T>> query) {
+        return (List<T>) cache.get(key, k -> query.get());
+    }
+
+    /**
+     * Evicts the results a write to one task can change: the task was created
+     * at {@code createdAt} and is (or was) assigned to {@code userIds}.
+     * Inside a transaction the eviction waits for the commit, so a concurrent
+     * read cannot cache the pre-commit counts again.
+     */
+    public void evictTask(LocalDateTime createdAt, Long... userIds) {
+        List<Long> users = Arrays.stream(userIds).filter(Objects::nonNull).toList();
+        afterCommit(() -> {
+            cache.asMap().keySet().removeIf(key -> key.isAffectedBy(createdAt, users));
+            log.debug("Evicted statistics for task created at {} (users {})", createdAt, users);
+        });
+    }
+
+    public void evictAll() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    private void afterCommit(Runnable evict) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+}
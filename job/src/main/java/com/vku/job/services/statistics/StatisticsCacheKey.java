@@ -0,0 +1,36 @@
+package com.vku.job.services.statistics;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Key of a cached statistics result: the query, the user it is scoped to and
+ * the createdAt range it covers. A null range means all tasks.
+ */
+public record StatisticsCacheKey(Type type, Long userId, LocalDateTime start, LocalDateTime end) {
+
+    public enum Type {
+        SUMMARY_BY_STATUS,
+        SUMMARY_BY_USER,
+        STATUS_BY_USER_ID
+    }
+
+    public static StatisticsCacheKey of(Type type, Long userId, LocalDateTime start, LocalDateTime end) {
+        return new StatisticsCacheKey(type, userId, start, end);
+    }
+
+    /**
+     * Whether a write to a task created at {@code createdAt} and assigned to one
+     * of {@code userIds} (before or after the write) can change this result.
+     * An unknown createdAt matches every range.
+     */
+    public boolean isAffectedBy(LocalDateTime createdAt, Collection<Long> userIds) {
+        if (type == Type.STATUS_BY_USER_ID && !userIds.contains(userId)) {
+            return false;
+        }
+        if (start == null || createdAt == null) {
+            return true;
+        }
+        return !createdAt.isBefore(start) && !createdAt.isAfter(end);
+    }
+}
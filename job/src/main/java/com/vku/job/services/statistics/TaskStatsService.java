@@ -0,0 +1,171 @@
+package com.vku.job.services.statistics;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vku.job.entities.Task;
+import com.vku.job.entities.TaskStat;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.TaskStatJpaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the task_stats aggregate (count per assignee, status and creation
+ * day). Task writes adjust one or two buckets in the caller's transaction;
+ * a periodic rebuild recounts everything from the tasks table to repair drift.
+ */
+@Slf4j
+@Service
+public class TaskStatsService {
+    private static final String INCREMENT = """
+            UPDATE task_stats SET task_count = task_count + ?
+            WHERE user_id = ? AND status = ? AND bucket_date = ?
+            """;
+
+    private static final String INSERT = """
+            INSERT INTO task_stats (user_id, status, bucket_date, task_count) VALUES (?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskStatJpaRepository taskStatRepository;
+
+    @Autowired
+    private TaskJpaRepository taskRepository;
+
+    @Autowired
+    private StatisticsCache statisticsCache;
+
+    /**
+     * Assignee and status of a task before an update, for moving it between buckets.
+     */
+    public record TaskChange(Long previousUserId, TaskStatus previousStatus, Task task) {
+    }
+
+    private record Bucket(Long userId, String status, LocalDate day) {
+    }
+
+    // Task created: one more in its bucket
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskCreated(Task task) {
+        tasksCreated(List.of(task));
+    }
+
+    // Tasks created in one batch: one statement per bucket, not per task
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksCreated(List<Task> tasks) {
+        Map<Bucket, Long> deltas = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            addDelta(deltas, userIdOf(task), task.getStatus(), task, 1);
+        }
+        apply(deltas);
+    }
+
+    // Task deleted: one less in its bucket
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskDeleted(Task task) {
+        Map<Bucket, Long> deltas = new LinkedHashMap<>();
+        addDelta(deltas, userIdOf(task), task.getStatus(), task, -1);
+        apply(deltas);
+    }
+
+    // Task updated: move it between buckets if its assignee or status changed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(Long previousUserId, TaskStatus previousStatus, Task task) {
+        tasksChanged(List.of(new TaskChange(previousUserId, previousStatus, task)));
+    }
+
+    // Tasks updated in one batch: moves are netted per bucket first
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksChanged(List<TaskChange> changes) {
+        Map<Bucket, Long> deltas = new LinkedHashMap<>();
+        for (TaskChange change : changes) {
+            Task task = change.task();
+            Long userId = userIdOf(task);
+            if (Objects.equals(change.previousUserId(), userId) && change.previousStatus() == task.getStatus()) {
+                continue;
+            }
+            addDelta(deltas, change.previousUserId(), change.previousStatus(), task, -1);
+            addDelta(deltas, userId, task.getStatus(), task, 1);
+        }
+        apply(deltas);
+    }
+
+    private Long userIdOf(Task task) {
+        return task.getAssignedUser() != null ? task.getAssignedUser().getId() : null;
+    }
+
+    private void addDelta(Map<Bucket, Long> deltas, Long userId, TaskStatus status, Task task, long delta) {
+        if (status == null || task.getCreatedAt() == null) {
+            return;
+        }
+        Bucket bucket = new Bucket(
+                userId != null ? userId : TaskStat.UNASSIGNED,
+                status.name(),
+                task.getCreatedAt().toLocalDate());
+        deltas.merge(bucket, delta, Long::sum);
+    }
+
+    private void apply(Map<Bucket, Long> deltas) {
+        deltas.forEach((bucket, delta) -> {
+            if (delta != 0) {
+                adjust(bucket, delta);
+            }
+        });
+    }
+
+    private void adjust(Bucket bucket, long delta) {
+        if (increment(bucket, delta) > 0) {
+            return;
+        }
+        // First task in this bucket. JdbcTemplate (not a repository) so a lost insert
+        // race does not mark the caller's transaction rollback-only: just add to the winner's row.
+        try {
+            jdbcTemplate.update(INSERT, bucket.userId(), bucket.status(), bucket.day(), delta);
+        } catch (DuplicateKeyException e) {
+            increment(bucket, delta);
+        }
+    }
+
+    private int increment(Bucket bucket, long delta) {
+        return jdbcTemplate.update(INCREMENT, delta, bucket.userId(), bucket.status(), bucket.day());
+    }
+
+    /**
+     * Recounts every bucket from the tasks table. Runs nightly and whenever the
+     * aggregate is empty at startup (first deployment).
+     */
+    @Scheduled(cron = "${app.statistics.rebuild-cron:0 30 2 * * *}")
+    @Transactional
+    public void rebuild() {
+        int removed = taskStatRepository.deleteAllBuckets();
+        int inserted = taskStatRepository.insertBucketsFromTasks();
+        statisticsCache.evictAll();
+        log.info("Rebuilt task_stats: {} buckets (was {})", inserted, removed);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (taskStatRepository.count() == 0 && taskRepository.count() > 0) {
+            rebuild();
+        }
+    }
+}
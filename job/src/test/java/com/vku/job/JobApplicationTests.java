@@ -11,7 +11,11 @@ import org.springframework.test.context.TestPropertySource;
 		"spring.datasource.username=sa",
 		"spring.datasource.password=",
 		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
-		"spring.jpa.hibernate.ddl-auto=create-drop"
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"app.auth.google.jwks-preload=false",
+		"app.auth.google.client-ids=test-client.apps.googleusercontent.com",
+		"app.security.otp.hmac-key=dGVzdC1vdHAta2V5LXRlc3Qtb3RwLWtleS0xMjM0NTY="
 })
 class JobApplicationTests {
 
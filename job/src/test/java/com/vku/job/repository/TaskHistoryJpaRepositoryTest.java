@@ -0,0 +1,176 @@
+package com.vku.job.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vku.job.entities.Task;
+import com.vku.job.entities.TaskHistory;
+import com.vku.job.entities.TaskHistoryArchive;
+import com.vku.job.entities.User;
+import com.vku.job.entities.UserProfile;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
+import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.repositories.projection.TaskHistoryListProjection;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The history list must read id, updater name and timestamp in one statement,
+// cover archived entries and never select the old_data/new_data JSON columns.
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.vku.job.repository.TaskHistoryJpaRepositoryTest$SqlRecorder"
+})
+public class TaskHistoryJpaRepositoryTest {
+    private static final int HISTORIES = 5;
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskHistoryJpaRepository taskHistoryRepository;
+
+    @Autowired
+    private TaskHistoryArchiveJpaRepository archiveRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        UserProfile profile = new UserProfile();
+        profile.setFullName("Nguyen Van A");
+
+        User user = new User();
+        user.setUsername("admin");
+        user.setEmail("admin@vku.com");
+        user.setProfile(profile);
+        entityManager.persist(user);
+
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setStatus(TaskStatus.OPEN);
+        task.setDeadline(LocalDate.now());
+        entityManager.persist(task);
+        taskId = task.getId();
+
+        for (int i = 0; i < HISTORIES; i++) {
+            entityManager.persist(TaskHistory.builder()
+                    .task(task)
+                    .updatedBy(user)
+                    .oldData("{\"title\":\"Task " + i + "\"}")
+                    .newData("{\"title\":\"Task " + (i + 1) + "\"}")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    // page - one select for rows and names plus one count
+    @Test
+    void findHistoryListByTaskId_page_selectAndCountOnly() {
+        Page<TaskHistoryListProjection> page = taskHistoryRepository.findHistoryListByTaskId(taskId,
+                PageRequest.of(0, 2));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(HISTORIES, page.getTotalElements());
+        assertTrue(page.getContent().get(0).getId() > page.getContent().get(1).getId());
+        assertEquals("Nguyen Van A", page.getContent().get(0).getUpdatedByName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(SqlRecorder.STATEMENTS.stream().noneMatch(sql -> sql.contains("old_data")
+                || sql.contains("new_data")));
+    }
+
+    // archival chunk - the oldest entries are copied then removed from the hot table
+    @Test
+    void archiveChunk_movesOldestEntries() {
+        LocalDateTime before = LocalDateTime.now().plusMinutes(1);
+        Long lastId = taskHistoryRepository.findArchiveChunkEnd(before, 3);
+
+        assertEquals(3, archiveRepository.copyFromHistory(lastId, before, LocalDateTime.now()));
+        assertEquals(3, taskHistoryRepository.deleteArchived(lastId, before));
+
+        assertEquals(HISTORIES - 3, taskHistoryRepository.count());
+        assertEquals(3, archiveRepository.count());
+        TaskHistoryArchive archived = archiveRepository.findById(lastId).orElseThrow();
+        assertEquals(taskId, archived.getTaskId());
+        assertNotNull(archived.getNewData());
+        assertEquals(2, archiveRepository.findOldDataAfter(taskId, lastId - 2).size());
+        assertNull(taskHistoryRepository.findArchiveChunkEnd(LocalDateTime.now().minusDays(1), 3));
+    }
+
+    // slice - a single select, no count
+    @Test
+    void findHistoryListSliceByTaskId_singleStatement() {
+        Slice<TaskHistoryListProjection> slice = taskHistoryRepository.findHistoryListSliceByTaskId(taskId,
+                PageRequest.of(2, 2));
+
+        assertEquals(1, slice.getContent().size());
+        assertFalse(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // archived entries stay in the list, in id order with the hot ones
+    @Test
+    void findHistoryListByTaskId_includesArchivedEntries() {
+        LocalDateTime before = LocalDateTime.now().plusMinutes(1);
+        Long lastId = taskHistoryRepository.findArchiveChunkEnd(before, 3);
+        archiveRepository.copyFromHistory(lastId, before, LocalDateTime.now());
+        taskHistoryRepository.deleteArchived(lastId, before);
+
+        Page<TaskHistoryListProjection> page = taskHistoryRepository.findHistoryListByTaskId(taskId,
+                PageRequest.of(1, 2));
+        Slice<TaskHistoryListProjection> last = taskHistoryRepository.findHistoryListSliceByTaskId(taskId,
+                PageRequest.of(2, 2));
+
+        assertEquals(HISTORIES, page.getTotalElements());
+        assertEquals(List.of(lastId, lastId - 1), page.getContent().stream().map(TaskHistoryListProjection::getId)
+                .toList());
+        assertEquals("Nguyen Van A", page.getContent().get(0).getUpdatedByName());
+        assertNotNull(page.getContent().get(0).getUpdatedAt());
+        assertEquals(1, last.getContent().size());
+        assertFalse(last.hasNext());
+    }
+}
@@ -0,0 +1,381 @@
+package com.vku.job.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vku.job.entities.Task;
+import com.vku.job.entities.User;
+import com.vku.job.entities.UserProfile;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.projection.TaskListProjection;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+
+// Counts the SQL statements issued by the task list queries: rows and their
+// assignee names must come back in one statement, not one extra per task.
+// The filter queries are also EXPLAINed (H2 plan) to check each combination
+// of conditions is answered from an index on tasks.
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.vku.job.repository.TaskJpaRepositoryTest$SqlRecorder"
+})
+public class TaskJpaRepositoryTest {
+    private static final int USERS = 5;
+    private static final LocalDateTime FROM = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    // keeps the SQL Hibernate sends, so the filter query can be EXPLAINed
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskJpaRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            UserProfile profile = new UserProfile();
+            profile.setFullName("User " + i);
+
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@vku.com");
+            user.setProfile(profile);
+            entityManager.persist(user);
+
+            for (int j = 0; j < 2; j++) {
+                Task task = new Task();
+                task.setTitle("Task " + i + "-" + j);
+                task.setStatus(j == 0 ? TaskStatus.OPEN : TaskStatus.DONE);
+                task.setDeadline(LocalDate.now().plusDays(j));
+                task.setAssignedUser(user);
+                entityManager.persist(task);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    // ======= TASK LIST PROJECTION =======
+
+    // page - one select for rows and names plus one count
+    @Test
+    void findTaskList_page_selectAndCountOnly() {
+        Page<TaskListProjection> page = taskRepository.findTaskList(PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(USERS * 2, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(row -> row.getAssignedFullName() != null));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // slice - a single select, no count and no per-row user lookup
+    @Test
+    void findTaskListSlice_singleStatement() {
+        Slice<TaskListProjection> slice = taskRepository.findTaskListSlice(PageRequest.of(0, 6, Sort.by("id")));
+
+        assertEquals(6, slice.getContent().size());
+        assertTrue(slice.hasNext());
+        assertEquals("User 0", slice.getContent().get(0).getAssignedFullName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // filter - assignee filter with projection stays one statement
+    @Test
+    void filterTasksSlice_singleStatement() {
+        Long userId = taskRepository.findTaskListSlice(PageRequest.of(0, 1, Sort.by("id")))
+                .getContent().get(0).getAssignedUserId();
+        statistics.clear();
+
+        Slice<TaskListProjection> slice = taskRepository.filterTasksSlice(
+                userId, null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(2, slice.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // export stream - every row from one statement
+    @Test
+    void streamTaskList_singleStatement() {
+        try (Stream<TaskListProjection> rows = taskRepository.streamTaskList()) {
+            assertEquals(USERS * 2, rows.filter(row -> row.getAssignedFullName() != null).count());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ======= END TASK LIST PROJECTION =======
+
+    // ======= KEYSET WINDOW =======
+
+    // keyset window - assignee and profile come from the entity graph join
+    @Test
+    void findAllBy_window_fetchesAssigneeInSameStatement() {
+        Window<Task> window = taskRepository.findAllBy(
+                ScrollPosition.keyset(), Sort.by("id"), Limit.of(6));
+
+        List<String> names = window.getContent().stream()
+                .map(task -> task.getAssignedUser().getProfile().getFullName())
+                .toList();
+
+        assertEquals(6, names.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ======= END KEYSET WINDOW =======
+
+    // ======= FILTER INDEX USAGE =======
+
+    // only the supplied conditions are emitted, no "? IS NULL OR" guards
+    @Test
+    void filterTasks_emitsOnlySuppliedPredicates() {
+        String sql = filterSql(null, TaskStatus.OPEN, null, null);
+
+        assertTrue(sql.contains("status=?"));
+        assertFalse(sql.contains("is null"));
+        assertFalse(sql.contains("user_id=?"));
+        assertFalse(sql.contains("createddate>=?"));
+    }
+
+    @Test
+    void explainFilter_byUser_usesIndex() {
+        assertIndexLookup(explainFilter(1L, null, null, null), "", "USER_ID =");
+    }
+
+    @Test
+    void explainFilter_byStatus_usesStatusIndex() {
+        assertIndexLookup(explainFilter(null, TaskStatus.OPEN, null, null), "IDX_TASKS_STATUS_CREATED", "STATUS =");
+    }
+
+    @Test
+    void explainFilter_byDateRange_usesCreatedIndex() {
+        assertIndexLookup(explainFilter(null, null, FROM, TO), "IDX_TASKS_CREATED", "CREATEDDATE >=");
+    }
+
+    @Test
+    void explainFilter_byUserAndStatus_usesCompositeIndex() {
+        assertIndexLookup(explainFilter(1L, TaskStatus.OPEN, null, null), "IDX_TASKS_USER_STATUS_CREATED", "USER_ID =");
+    }
+
+    @Test
+    void explainFilter_byUserAndDateRange_usesIndex() {
+        assertIndexLookup(explainFilter(1L, null, FROM, TO), "", "USER_ID =");
+    }
+
+    @Test
+    void explainFilter_byStatusAndDateRange_usesStatusIndex() {
+        assertIndexLookup(explainFilter(null, TaskStatus.OPEN, FROM, TO), "IDX_TASKS_STATUS_CREATED", "STATUS =");
+    }
+
+    @Test
+    void explainFilter_allConditions_usesCompositeIndex() {
+        assertIndexLookup(explainFilter(1L, TaskStatus.OPEN, FROM, TO), "IDX_TASKS_USER_STATUS_CREATED", "USER_ID =");
+    }
+
+    // runs the filter and returns the task select it sent
+    private String filterSql(Long userId, TaskStatus status, LocalDateTime from, LocalDateTime to) {
+        taskRepository.filterTasksSlice(userId, status, from, to,
+                PageRequest.of(0, 10, Sort.by("createdAt").descending()));
+
+        return SqlRecorder.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains("from tasks"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+    }
+
+    // EXPLAIN of the generated filter query with its parameters bound in order
+    private String explainFilter(Long userId, TaskStatus status, LocalDateTime from, LocalDateTime to) {
+        String sql = filterSql(userId, status, from, to);
+
+        List<Object> parameters = new ArrayList<>();
+        if (userId != null) {
+            parameters.add(userId);
+        }
+        if (status != null) {
+            parameters.add(status.name());
+        }
+        if (from != null) {
+            parameters.add(from);
+        }
+        if (to != null) {
+            parameters.add(to);
+        }
+        parameters.add(0);
+        parameters.add(11);
+
+        Query explain = entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            explain.setParameter(i + 1, parameters.get(i));
+        }
+        return (String) explain.getSingleResult();
+    }
+
+    // an index lookup shows up as /* PUBLIC.<INDEX>: <condition> */, a full scan as tableScan;
+    // a blank index accepts any index used for the condition (e.g. the user_id FK index)
+    private void assertIndexLookup(String plan, String index, String condition) {
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.\\w*" + index + "\\w*: [^*]*" + condition + ".*"), plan);
+    }
+
+    // ======= END FILTER INDEX USAGE =======
+
+    // ======= FULL-TEXT SEARCH =======
+
+    // H2 cannot run MATCH ... AGAINST, so these check the SQL sent for MySQL:
+    // the boolean-mode match in select and where, the sort on the select aliases
+    // and the user condition, all in one statement with bound parameters.
+    private String searchSql(Runnable search) {
+        assertThrows(RuntimeException.class, search::run);
+        return SqlRecorder.STATEMENTS.get(SqlRecorder.STATEMENTS.size() - 1).replaceAll("\\s+", " ");
+    }
+
+    private static int count(String sql, String part) {
+        return sql.split(java.util.regex.Pattern.quote(part), -1).length - 1;
+    }
+
+    private static final String MATCH = "MATCH(t.title, t.description) AGAINST (? IN BOOLEAN MODE)";
+
+    @Test
+    void searchTaskList_relevance_matchInSelectAndWhere() {
+        String sql = searchSql(() -> taskRepository.searchTaskList("+task*",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "score", "id"))));
+
+        assertEquals(2, count(sql, MATCH), sql);
+        assertTrue(sql.contains(MATCH + " AS score"), sql);
+        assertTrue(sql.contains("WHERE " + MATCH), sql);
+        assertTrue(sql.matches("(?i).* order by score desc, id desc.*"), sql);
+        assertFalse(sql.contains("t.score"), sql);
+        assertEquals(1, SqlRecorder.STATEMENTS.size());
+    }
+
+    @Test
+    void searchTaskListSliceByUser_aliasSort_userCondition() {
+        String sql = searchSql(() -> taskRepository.searchTaskListSliceByUser(3L, "+task*",
+                PageRequest.of(1, 10, Sort.by("createdAt").descending())));
+
+        assertTrue(sql.contains("WHERE " + MATCH + " AND t.user_id = ?"), sql);
+        assertTrue(sql.matches("(?i).* order by createdAt desc.*"), sql);
+        assertFalse(sql.contains("old_data"), sql);
+    }
+
+    // cursor pages seek on (score, id) with the match expression, the alias is not usable in WHERE
+    @Test
+    void searchTaskListAfter_relevance_seeksOnScoreAndId() {
+        String sql = searchSql(() -> taskRepository.searchTaskListAfter("+task*", null, "score", true, 1.5, 4L, 11));
+
+        assertEquals(4, count(sql, MATCH), sql);
+        assertTrue(sql.contains("AND (" + MATCH + " < ? OR (" + MATCH + " = ? AND t.id < ?))"), sql);
+        assertTrue(sql.contains("ORDER BY score DESC, t.id DESC"), sql);
+        assertFalse(sql.contains("offset"), sql);
+    }
+
+    @Test
+    void searchTaskListAfter_firstPageByUser_noSeek() {
+        String sql = searchSql(() -> taskRepository.searchTaskListAfter("+task*", 3L, "createdAt", false, null, null,
+                11));
+
+        assertTrue(sql.contains("WHERE " + MATCH + " AND t.user_id = ? ORDER BY t.createddate ASC, t.id ASC"), sql);
+    }
+
+    // the count must use the same predicate as the rows, or totals drift from the pages
+    @Test
+    void searchCount_samePredicateAsSelect() {
+        String where = TaskJpaRepository.SEARCH_SELECT.substring(TaskJpaRepository.SEARCH_SELECT.indexOf("WHERE"))
+                .strip();
+
+        assertTrue(TaskJpaRepository.SEARCH_COUNT.strip().endsWith(where));
+    }
+
+    // ======= END FULL-TEXT SEARCH =======
+
+    // ======= BATCH WRITES =======
+
+    // insertAll - one JDBC batch, generated ids set on the tasks
+    @Test
+    void insertAll_setsGeneratedIds() {
+        User user = taskRepository.findAll().get(0).getAssignedUser();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.setTitle("Batch " + i);
+            task.setDeadline(LocalDate.now());
+            task.setAssignedUser(user);
+            task.setCreatedAt(now);
+            tasks.add(task);
+        }
+
+        taskRepository.insertAll(tasks);
+
+        assertTrue(tasks.stream().allMatch(task -> task.getId() != null));
+        assertEquals(USERS * 2 + 3, taskRepository.count());
+        Task stored = taskRepository.findById(tasks.get(2).getId()).orElseThrow();
+        assertEquals("Batch 2", stored.getTitle());
+        assertEquals(TaskStatus.OPEN, stored.getStatus());
+        assertEquals(user.getId(), stored.getAssignedUser().getId());
+    }
+
+    // findByIdIn - tasks and assignee names in one statement
+    @Test
+    void findByIdIn_singleStatement() {
+        List<Long> ids = taskRepository.findAll().stream().map(Task::getId).toList();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Task> tasks = taskRepository.findByIdIn(ids);
+
+        assertEquals(ids.size(), tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getAssignedUser().getProfile().getFullName() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ======= END BATCH WRITES =======
+}
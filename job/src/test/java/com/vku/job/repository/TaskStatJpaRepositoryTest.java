@@ -0,0 +1,158 @@
+package com.vku.job.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.vku.job.entities.Task;
+import com.vku.job.entities.User;
+import com.vku.job.entities.UserProfile;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.TaskStatJpaRepository;
+import com.vku.job.repositories.projection.TaskForUserProjection;
+import com.vku.job.repositories.projection.TaskSummaryProjection;
+import com.vku.job.services.statistics.StatisticsCache;
+import com.vku.job.services.statistics.TaskStatsService;
+
+// The task_stats aggregate kept up by TaskStatsService must always match a
+// full recount of the tasks table.
+@DataJpaTest
+@Import(TaskStatsService.class)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class TaskStatJpaRepositoryTest {
+
+    @Autowired
+    private TaskStatJpaRepository taskStatRepository;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private StatisticsCache statisticsCache;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 2; i++) {
+            UserProfile profile = new UserProfile();
+            profile.setFullName("User " + i);
+
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@vku.com");
+            user.setProfile(profile);
+            users.add(entityManager.persist(user));
+        }
+    }
+
+    private Task createTask(User user, TaskStatus status) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setDeadline(LocalDate.now().plusDays(1));
+        task.setAssignedUser(user);
+        entityManager.persistAndFlush(task);
+        taskStatsService.taskCreated(task);
+        return task;
+    }
+
+    // non-empty buckets as "userId/status/day" -> count
+    private Map<String, Long> buckets() {
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, Long> buckets = new TreeMap<>();
+        taskStatRepository.findAll().stream()
+                .filter(stat -> stat.getTaskCount() != 0)
+                .forEach(stat -> buckets.put(
+                        stat.getUserId() + "/" + stat.getStatus() + "/" + stat.getBucketDate(),
+                        stat.getTaskCount()));
+        return buckets;
+    }
+
+    private Map<String, Long> rebuiltBuckets() {
+        taskStatsService.rebuild();
+        return buckets();
+    }
+
+    private long count(List<TaskSummaryProjection> rows, TaskStatus status) {
+        return rows.stream()
+                .filter(row -> row.getStatus().equals(status.name()))
+                .mapToLong(TaskSummaryProjection::getCount)
+                .sum();
+    }
+
+    // create - each task lands in its (user, status, day) bucket
+    @Test
+    void taskCreated_countsMatchRebuild() {
+        createTask(users.get(0), TaskStatus.OPEN);
+        createTask(users.get(0), TaskStatus.OPEN);
+        createTask(users.get(1), TaskStatus.DONE);
+        createTask(null, TaskStatus.OPEN);
+
+        Map<String, Long> incremental = buckets();
+
+        assertEquals(3, incremental.size());
+        assertEquals(incremental, rebuiltBuckets());
+    }
+
+    // update and delete - tasks move between buckets and leave them
+    @Test
+    void taskChangedAndDeleted_countsMatchRebuild() {
+        Task moved = createTask(users.get(0), TaskStatus.OPEN);
+        Task deleted = createTask(users.get(1), TaskStatus.IN_PROGRESS);
+        createTask(users.get(1), TaskStatus.OPEN);
+
+        moved.setStatus(TaskStatus.DONE);
+        moved.setAssignedUser(users.get(1));
+        entityManager.merge(moved);
+        taskStatsService.taskChanged(users.get(0).getId(), TaskStatus.OPEN, moved);
+
+        entityManager.remove(entityManager.find(Task.class, deleted.getId()));
+        taskStatsService.taskDeleted(deleted);
+
+        assertEquals(rebuiltBuckets(), buckets());
+        assertEquals(2, buckets().size());
+    }
+
+    // statistics queries read the aggregate
+    @Test
+    void statisticsQueries_sumBuckets() {
+        createTask(users.get(0), TaskStatus.OPEN);
+        createTask(users.get(0), TaskStatus.DONE);
+        createTask(users.get(1), TaskStatus.OPEN);
+        createTask(null, TaskStatus.OPEN);
+        entityManager.flush();
+
+        List<TaskSummaryProjection> byStatus = taskStatRepository.countTasksByStatus();
+        assertEquals(3, count(byStatus, TaskStatus.OPEN));
+        assertEquals(1, count(byStatus, TaskStatus.DONE));
+
+        List<TaskSummaryProjection> byUser = taskStatRepository.countTasksByStatusByUser(users.get(0).getId());
+        assertEquals(1, count(byUser, TaskStatus.OPEN));
+        assertEquals(1, count(byUser, TaskStatus.DONE));
+
+        LocalDate today = LocalDate.now();
+        List<TaskForUserProjection> perUser = taskStatRepository.countTasksByUserBetween(today, today);
+        assertEquals(2, perUser.size());
+        assertEquals(0, taskStatRepository.countTasksByStatusBetween(today.plusDays(1), today.plusDays(2)).size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.vku.job.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vku.job.entities.User;
+import com.vku.job.entities.UserProfile;
+import com.vku.job.repositories.UserJpaRepository;
+
+// OTP attempts are reserved with one conditional UPDATE, so concurrent guesses cannot exceed the limit
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class UserJpaRepositoryTest {
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        UserProfile profile = new UserProfile();
+        profile.setFullName("Nguyen Van A");
+
+        User user = new User();
+        user.setUsername("nhan");
+        user.setEmail("nhan@gmail.com");
+        user.setProfile(profile);
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getId();
+    }
+
+    @Test
+    void consumeOtpAttempt_stopsAtMax() {
+        assertEquals(1, userJpaRepository.consumeOtpAttempt(userId, 3));
+        assertEquals(1, userJpaRepository.consumeOtpAttempt(userId, 3));
+        assertEquals(1, userJpaRepository.consumeOtpAttempt(userId, 3));
+        assertEquals(0, userJpaRepository.consumeOtpAttempt(userId, 3));
+
+        entityManager.clear();
+        assertEquals(3, entityManager.find(User.class, userId).getEmailOtpAttempts());
+    }
+
+    @Test
+    void consumeOtpAttempt_afterReset_allowedAgain() {
+        assertEquals(1, userJpaRepository.consumeOtpAttempt(userId, 1));
+        assertEquals(0, userJpaRepository.consumeOtpAttempt(userId, 1));
+
+        entityManager.clear();
+        User user = entityManager.find(User.class, userId);
+        user.setEmailOtpAttempts(0);
+        entityManager.flush();
+
+        assertEquals(1, userJpaRepository.consumeOtpAttempt(userId, 1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.vku.job.exceptions.TooManyRequestsException;
+import com.vku.job.services.ratelimit.AuthRateLimiter;
+import com.vku.job.services.ratelimit.AuthRateLimiter.Limit;
+import com.vku.job.services.ratelimit.TokenBucket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuthRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuthRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // ip: 10 at once then 10/min; account: 3 at once then 3/min
+        limiter = new AuthRateLimiter(meterRegistry, Limit.perMinute(10, 10), Limit.perMinute(3, 3), 1000, now::get);
+    }
+
+    @Test
+    void account_burstThenRejected() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check(AuthRateLimiter.LOGIN, "1.1.1.1", "nhan");
+        }
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.check(AuthRateLimiter.LOGIN, "1.1.1.1", "nhan"));
+
+        assertEquals(20, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.ratelimit.rejected")
+                .tag("action", "login").tag("scope", "account").counter().count());
+    }
+
+    @Test
+    void account_keyIgnoresCaseAndOtherAccountsUnaffected() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check(AuthRateLimiter.LOGIN, "1.1.1." + i, "Nhan");
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.check(AuthRateLimiter.LOGIN, "2.2.2.2", "nhan"));
+
+        limiter.check(AuthRateLimiter.LOGIN, "2.2.2.2", "other");
+        // separate buckets per action
+        limiter.check(AuthRateLimiter.OTP, "2.2.2.2", "nhan");
+    }
+
+    @Test
+    void ip_limitsAcrossAccounts() {
+        for (int i = 0; i < 10; i++) {
+            limiter.check(AuthRateLimiter.LOGIN, "1.1.1.1", "user" + i);
+        }
+        assertThrows(TooManyRequestsException.class,
+                () -> limiter.check(AuthRateLimiter.LOGIN, "1.1.1.1", "user-new"));
+        assertEquals(1.0, meterRegistry.get("auth.ratelimit.rejected").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void refill_oneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check(AuthRateLimiter.OTP, "1.1.1.1", "a@gmail.com");
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.check(AuthRateLimiter.OTP, "1.1.1.1", "a@gmail.com"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        limiter.check(AuthRateLimiter.OTP, "1.1.1.1", "a@gmail.com");
+        assertThrows(TooManyRequestsException.class, () -> limiter.check(AuthRateLimiter.OTP, "1.1.1.1", "a@gmail.com"));
+    }
+
+    @Test
+    void tokenBucket_concurrentTakers_neverExceedCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, TimeUnit.HOURS.toNanos(1), 0);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryTake(0) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(100, taken.get());
+    }
+}
@@ -22,9 +22,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.web.client.RestTemplate;
 
 import com.vku.job.dtos.auth.GoogleLoginRequestDto;
 import com.vku.job.dtos.auth.LoginRequestDto;
@@ -40,7 +38,12 @@ import com.vku.job.repositories.RoleJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
 import com.vku.job.services.MailService;
 import com.vku.job.services.UserService;
+import com.vku.job.services.auth.CustomUserDetailsService;
+import com.vku.job.services.auth.GoogleIdTokenVerifier;
 import com.vku.job.services.auth.JwtService;
+import com.vku.job.services.auth.OtpHasher;
+
+import io.jsonwebtoken.Jwts;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthServiceTest {
@@ -51,11 +54,17 @@ public class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private OtpHasher otpHasher;
+
     @Mock
     private JwtService jwtService;
 
     @Mock
-    private RestTemplate restTemplate;
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private GoogleIdTokenVerifier googleIdTokenVerifier;
 
     @Mock
     private RoleJpaRepository roleJpaRepository;
@@ -134,6 +143,34 @@ public class AuthServiceTest {
         assertEquals(List.of("Users"), response.getLoggedInUser().getRoles());
     }
 
+    // Login with an outdated hash: the password is rehashed and saved
+    @Test
+    void login_outdatedHash_rehashed() throws Exception {
+        LoginRequestDto request = new LoginRequestDto("vanteo", "Nhan@123456");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("vanteo");
+        user.setPassword("$2a$10$old");
+        user.setEmailVerified(true);
+        user.setIsActive(0);
+
+        Mockito.when(userJpaRepository.findByUsername("vanteo"))
+                .thenReturn(Optional.of(user));
+        Mockito.when(passwordEncoder.matches("Nhan@123456", "$2a$10$old"))
+                .thenReturn(true);
+        Mockito.when(passwordEncoder.upgradeEncoding("$2a$10$old"))
+                .thenReturn(true);
+        Mockito.when(passwordEncoder.encode("Nhan@123456"))
+                .thenReturn("{bcrypt}$2a$12$new");
+
+        authService.login(request);
+
+        assertEquals("{bcrypt}$2a$12$new", user.getPassword());
+        verify(userJpaRepository).save(user);
+        verify(userDetailsService).evict(1L);
+    }
+
     // login user is not found
     @Test
     void login_userNotFound() {
@@ -229,7 +266,6 @@ public class AuthServiceTest {
     // ========= LOGIN GOOGLE TESTS ==========
 
     // Login with Google success
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_success() throws Exception {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
@@ -240,11 +276,8 @@ public class AuthServiceTest {
                 "iss", "https://accounts.google.com",
                 "exp", System.currentTimeMillis() / 1000 + 1000);
 
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify(Mockito.anyString()))
+                .thenReturn(Jwts.claims().add(payload).build());
 
         Mockito.when(userJpaRepository.existsByEmailAndEmailVerifiedTrueAndPasswordIsNotNull(Mockito.anyString()))
                 .thenReturn(false);
@@ -275,15 +308,11 @@ public class AuthServiceTest {
     }
 
     // Login with Google - invalid token
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_invalidToken() {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("invalid-token");
-        ResponseEntity<Map> response = new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify("invalid-token"))
+                .thenThrow(new HttpException("Invalid Google token", HttpStatus.UNAUTHORIZED));
 
         Exception exception = assertThrows(HttpException.class, () -> {
             authService.googleLogin(dto);
@@ -292,49 +321,7 @@ public class AuthServiceTest {
         assertEquals("Invalid Google token", exception.getMessage());
     }
 
-    // Login with Google - token expired
-    @SuppressWarnings("rawtypes")
-    @Test
-    void loginWithGoogle_tokenExpired() {
-        GoogleLoginRequestDto dto = new GoogleLoginRequestDto("expired-token");
-        Map<String, Object> payload = Map.of(
-                "email", "phamphunha@gmail.com",
-                "name", "Test User",
-                "iss", "https://accounts.google.com",
-                "exp", System.currentTimeMillis() / 1000 - 1000); // expired
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
-        Exception exception = assertThrows(HttpException.class, () -> {
-            authService.googleLogin(dto);
-        });
-
-        assertEquals("Google token has expired", exception.getMessage());
-    }
-
-    // Login with Google - invalid issuer
-    @SuppressWarnings("rawtypes")
-    @Test
-    void loginWithGoogle_invalidIssuer() {
-        GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
-        Map<String, Object> payload = Map.of(
-                "email", "phamnhan@gmail.com",
-                "name", "Test User",
-                "iss", "https://invalid-issuer.com",
-                "exp", System.currentTimeMillis() / 1000 + 1000);
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
-        Exception exception = assertThrows(HttpException.class, () -> {
-            authService.googleLogin(dto);
-        });
-        assertEquals("Invalid Google token issuer", exception.getMessage());
-    }
-
     // Login with Google - email not found in token
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_emailNotFound() {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
@@ -342,10 +329,8 @@ public class AuthServiceTest {
                 "name", "Test User",
                 "iss", "https://accounts.google.com",
                 "exp", System.currentTimeMillis() / 1000 + 1000);
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify(Mockito.anyString()))
+                .thenReturn(Jwts.claims().add(payload).build());
         Exception exception = assertThrows(HttpException.class, () -> {
             authService.googleLogin(dto);
         });
@@ -353,7 +338,6 @@ public class AuthServiceTest {
     }
 
     // Login with Google - account exists with password (not Google account)
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_accountExistsWithPassword() {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
@@ -362,10 +346,8 @@ public class AuthServiceTest {
                 "name", "Test User",
                 "iss", "https://accounts.google.com",
                 "exp", System.currentTimeMillis() / 1000 + 1000);
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify(Mockito.anyString()))
+                .thenReturn(Jwts.claims().add(payload).build());
         Mockito.when(userJpaRepository.existsByEmailAndEmailVerifiedTrueAndPasswordIsNotNull("phamphunhan@gmail.com"))
                 .thenReturn(true);
         Exception exception = assertThrows(HttpException.class, () -> {
@@ -376,7 +358,6 @@ public class AuthServiceTest {
     }
 
     // Login with Google - account not active
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_accountNotActive() {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
@@ -385,10 +366,8 @@ public class AuthServiceTest {
                 "name", "Test User",
                 "iss", "https://accounts.google.com",
                 "exp", System.currentTimeMillis() / 1000 + 1000);
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify(Mockito.anyString()))
+                .thenReturn(Jwts.claims().add(payload).build());
         Mockito.when(userJpaRepository.existsByEmailAndEmailVerifiedTrueAndPasswordIsNotNull("phamphunhan@gmail.com"))
                 .thenReturn(false);
         User user = new User();
@@ -402,7 +381,6 @@ public class AuthServiceTest {
     }
 
     // Login with Google - role "Users" not found
-    @SuppressWarnings("rawtypes")
     @Test
     void loginWithGoogle_roleUsersNotFound() {
         GoogleLoginRequestDto dto = new GoogleLoginRequestDto("token");
@@ -411,10 +389,8 @@ public class AuthServiceTest {
                 "name", "Test User",
                 "iss", "https://accounts.google.com",
                 "exp", System.currentTimeMillis() / 1000 + 1000);
-        ResponseEntity<Map> response = new ResponseEntity<>(payload, HttpStatus.OK);
-        Mockito.when(restTemplate.getForEntity(
-                Mockito.anyString(), Mockito.eq(Map.class)))
-                .thenReturn(response);
+        Mockito.when(googleIdTokenVerifier.verify(Mockito.anyString()))
+                .thenReturn(Jwts.claims().add(payload).build());
         Mockito.when(userJpaRepository.existsByEmailAndEmailVerifiedTrueAndPasswordIsNotNull("phamphunhan@gmail.com"))
                 .thenReturn(false);
         Mockito.when(userJpaRepository.findByUsername("phamphunhan@gmail.com"))
@@ -471,6 +447,9 @@ public class AuthServiceTest {
         verify(emailService).sendVerificationCode(
                 eq("nhan@gmail.com"),
                 anyString());
+        // only the password goes through BCrypt, the OTP through the HMAC
+        verify(passwordEncoder).encode("123456");
+        verify(otpHasher).hash(eq("nhan@gmail.com"), anyString());
     }
 
     // Register user - username already exists
@@ -609,7 +588,9 @@ public class AuthServiceTest {
         Mockito.when(userJpaRepository.findByEmail("a@gmail.com"))
                 .thenReturn(Optional.of(user));
 
-        Mockito.when(passwordEncoder.matches("123456", "hashed-otp"))
+        Mockito.when(userJpaRepository.consumeOtpAttempt(Mockito.any(), Mockito.anyInt()))
+                .thenReturn(1);
+        Mockito.when(otpHasher.matches("a@gmail.com", "123456", "hashed-otp"))
                 .thenReturn(true);
 
         // when
@@ -660,13 +641,36 @@ public class AuthServiceTest {
 
         Mockito.when(userJpaRepository.findByEmail("nhan@gmail.com"))
                 .thenReturn(Optional.of(user));
-        Mockito.when(passwordEncoder.matches("wrong-otp", "hashed-otp"))
+        Mockito.when(userJpaRepository.consumeOtpAttempt(Mockito.any(), Mockito.anyInt()))
+                .thenReturn(1);
+        Mockito.when(otpHasher.matches("nhan@gmail.com", "wrong-otp", "hashed-otp"))
                 .thenReturn(false);
         Exception exception = assertThrows(RuntimeException.class, () -> {
             authService.verifyEmail("nhan@gmail.com", "wrong-otp");
         });
         assertEquals("Invalid OTP", exception.getMessage());
     }
+
+    // verify email - attempts on this code used up: rejected without checking the code
+    @Test
+    void verifyEmail_tooManyAttempts() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmailVerified(false);
+        user.setEmailOtpExpiry(System.currentTimeMillis() + 60_000);
+        user.setEmailOtpHash("hashed-otp");
+
+        Mockito.when(userJpaRepository.findByEmail("nhan@gmail.com"))
+                .thenReturn(Optional.of(user));
+        Mockito.when(userJpaRepository.consumeOtpAttempt(Mockito.eq(7L), Mockito.anyInt()))
+                .thenReturn(0);
+        HttpException exception = assertThrows(HttpException.class, () -> {
+            authService.verifyEmail("nhan@gmail.com", "123456");
+        });
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        Mockito.verifyNoInteractions(otpHasher);
+        Mockito.verify(userJpaRepository, Mockito.never()).save(Mockito.any());
+    }
     // verify email - email already verified
     @Test
     void verifyEmail_emailAlreadyVerified() {
@@ -0,0 +1,156 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vku.job.services.mail.BrevoMailSender;
+import com.vku.job.services.mail.MailDeliveryException;
+
+// Runs the sender against a local stub of the Brevo API
+public class BrevoMailSenderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HttpServer server;
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+    private volatile int status = 201;
+    private volatile long latencyMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private BrevoMailSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v3/smtp/email", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        sender = new BrevoMailSender(restClient, "test-key", 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            requests.add(objectMapper.readTree(exchange.getRequestBody()));
+            apiKeys.add(exchange.getRequestHeaders().getFirst("api-key"));
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            byte[] body = "{\"messageId\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // single recipient - plain "to"
+    @Test
+    void send_singleRecipient_usesTo() {
+        sender.send(List.of("user@example.com"), "Subject", "Hello", null, null);
+
+        JsonNode request = requests.get(0);
+        assertEquals("test-key", apiKeys.get(0));
+        assertEquals("user@example.com", request.at("/to/0/email").asText());
+        assertTrue(request.path("messageVersions").isMissingNode());
+        assertTrue(request.path("attachment").isMissingNode());
+        assertEquals("<html><body>Hello</body></html>", request.get("htmlContent").asText());
+    }
+
+    // several recipients - one call, one message version each
+    @Test
+    void send_manyRecipients_oneCallWithMessageVersions() {
+        sender.send(List.of("a@example.com", "b@example.com", "c@example.com"), "Report", "Body", "report.pdf",
+                "AQID");
+
+        assertEquals(1, requests.size());
+        JsonNode request = requests.get(0);
+        assertTrue(request.path("to").isMissingNode());
+        assertEquals(3, request.get("messageVersions").size());
+        assertEquals("c@example.com", request.at("/messageVersions/2/to/0/email").asText());
+        assertEquals("report.pdf", request.at("/attachment/0/name").asText());
+        assertEquals("AQID", request.at("/attachment/0/content").asText());
+    }
+
+    // server errors and rate limiting are retried later
+    @Test
+    void send_serverError_retryable() {
+        status = 503;
+
+        MailDeliveryException ex = assertThrows(MailDeliveryException.class,
+                () -> sender.send(List.of("user@example.com"), "Subject", "Hello", null, null));
+
+        assertTrue(ex.isRetryable());
+    }
+
+    // a rejected message will not get better by retrying
+    @Test
+    void send_badRequest_notRetryable() {
+        status = 400;
+
+        MailDeliveryException ex = assertThrows(MailDeliveryException.class,
+                () -> sender.send(List.of("not-an-email"), "Subject", "Hello", null, null));
+
+        assertFalse(ex.isRetryable());
+    }
+
+    // unreachable API - retryable
+    @Test
+    void send_connectionRefused_retryable() {
+        server.stop(0);
+
+        MailDeliveryException ex = assertThrows(MailDeliveryException.class,
+                () -> sender.send(List.of("user@example.com"), "Subject", "Hello", null, null));
+
+        assertTrue(ex.isRetryable());
+    }
+
+    // concurrent senders never exceed the configured number of in-flight calls
+    @Test
+    void send_concurrentCalls_cappedByPermits() {
+        latencyMs = 50;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> sender.send(List.of("user@example.com"), "Subject", "Hello", null, null));
+            }
+        }
+
+        assertEquals(8, requests.size());
+        assertEquals(2, maxInFlight.get());
+    }
+}
@@ -0,0 +1,70 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.vku.job.services.ratelimit.ClientIpResolver;
+
+public class ClientIpResolverTest {
+    private final ClientIpResolver resolver = new ClientIpResolver(
+            List.of("127.0.0.0/8", "::1", "172.16.0.0/12"));
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    // behind the proxy every client gets its own key instead of the proxy's
+    @Test
+    void trustedProxy_usesForwardedClient() {
+        assertEquals("203.0.113.7", resolver.resolve(request("172.18.0.2", "203.0.113.7")));
+        assertEquals("198.51.100.9", resolver.resolve(request("172.18.0.2", "198.51.100.9")));
+    }
+
+    // a spoofed left-most entry is ignored: the right-most untrusted hop is what the proxy saw
+    @Test
+    void trustedProxy_spoofedHeader_usesHopSeenByProxy() {
+        assertEquals("203.0.113.7", resolver.resolve(request("172.18.0.2", "1.2.3.4, 203.0.113.7")));
+    }
+
+    // proxies chained inside the trusted networks are skipped
+    @Test
+    void trustedProxyChain_skipsTrustedHops() {
+        assertEquals("203.0.113.7",
+                resolver.resolve(request("127.0.0.1", "203.0.113.7, 172.20.0.5")));
+        assertEquals("203.0.113.7", resolver.resolve(request("0:0:0:0:0:0:0:1", "203.0.113.7")));
+    }
+
+    // a direct client cannot choose its key by sending the header itself
+    @Test
+    void untrustedRemote_headerIgnored() {
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "1.2.3.4")));
+    }
+
+    @Test
+    void trustedProxy_noOrBlankHeader_usesRemoteAddr() {
+        assertEquals("172.18.0.2", resolver.resolve(request("172.18.0.2", null)));
+        assertEquals("172.18.0.2", resolver.resolve(request("172.18.0.2", " ")));
+    }
+
+    // everything trusted (a request from inside the network): the left-most hop is the client
+    @Test
+    void allHopsTrusted_usesLeftMost() {
+        assertEquals("172.20.0.9", resolver.resolve(request("172.18.0.2", "172.20.0.9, 127.0.0.1")));
+    }
+
+    @Test
+    void noTrustedProxies_alwaysRemoteAddr() {
+        ClientIpResolver direct = new ClientIpResolver(List.of());
+
+        assertEquals("172.18.0.2", direct.resolve(request("172.18.0.2", "203.0.113.7")));
+    }
+}
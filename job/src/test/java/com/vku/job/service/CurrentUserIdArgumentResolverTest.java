@@ -0,0 +1,46 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.resolvers.CurrentUserIdArgumentResolver;
+import com.vku.job.services.auth.AuthenticatedUser;
+
+public class CurrentUserIdArgumentResolverTest {
+    private final CurrentUserIdArgumentResolver resolver = new CurrentUserIdArgumentResolver();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // resolve - id comes from the principal set by the filter
+    @Test
+    void resolveArgument_returnsPrincipalId() {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "nhan", "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_USERS")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(7L, resolver.resolveArgument(null, null, null, null));
+    }
+
+    // resolve - no authenticated principal
+    @Test
+    void resolveArgument_unauthenticated_throws() {
+        HttpException ex = assertThrows(HttpException.class,
+                () -> resolver.resolveArgument(null, null, null, null));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatus());
+    }
+}
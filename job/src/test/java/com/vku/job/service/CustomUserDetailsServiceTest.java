@@ -0,0 +1,91 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.vku.job.entities.Role;
+import com.vku.job.entities.User;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.services.auth.AuthenticatedUser;
+import com.vku.job.services.auth.CustomUserDetailsService;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+    @Mock
+    private UserJpaRepository userJpaRepository;
+
+    private CustomUserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService(userJpaRepository, 60, 100);
+
+        Role role = new Role();
+        role.setName("Users");
+        user = new User();
+        user.setId(1L);
+        user.setUsername("nhan");
+        user.setPassword("hash");
+        user.setIsActive(0);
+        user.setRoles(List.of(role));
+    }
+
+    // load by id - repeated requests run one query
+    @Test
+    void loadUserById_cachesPrincipal() {
+        Mockito.when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserById(1L);
+        UserDetails second = userDetailsService.loadUserById(1L);
+
+        assertSame(first, second);
+        assertEquals(1L, ((AuthenticatedUser) first).getId());
+        assertEquals("nhan", first.getUsername());
+        assertEquals("", first.getPassword());
+        assertTrue(first.isEnabled());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Users")));
+        verify(userJpaRepository, times(1)).findById(1L);
+    }
+
+    // evict - the next request sees the new status
+    @Test
+    void evict_reloadsPrincipal() {
+        Mockito.when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        userDetailsService.loadUserById(1L);
+
+        user.setIsActive(1);
+        userDetailsService.evict(1L);
+
+        assertFalse(userDetailsService.loadUserById(1L).isEnabled());
+        verify(userJpaRepository, times(2)).findById(1L);
+    }
+
+    // load by id - unknown users are not cached
+    @Test
+    void loadUserById_userNotFound() {
+        Mockito.when(userJpaRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserById(2L));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserById(2L));
+        verify(userJpaRepository, times(2)).findById(2L);
+    }
+}
@@ -0,0 +1,188 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.web.client.RestClient;
+
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.services.auth.GoogleIdTokenVerifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+// Signs tokens with local RSA keys published through a JWKS file
+public class GoogleIdTokenVerifierTest {
+    private static final String CLIENT_ID = "client-1.apps.googleusercontent.com";
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private Path jwksFile;
+    private final KeyPair key1 = Jwts.SIG.RS256.keyPair().build();
+    private final KeyPair key2 = Jwts.SIG.RS256.keyPair().build();
+    private GoogleIdTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jwksFile = dir.resolve("certs.json");
+        writeJwks(List.of("k1"), List.of(key1));
+        verifier = new GoogleIdTokenVerifier(RestClient.create(), new DefaultResourceLoader(),
+                jwksFile.toUri().toString(), Set.of(CLIENT_ID), Duration.ofHours(1), Duration.ZERO,
+                Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void verify_validToken_returnsClaims() {
+        Claims claims = verifier.verify(token("k1", key1, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600)));
+
+        assertEquals("test@gmail.com", claims.get("email", String.class));
+        assertEquals("Test User", claims.get("name", String.class));
+    }
+
+    @Test
+    void verify_shortIssuer_accepted() {
+        verifier.verify(token("k1", key1, "accounts.google.com", CLIENT_ID, NOW.plusSeconds(600)));
+    }
+
+    @Test
+    void verify_expired_rejected() {
+        HttpException ex = assertThrows(HttpException.class,
+                () -> verifier.verify(token("k1", key1, "https://accounts.google.com", CLIENT_ID, NOW.minusSeconds(600))));
+        assertEquals("Google token has expired", ex.getMessage());
+    }
+
+    @Test
+    void verify_invalidIssuer_rejected() {
+        HttpException ex = assertThrows(HttpException.class,
+                () -> verifier.verify(token("k1", key1, "https://invalid-issuer.com", CLIENT_ID, NOW.plusSeconds(600))));
+        assertEquals("Invalid Google token issuer", ex.getMessage());
+    }
+
+    @Test
+    void verify_otherAudience_rejected() {
+        HttpException ex = assertThrows(HttpException.class,
+                () -> verifier.verify(token("k1", key1, "https://accounts.google.com", "someone-else", NOW.plusSeconds(600))));
+        assertEquals("Invalid Google token audience", ex.getMessage());
+    }
+
+    @Test
+    void verify_wrongSignature_rejected() {
+        // kid k1 but signed with another key
+        HttpException ex = assertThrows(HttpException.class,
+                () -> verifier.verify(token("k1", key2, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600))));
+        assertEquals("Invalid Google token", ex.getMessage());
+    }
+
+    @Test
+    void verify_notAToken_rejected() {
+        HttpException ex = assertThrows(HttpException.class, () -> verifier.verify("not-a-token"));
+        assertEquals("Invalid Google token", ex.getMessage());
+    }
+
+    @Test
+    void verify_unknownKid_reloadsKeys() throws IOException {
+        verifier.verify(token("k1", key1, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600)));
+
+        // key rotation: k2 published after the first load
+        writeJwks(List.of("k1", "k2"), List.of(key1, key2));
+
+        Claims claims = verifier.verify(token("k2", key2, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600)));
+        assertEquals("test@gmail.com", claims.get("email", String.class));
+    }
+
+    @Test
+    void verify_unknownKid_withinMinRefreshInterval_rejectedWithoutReload() throws IOException {
+        GoogleIdTokenVerifier throttled = new GoogleIdTokenVerifier(RestClient.create(), new DefaultResourceLoader(),
+                jwksFile.toUri().toString(), Set.of(CLIENT_ID), Duration.ofHours(1), Duration.ofMinutes(1),
+                Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+        throttled.verify(token("k1", key1, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600)));
+
+        writeJwks(List.of("k1", "k2"), List.of(key1, key2));
+
+        HttpException ex = assertThrows(HttpException.class,
+                () -> throttled.verify(token("k2", key2, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600))));
+        assertEquals("Invalid Google token", ex.getMessage());
+    }
+
+    // enabled without client ids would reject every login: fail at startup instead
+    @Test
+    void clientIds_enabledWithoutIds_failsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> GoogleIdTokenVerifier.clientIds(true, "", null));
+        assertThrows(IllegalStateException.class, () -> GoogleIdTokenVerifier.clientIds(true, " , ", " "));
+    }
+
+    @Test
+    void clientIds_propertyThenEnvFile() {
+        assertEquals(Set.of("a", "b"), GoogleIdTokenVerifier.clientIds(true, "a, b", "c"));
+        assertEquals(Set.of("c"), GoogleIdTokenVerifier.clientIds(true, "", "c"));
+    }
+
+    @Test
+    void verify_disabled_rejected() {
+        GoogleIdTokenVerifier disabled = new GoogleIdTokenVerifier(RestClient.create(), new DefaultResourceLoader(),
+                jwksFile.toUri().toString(), GoogleIdTokenVerifier.clientIds(false, "", null), Duration.ofHours(1),
+                Duration.ZERO, Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        HttpException ex = assertThrows(HttpException.class,
+                () -> disabled.verify(token("k1", key1, "https://accounts.google.com", CLIENT_ID, NOW.plusSeconds(600))));
+        assertEquals("Google sign-in is disabled", ex.getMessage());
+    }
+
+    private String token(String kid, KeyPair key, String issuer, String audience, Instant expiresAt) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .issuer(issuer)
+                .audience().add(audience).and()
+                .subject("1234567890")
+                .claim("email", "test@gmail.com")
+                .claim("name", "Test User")
+                .issuedAt(Date.from(expiresAt.minusSeconds(3600)))
+                .expiration(Date.from(expiresAt))
+                .signWith(key.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private void writeJwks(List<String> kids, List<KeyPair> keys) throws IOException {
+        String json = IntStream.range(0, kids.size())
+                .mapToObj(i -> {
+                    RSAPublicKey pub = (RSAPublicKey) keys.get(i).getPublic();
+                    return "{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + kids.get(i)
+                            + "\",\"n\":\"" + base64Url(pub.getModulus()) + "\",\"e\":\""
+                            + base64Url(pub.getPublicExponent()) + "\"}";
+                })
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        Files.writeString(jwksFile, json);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
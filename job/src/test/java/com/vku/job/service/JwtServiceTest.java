@@ -0,0 +1,87 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.vku.job.entities.User;
+import com.vku.job.services.auth.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtServiceTest {
+    private final JwtService jwtService = new JwtService(100);
+
+    private User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("nhan");
+        return user;
+    }
+
+    private UserDetails userDetails(String username) {
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(username)
+                .password("")
+                .build();
+    }
+
+    // verify - a token is parsed once, later calls reuse the verified claims
+    @Test
+    void verify_cachesClaims() {
+        String token = jwtService.generateAccessToken(user());
+
+        Claims first = jwtService.verify(token);
+        Claims second = jwtService.verify(token);
+
+        assertSame(first, second);
+        assertEquals(7L, second.get("id", Long.class));
+        assertEquals("nhan", jwtService.extractUsername(token));
+    }
+
+    // verify - tampered tokens are rejected every time
+    @Test
+    void verify_tamperedToken_throwException() {
+        String token = jwtService.generateAccessToken(user());
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+
+    // verify - expired tokens are rejected
+    @Test
+    void verify_expiredToken_throwException() {
+        String expired = Jwts.builder()
+                .subject("nhan")
+                .claim("type", "access_token")
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode("NBZzu/XN0IgTPw/EfJgOkYD+tK5JdLLhQdNkUsPl2AU=")))
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+    }
+
+    // isTokenValid - only access tokens of the same user
+    @Test
+    void isTokenValid_checksSubjectAndType() {
+        String access = jwtService.generateAccessToken(user());
+        String refresh = jwtService.generateRefreshToken(user());
+
+        assertTrue(jwtService.isTokenValid(access, userDetails("nhan")));
+        assertFalse(jwtService.isTokenValid(access, userDetails("other")));
+        assertFalse(jwtService.isTokenValid(refresh, userDetails("nhan")));
+    }
+}
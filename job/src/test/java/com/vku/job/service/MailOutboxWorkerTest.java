@@ -0,0 +1,141 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.vku.job.entities.MailMessage;
+import com.vku.job.enums.MailStatus;
+import com.vku.job.repositories.MailMessageJpaRepository;
+import com.vku.job.services.mail.BrevoMailSender;
+import com.vku.job.services.mail.MailDeliveryException;
+import com.vku.job.services.mail.MailOutboxWorker;
+
+@ExtendWith(MockitoExtension.class)
+public class MailOutboxWorkerTest {
+
+    @Mock
+    private MailMessageJpaRepository mailMessageRepository;
+
+    @Mock
+    private BrevoMailSender sender;
+
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        // deliveries run inline; 3 attempts, backoff 1s doubling up to 3s
+        worker = new MailOutboxWorker(mailMessageRepository, sender, Runnable::run, 100, 3, 1000, 3000, 7);
+        Mockito.lenient().when(sender.maxRecipientsPerCall()).thenReturn(2);
+    }
+
+    private MailMessage message(long id, String recipient, String hash, int attempts) {
+        MailMessage message = new MailMessage();
+        message.setId(id);
+        message.setRecipient(recipient);
+        message.setSubject("Subject " + hash);
+        message.setHtmlContent("Body " + hash);
+        message.setContentHash(hash);
+        message.setStatus(MailStatus.PENDING);
+        message.setAttempts(attempts);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+
+    private void due(MailMessage... messages) {
+        Mockito.when(mailMessageRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                eq(MailStatus.PENDING), any(), any())).thenReturn(List.of(messages));
+    }
+
+    // identical content is grouped into calls of at most maxRecipientsPerCall
+    @Test
+    void drain_groupsSameContent() {
+        MailMessage a = message(1L, "a@x.com", "report", 0);
+        MailMessage b = message(2L, "b@x.com", "otp", 0);
+        MailMessage c = message(3L, "c@x.com", "report", 0);
+        MailMessage d = message(4L, "d@x.com", "report", 0);
+        due(a, b, c, d);
+
+        worker.drain();
+
+        verify(sender).send(eq(List.of("a@x.com", "c@x.com")), eq("Subject report"), eq("Body report"), isNull(),
+                isNull());
+        verify(sender).send(eq(List.of("d@x.com")), eq("Subject report"), any(), any(), any());
+        verify(sender).send(eq(List.of("b@x.com")), eq("Subject otp"), any(), any(), any());
+        assertEquals(MailStatus.SENT, a.getStatus());
+        assertEquals(1, d.getAttempts());
+        assertNotNull(b.getSentAt());
+    }
+
+    // retryable failure - rescheduled with backoff
+    @Test
+    void drain_retryableFailure_backsOff() {
+        MailMessage a = message(1L, "a@x.com", "otp", 1);
+        due(a);
+        doThrow(new MailDeliveryException("Brevo responded 503", true, null))
+                .when(sender).send(anyList(), any(), any(), any(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.drain();
+
+        assertEquals(MailStatus.PENDING, a.getStatus());
+        assertEquals(2, a.getAttempts());
+        assertEquals("Brevo responded 503", a.getLastError());
+        assertTrue(!a.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        verify(mailMessageRepository).saveAll(List.of(a));
+    }
+
+    // last attempt or a permanent error - marked failed
+    @Test
+    void drain_exhaustedOrPermanent_failed() {
+        MailMessage exhausted = message(1L, "a@x.com", "otp", 2);
+        MailMessage rejected = message(2L, "b@x.com", "other", 0);
+        due(exhausted, rejected);
+        doThrow(new MailDeliveryException("Brevo responded 503", true, null))
+                .when(sender).send(eq(List.of("a@x.com")), any(), any(), any(), any());
+        doThrow(new MailDeliveryException("Brevo responded 400", false, null))
+                .when(sender).send(eq(List.of("b@x.com")), any(), any(), any(), any());
+
+        worker.drain();
+
+        assertEquals(MailStatus.FAILED, exhausted.getStatus());
+        assertEquals(MailStatus.FAILED, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+    }
+
+    // nothing due - no call
+    @Test
+    void drain_nothingDue() {
+        due();
+
+        worker.drain();
+
+        verify(sender, never()).send(anyList(), any(), any(), any(), any());
+    }
+
+    @Test
+    void backoff_doublesUpToMax() {
+        assertEquals(Duration.ofSeconds(1), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(2), worker.backoff(2));
+        assertEquals(Duration.ofSeconds(3), worker.backoff(3));
+        assertEquals(Duration.ofSeconds(3), worker.backoff(40));
+    }
+}
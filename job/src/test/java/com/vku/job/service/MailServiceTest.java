@@ -1,192 +1,160 @@
 package com.vku.job.service;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import javax.sql.DataSource;
 
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
-
-import com.vku.job.config.EnvLoader;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vku.job.entities.MailMessage;
+import com.vku.job.enums.MailStatus;
+import com.vku.job.repositories.MailMessageJpaRepository;
 import com.vku.job.services.MailService;
 
 @ExtendWith(MockitoExtension.class)
 public class MailServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private MailMessageJpaRepository mailMessageRepository;
 
+    @InjectMocks
     private MailService mailService;
 
-    private MockedStatic<EnvLoader> envLoaderStatic;
-
-    @BeforeEach
-    void setUp() throws Exception {
-        // Mock EnvLoader static to return a dummy API key
-        envLoaderStatic = Mockito.mockStatic(EnvLoader.class);
-        envLoaderStatic.when(() -> EnvLoader.get("BREVO_API_KEY")).thenReturn("dummy-api-key");
-
-        // use real MailService instance and inject mocked RestTemplate via reflection
-        mailService = new MailService();
-        Field restField = MailService.class.getDeclaredField("restTemplate");
-        restField.setAccessible(true);
-        restField.set(mailService, restTemplate);
-
-        // default successful response (lenient to avoid unnecessary stubbing errors)
-        Mockito.lenient()
-                .when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
-                .thenReturn(new ResponseEntity<>("ok", HttpStatus.OK));
-    }
-
-    @AfterEach
-    void tearDown() {
-        if (envLoaderStatic != null) {
-            envLoaderStatic.close();
-        }
+    private List<MailMessage> savedMessages(int calls) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MailMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mailMessageRepository, times(calls)).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
     }
 
     // ====== SEND VERIFICATION CODE TESTS ======
 
     @Test
-    void sendVerificationCode_success() {
-        // given
-        String to = "test@example.com";
-        String code = "123456";
-
+    void sendVerificationCode_queuesPendingMessage() {
         // when
-        mailService.sendVerificationCode(to, code);
+        mailService.sendVerificationCode("test@example.com", "123456");
 
         // then
-        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(restTemplate).postForEntity(eq("https://api.brevo.com/v3/smtp/email"), captor.capture(),
-                eq(String.class));
-
-        Object body = captor.getValue().getBody();
-        assertTrue(body instanceof java.util.Map);
-        @SuppressWarnings("unchecked")
-        java.util.Map<String, Object> map = (java.util.Map<String, Object>) body;
-        java.util.List<?> toList = (java.util.List<?>) map.get("to");
-        java.util.Map<?, ?> toEntry = (java.util.Map<?, ?>) toList.get(0);
-        assertEquals(to, toEntry.get("email"));
-        assertEquals("Your Verification Code for Registration", map.get("subject"));
-        assertTrue(((String) map.get("htmlContent")).contains(code));
+        List<MailMessage> messages = savedMessages(1);
+        assertEquals(1, messages.size());
+        MailMessage message = messages.get(0);
+        assertEquals("test@example.com", message.getRecipient());
+        assertEquals("Your Verification Code for Registration", message.getSubject());
+        assertTrue(message.getHtmlContent().contains("123456"));
+        assertEquals(MailStatus.PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+        assertNull(message.getAttachmentName());
+        assertEquals(64, message.getContentHash().length());
     }
 
+    // ====== SEND PASSWORD RESET CODE TESTS ======
+
     @Test
-    void sendVerificationCode_whenException_shouldNotThrow() {
-        // given
-        String to = "test@example.com";
-        String code = "123456";
+    void sendPasswordResetCode_queuesPendingMessage() {
+        mailService.sendPasswordResetCode("user@example.com", "654321");
 
-        doThrow(new RuntimeException("error"))
-                .when(restTemplate).postForEntity(anyString(), any(HttpEntity.class), eq(String.class));
+        MailMessage message = savedMessages(1).get(0);
+        assertEquals("Your Password Reset Code", message.getSubject());
+        assertTrue(message.getHtmlContent().contains("654321"));
+    }
 
-        // when & then (no exception expected)
-        assertDoesNotThrow(() -> mailService.sendVerificationCode(to, code));
+    // different codes are different content, never grouped into one call
+    @Test
+    void sendPasswordResetCode_differentCodes_differentHash() {
+        mailService.sendPasswordResetCode("a@example.com", "111111");
+        mailService.sendPasswordResetCode("b@example.com", "222222");
 
-        verify(restTemplate).postForEntity(anyString(), any(HttpEntity.class), eq(String.class));
+        List<MailMessage> messages = savedMessages(2);
+        assertNotEquals(messages.get(0).getContentHash(), messages.get(1).getContentHash());
     }
 
-    // ====== SEND PASSWORD RESET CODE TESTS ======
+    // ====== SEND PDF REPORT TESTS ======
 
     @Test
-    void sendPasswordResetCode_success() {
-        // given
-        String to = "test@example.com";
-        String code = "654321";
-
-        // when
-        mailService.sendPasswordResetCode(to, code);
+    void sendPdfReport_oneRowPerRecipient_sameHash() {
+        byte[] pdf = new byte[] { 1, 2, 3 };
 
-        // then
-        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(restTemplate).postForEntity(eq("https://api.brevo.com/v3/smtp/email"), captor.capture(),
-                eq(String.class));
+        mailService.sendPdfReport(List.of("admin1@example.com", "admin2@example.com"), pdf, "Weekly Report",
+                "Body");
 
-        Object body = captor.getValue().getBody();
-        assertTrue(body instanceof java.util.Map);
-        @SuppressWarnings("unchecked")
-        java.util.Map<String, Object> map = (java.util.Map<String, Object>) body;
-        java.util.List<?> toList = (java.util.List<?>) map.get("to");
-        java.util.Map<?, ?> toEntry = (java.util.Map<?, ?>) toList.get(0);
-        assertEquals(to, toEntry.get("email"));
-        assertEquals("Your Password Reset Code", map.get("subject"));
-        assertTrue(((String) map.get("htmlContent")).contains(code));
+        List<MailMessage> messages = savedMessages(1);
+        assertEquals(2, messages.size());
+        assertEquals(messages.get(0).getContentHash(), messages.get(1).getContentHash());
+        assertEquals("weekly-task-report.pdf", messages.get(0).getAttachmentName());
+        assertEquals(Base64.getEncoder().encodeToString(pdf), messages.get(1).getAttachmentContent());
     }
 
     @Test
-    void sendPasswordResetCode_whenException_shouldNotThrow() {
-        // given
-        String to = "test@example.com";
-        String code = "654321";
+    void sendPdfReport_noRecipients_nothingQueued() {
+        mailService.sendPdfReport(List.of(), new byte[] { 1 }, "Weekly Report", "Body");
 
-        doThrow(new RuntimeException("error"))
-                .when(restTemplate).postForEntity(anyString(), any(HttpEntity.class), eq(String.class));
+        verify(mailMessageRepository, never()).saveAll(any());
+    }
 
-        // when & then (no exception expected)
-        assertDoesNotThrow(() -> mailService.sendPasswordResetCode(to, code));
+    // ====== TRANSACTION TESTS ======
 
-        verify(restTemplate).postForEntity(anyString(), any(HttpEntity.class), eq(String.class));
+    private record TxState(boolean readOnly, boolean callerConnection) {
     }
 
-    // ====== SEND PDF REPORT TESTS ======
+    // records the transaction saveAll runs in, against a real transaction manager
+    private List<TxState> enqueueWithin(boolean callerReadOnly) {
+        DataSource dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true).build();
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        ReflectionTestUtils.setField(mailService, "transactionManager", txManager);
+        List<TxState> states = new ArrayList<>();
+        Object[] callerHolder = new Object[1];
+        when(mailMessageRepository.saveAll(any())).thenAnswer(invocation -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            states.add(new TxState(TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+                    TransactionSynchronizationManager.getResource(dataSource) == callerHolder[0]));
+            return invocation.getArgument(0);
+        });
+
+        TransactionTemplate caller = new TransactionTemplate(txManager);
+        caller.setReadOnly(callerReadOnly);
+        caller.executeWithoutResult(status -> {
+            callerHolder[0] = TransactionSynchronizationManager.getResource(dataSource);
+            mailService.sendPdfReport(List.of("admin@example.com"), new byte[] { 1 }, "Weekly Report", "Body");
+        });
+        return states;
+    }
 
     @Test
-    void sendPdfReport_success() {
-        // given
-        String to = "admin@example.com";
-        byte[] pdfBytes = "pdf-content".getBytes();
-        String subject = "Weekly Report";
-        String body = "Please see attached report";
-
-        // when
-        mailService.sendPdfReport(to, pdfBytes, subject, body);
+    void enqueue_insideReadOnlyTransaction_writesInNewTransaction() {
+        List<TxState> states = enqueueWithin(true);
 
-        // then
-        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(restTemplate).postForEntity(eq("https://api.brevo.com/v3/smtp/email"), captor.capture(),
-                eq(String.class));
-
-        Object requestBody = captor.getValue().getBody();
-        assertTrue(requestBody instanceof java.util.Map);
-        @SuppressWarnings("unchecked")
-        java.util.Map<String, Object> map = (java.util.Map<String, Object>) requestBody;
-        assertEquals(subject, map.get("subject"));
-        assertTrue(map.containsKey("attachment"));
-        java.util.List<?> attachments = (java.util.List<?>) map.get("attachment");
-        java.util.Map<?, ?> att = (java.util.Map<?, ?>) attachments.get(0);
-        assertEquals("weekly-task-report.pdf", att.get("name"));
+        assertEquals(List.of(new TxState(false, false)), states);
     }
 
     @Test
-    void sendPdfReport_whenPostFails_shouldNotThrow() {
-        // given
-        doThrow(new RuntimeException("send error"))
-                .when(restTemplate).postForEntity(anyString(), any(HttpEntity.class), eq(String.class));
-
-        // when & then: MailService catches exceptions, so no exception should be thrown
-        assertDoesNotThrow(() -> mailService.sendPdfReport(
-                "admin@example.com",
-                new byte[] { 1, 2, 3 },
-                "Weekly Report",
-                "Body"));
+    void enqueue_insideReadWriteTransaction_joinsCaller() {
+        List<TxState> states = enqueueWithin(false);
+
+        // same connection: a rolled back caller takes the queued mail with it
+        assertEquals(List.of(new TxState(false, true)), states);
     }
 }
@@ -0,0 +1,127 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vku.job.config.HttpClientConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+// Runs the shared outbound client against a local stub with one slow endpoint
+public class OutboundHttpClientTest {
+    private HttpServer server;
+    private final CountDownLatch slowStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestClient restClient;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/slow", exchange -> {
+            slowStarted.countDown();
+            try {
+                releaseSlow.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/fast", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxTotal", 10);
+        ReflectionTestUtils.setField(config, "maxPerRoute", 1);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "leaseTimeoutMs", 200L);
+        ReflectionTestUtils.setField(config, "idleTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(config, "connectionTtlMs", 300000L);
+
+        connectionManager = config.outboundConnectionManager();
+        httpClient = config.outboundHttpClient(connectionManager);
+        config.outboundPoolMetrics(connectionManager).bindTo(meterRegistry);
+
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("observationRegistry", observationRegistry);
+
+        restClient = config.outboundRestClientBuilder(config.outboundRequestFactory(httpClient),
+                beanFactory.getBeanProvider(ObservationRegistry.class))
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        releaseSlow.countDown();
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void slowHost_exhaustedRoute_failsAfterLeaseTimeoutInsteadOfWaiting() throws Exception {
+        CompletableFuture<Void> slowCall = CompletableFuture.runAsync(
+                () -> restClient.get().uri("/slow").retrieve().toBodilessEntity());
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+
+        long start = System.nanoTime();
+        ResourceAccessException ex = assertThrows(ResourceAccessException.class,
+                () -> restClient.get().uri("/fast").retrieve().toBodilessEntity());
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNotNull(ex.getCause());
+        assertTrue(waitedMs < 2000, "waited " + waitedMs + " ms for a connection");
+
+        releaseSlow.countDown();
+        slowCall.get(5, TimeUnit.SECONDS);
+        // the connection went back to the pool and is reused
+        restClient.get().uri("/fast").retrieve().toBodilessEntity();
+    }
+
+    @Test
+    void calls_recordLatencyTimer() {
+        restClient.get().uri("/fast").retrieve().toBodilessEntity();
+        restClient.get().uri("/fast").retrieve().toBodilessEntity();
+
+        assertEquals(2, meterRegistry.get("http.client.requests").tag("uri", "/fast").timer().count());
+        assertEquals(10.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+}
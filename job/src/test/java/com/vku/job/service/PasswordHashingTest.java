@@ -0,0 +1,104 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import com.vku.job.services.auth.AdaptiveBCryptPasswordEncoder;
+import com.vku.job.services.auth.OtpHasher;
+
+public class PasswordHashingTest {
+    private static final String KEY = "c2VjcmV0LWtleS1mb3ItdGhlLXRlc3RzLTEyMzQ1Njc4";
+
+    private static DelegatingPasswordEncoder delegating(int cost) {
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // ======== BCRYPT ========
+
+    @Test
+    void encode_prefixedWithCost() {
+        String hash = delegating(5).encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(delegating(5).matches("secret", hash));
+        assertFalse(delegating(5).upgradeEncoding(hash));
+    }
+
+    @Test
+    void legacyUnprefixedHash_matchesAndNeedsUpgrade() {
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertTrue(delegating(5).matches("secret", legacy));
+        assertTrue(delegating(5).upgradeEncoding(legacy));
+    }
+
+    @Test
+    void lowerCost_needsUpgrade_higherCostKept() {
+        assertTrue(delegating(6).upgradeEncoding(delegating(4).encode("secret")));
+        // a stronger hash from an instance on faster hardware is not downgraded
+        assertFalse(delegating(4).upgradeEncoding(delegating(6).encode("secret")));
+        assertFalse(delegating(6).upgradeEncoding(delegating(6).encode("secret")));
+        // an old hash still verifies before it is replaced
+        assertTrue(delegating(6).matches("secret", delegating(4).encode("secret")));
+    }
+
+    @Test
+    void costOf_parsesBcryptHashes() {
+        assertEquals(10, AdaptiveBCryptPasswordEncoder.costOf("$2a$10$wS8O4NGVlcWEUbHXMAUOH.jiwYekFSyHC5ooJJ4/3sOf7Mbx/Hxdu"));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf("plain"));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf(null));
+    }
+
+    @Test
+    void calibrate_staysWithinBounds() {
+        assertEquals(4, AdaptiveBCryptPasswordEncoder.calibrate(0, 4, 6));
+        assertEquals(6, AdaptiveBCryptPasswordEncoder.calibrate(60_000, 4, 6));
+    }
+
+    // ======== OTP HMAC ========
+
+    @Test
+    void otp_matchesOnlySameEmailAndCode() {
+        OtpHasher hasher = new OtpHasher(KEY);
+        String hash = hasher.hash("a@gmail.com", "123456");
+
+        assertTrue(hasher.matches("a@gmail.com", "123456", hash));
+        assertTrue(hasher.matches("A@gmail.com", "123456", hash));
+        assertFalse(hasher.matches("a@gmail.com", "654321", hash));
+        assertFalse(hasher.matches("b@gmail.com", "123456", hash));
+        assertFalse(hasher.matches("a@gmail.com", "123456", null));
+    }
+
+    @Test
+    void otp_dependsOnKey() {
+        OtpHasher other = new OtpHasher("b3RoZXIta2V5LW90aGVyLWtleS1vdGhlci1rZXktMTIzNA==");
+
+        assertNotEquals(new OtpHasher(KEY).hash("a@gmail.com", "123456"), other.hash("a@gmail.com", "123456"));
+        assertFalse(other.matches("a@gmail.com", "123456", new OtpHasher(KEY).hash("a@gmail.com", "123456")));
+    }
+
+    // no random fallback key: codes must verify across restarts and instances
+    @Test
+    void otp_missingKey_failsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new OtpHasher("", null));
+        assertThrows(IllegalStateException.class, () -> new OtpHasher(" ", " "));
+    }
+
+    @Test
+    void otp_keyFromEnvFile_whenPropertyBlank() {
+        assertEquals(new OtpHasher(KEY).hash("a@gmail.com", "123456"),
+                new OtpHasher("", KEY).hash("a@gmail.com", "123456"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+
+import com.vku.job.dtos.task.ExportJobResponseDto;
+import com.vku.job.dtos.task.TaskResponseDto;
+import com.vku.job.enums.ExportJobStatus;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.services.TaskService;
+import com.vku.job.services.export.CsvTaskExporter;
+import com.vku.job.services.export.ExportJob;
+import com.vku.job.services.export.TaskExportJobService;
+import com.vku.job.services.export.TaskExporterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskExportJobServiceTest {
+    @Mock
+    private TaskService taskService;
+
+    @TempDir
+    private Path exportDir;
+
+    private final TaskExporterRegistry registry = new TaskExporterRegistry(List.of(new CsvTaskExporter()));
+
+    private TaskExportJobService service(Duration ttl) {
+        return new TaskExportJobService(taskService, registry, new SyncTaskExecutor(), exportDir, ttl);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTasks(Long userId, TaskResponseDto... tasks) {
+        when(taskService.countTasksForExport(userId)).thenReturn((long) tasks.length);
+        doAnswer(invocation -> {
+            ((Consumer<Stream<TaskResponseDto>>) invocation.getArgument(1)).accept(Stream.of(tasks));
+            return null;
+        }).when(taskService).streamTasksForExport(eq(userId), any());
+    }
+
+    private TaskResponseDto task(long id) {
+        return TaskResponseDto.builder().id(id).title("Task " + id).status("OPEN").build();
+    }
+
+    // Export job - runs to completion and writes the file
+    @Test
+    void submit_writesFileAndReportsProgress() throws Exception {
+        givenTasks(7L, task(1), task(2), task(3));
+        TaskExportJobService service = service(Duration.ofMinutes(60));
+
+        ExportJob job = service.submit(7L, 7L, "csv");
+        ExportJobResponseDto dto = service.getJob(job.getId(), 7L).toDto();
+
+        assertEquals(ExportJobStatus.DONE, dto.getStatus());
+        assertEquals(3, dto.getRowsWritten());
+        assertEquals(3, dto.getTotalRows());
+        assertEquals(100, dto.getPercent());
+
+        List<String> lines = Files.readAllLines(job.getFile(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(1).startsWith("1,Task 1,OPEN"));
+        assertEquals(job.getFile(), service.getFinishedJob(job.getId(), 7L).getFile());
+    }
+
+    // Export job - failure is recorded and no partial file is left behind
+    @Test
+    void submit_failure_marksJobFailed() throws Exception {
+        when(taskService.countTasksForExport(null)).thenReturn(10L);
+        doThrow(new IllegalStateException("db down")).when(taskService).streamTasksForExport(eq(null), any());
+        TaskExportJobService service = service(Duration.ofMinutes(60));
+
+        ExportJob job = service.submit(1L, null, "csv");
+
+        assertEquals(ExportJobStatus.FAILED, job.getStatus());
+        assertEquals("db down", job.getError());
+        try (Stream<Path> files = Files.list(exportDir)) {
+            assertEquals(0, files.count());
+        }
+        HttpException ex = assertThrows(HttpException.class, () -> service.getFinishedJob(job.getId(), 1L));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+    }
+
+    // Export job - not visible to other users
+    @Test
+    void getJob_otherOwner_notFound() {
+        givenTasks(7L, task(1));
+        TaskExportJobService service = service(Duration.ofMinutes(60));
+        ExportJob job = service.submit(7L, 7L, "csv");
+
+        HttpException ex = assertThrows(HttpException.class, () -> service.getJob(job.getId(), 8L));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+    }
+
+    // Export job - full queue is rejected with 429
+    @Test
+    void submit_queueFull_tooManyRequests() {
+        TaskExportJobService service = new TaskExportJobService(taskService, registry, task -> {
+            throw new TaskRejectedException("queue full");
+        }, exportDir, Duration.ofMinutes(60));
+
+        HttpException ex = assertThrows(HttpException.class, () -> service.submit(1L, null, "csv"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+    }
+
+    // Export job - expired jobs and their files are removed
+    @Test
+    void cleanupExpiredJobs_removesJobAndFile() {
+        givenTasks(7L, task(1));
+        // negative TTL: every finished job is already expired
+        TaskExportJobService service = service(Duration.ofMinutes(-1));
+        ExportJob job = service.submit(7L, 7L, "csv");
+        assertTrue(Files.exists(job.getFile()));
+
+        service.cleanupExpiredJobs();
+
+        assertFalse(Files.exists(job.getFile()));
+        assertThrows(HttpException.class, () -> service.getJob(job.getId(), 7L));
+    }
+}
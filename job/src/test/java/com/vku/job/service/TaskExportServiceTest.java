@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -90,4 +93,30 @@ public class TaskExportServiceTest {
         }
     }
 
+    // Task export to Excel - stream larger than the in-memory row window
+    @Test
+    void writeTasksToExcel_streamBeyondRowWindow() throws Exception {
+        Stream<TaskResponseDto> tasks = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> TaskResponseDto.builder()
+                        .id(id)
+                        .title("Task " + id)
+                        .status("OPEN")
+                        .build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.writeTasksToExcel(tasks, out);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Tasks");
+            assertEquals(1000, sheet.getLastRowNum());
+
+            Row first = sheet.getRow(1);
+            assertEquals("Task 1", first.getCell(1).getStringCellValue());
+
+            Row last = sheet.getRow(1000);
+            assertEquals(1000L, (long) last.getCell(0).getNumericCellValue());
+            assertEquals("Task 1000", last.getCell(1).getStringCellValue());
+        }
+    }
+
 }
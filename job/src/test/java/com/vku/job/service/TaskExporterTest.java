@@ -0,0 +1,115 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vku.job.dtos.task.TaskResponseDto;
+import com.vku.job.services.TaskExportService;
+import com.vku.job.services.export.CsvTaskExporter;
+import com.vku.job.services.export.NdjsonTaskExporter;
+import com.vku.job.services.export.TaskExporter;
+import com.vku.job.services.export.TaskExporterRegistry;
+
+public class TaskExporterTest {
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build();
+
+    private final CsvTaskExporter csvExporter = new CsvTaskExporter();
+
+    private final NdjsonTaskExporter ndjsonExporter = new NdjsonTaskExporter(objectMapper);
+
+    private TaskResponseDto task() {
+        return TaskResponseDto.builder()
+                .id(1L)
+                .title("Report, \"Q1\"")
+                .status("OPEN")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .assignedUserId(7L)
+                .assignedFullName("Nguyen Van A")
+                .createdAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .build();
+    }
+
+    private String export(TaskExporter exporter, TaskResponseDto... tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(Stream.of(tasks), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // ====== CSV EXPORT TESTS ======
+
+    // csv export - header and quoted row
+    @Test
+    void csv_writesHeaderAndEscapesFields() {
+        String csv = export(csvExporter, task());
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals("ID,Title,Status,Deadline,Assigned User ID,Assigned User,Created At", lines[0]);
+        assertEquals("1,\"Report, \"\"Q1\"\"\",OPEN,2025-01-01,7,Nguyen Van A,2025-01-01 10:00:00", lines[1]);
+    }
+
+    // csv export - null fields become empty columns
+    @Test
+    void csv_nullFields_emptyColumns() {
+        TaskResponseDto task = TaskResponseDto.builder().id(2L).title("No Assign").status("DONE").build();
+
+        String csv = export(csvExporter, task);
+
+        assertEquals("2,No Assign,DONE,,,,", csv.split("\r\n")[1]);
+    }
+
+    // ====== NDJSON EXPORT TESTS ======
+
+    // ndjson export - one object per line with ISO dates
+    @Test
+    void ndjson_writesOneObjectPerLine() throws Exception {
+        String ndjson = export(ndjsonExporter, task(), task());
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("Report, \"Q1\"", first.get("title").asText());
+        assertEquals("2025-01-01", first.get("deadline").asText());
+        assertEquals("2025-01-01T10:00:00", first.get("createdAt").asText());
+    }
+
+    // ====== EXPORTER REGISTRY TESTS ======
+
+    // registry - resolves format case-insensitively
+    @Test
+    void registry_resolvesFormat() {
+        TaskExportService excelExporter = new TaskExportService();
+        TaskExporterRegistry registry = new TaskExporterRegistry(List.of(excelExporter, csvExporter, ndjsonExporter));
+
+        assertSame(csvExporter, registry.get("CSV"));
+        assertSame(ndjsonExporter, registry.get("ndjson"));
+        assertSame(excelExporter, registry.get("xlsx"));
+    }
+
+    // registry - unknown format is rejected
+    @Test
+    void registry_unknownFormat_throwException() {
+        TaskExporterRegistry registry = new TaskExporterRegistry(List.of(csvExporter));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> registry.get("pdf"));
+        assertEquals("Unsupported export format: pdf", ex.getMessage());
+    }
+}
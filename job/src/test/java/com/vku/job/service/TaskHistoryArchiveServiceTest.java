@@ -0,0 +1,83 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
+import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.services.history.TaskHistoryArchiveService;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskHistoryArchiveServiceTest {
+
+    @Mock
+    private TaskHistoryJpaRepository taskHistoryRepository;
+
+    @Mock
+    private TaskHistoryArchiveJpaRepository archiveRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime before = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private TaskHistoryArchiveService service(boolean enabled) {
+        return new TaskHistoryArchiveService(taskHistoryRepository, archiveRepository, transactionTemplate,
+                enabled, 180, 2);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // run each chunk callback directly, as if inside its own transaction
+        Mockito.lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    // chunks are moved until no entry older than the cutoff is left
+    @Test
+    void archiveOlderThan_movesChunksUntilEmpty() {
+        Mockito.when(taskHistoryRepository.findArchiveChunkEnd(before, 2)).thenReturn(2L, 4L, 5L, null);
+        Mockito.when(archiveRepository.copyFromHistory(any(), eq(before), any())).thenReturn(2, 2, 1);
+        Mockito.when(taskHistoryRepository.deleteArchived(any(), eq(before))).thenReturn(2, 2, 1);
+
+        int archived = service(true).archiveOlderThan(before);
+
+        assertEquals(5, archived);
+        verify(taskHistoryRepository).deleteArchived(5L, before);
+    }
+
+    // copy and delete disagree - the chunk fails instead of losing rows
+    @Test
+    void archiveOlderThan_countMismatch_throws() {
+        Mockito.when(taskHistoryRepository.findArchiveChunkEnd(before, 2)).thenReturn(2L);
+        Mockito.when(archiveRepository.copyFromHistory(eq(2L), eq(before), any())).thenReturn(2);
+        Mockito.when(taskHistoryRepository.deleteArchived(2L, before)).thenReturn(1);
+
+        TaskHistoryArchiveService service = service(true);
+        assertThrows(IllegalStateException.class,
+                () -> service.archiveOlderThan(before));
+    }
+
+    // disabled - the scheduled run does nothing
+    @Test
+    void archive_disabled_doesNothing() {
+        service(false).archive();
+
+        verify(transactionTemplate, never()).execute(any());
+    }
+}
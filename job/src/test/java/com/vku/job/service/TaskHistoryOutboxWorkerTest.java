@@ -0,0 +1,116 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vku.job.services.history.TaskHistoryOutboxWorker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TaskHistoryOutboxWorkerTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Runnable> submitted = new ArrayList<>();
+    private TaskHistoryOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TaskHistoryWriterTest.createTables(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new TaskHistoryOutboxWorker(jdbcTemplate, transactionTemplate, submitted::add, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    private void outbox(long taskId, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO task_history_outbox (task_id, updated_by, old_data, new_data, createddate)
+                VALUES (?, 9, '{}', '{"title":"New"}', ?)
+                """, taskId, Timestamp.valueOf(createdAt));
+    }
+
+    // batches of batch-size rows until the outbox is empty, oldest first, timestamps kept
+    @Test
+    void drain_movesEveryRowInBatches() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+        for (long taskId = 1; taskId <= 5; taskId++) {
+            outbox(taskId, createdAt.plusSeconds(taskId));
+        }
+
+        worker.drain();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_history_outbox", Integer.class));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                jdbcTemplate.queryForList("SELECT task_id FROM task_history ORDER BY id", Long.class));
+        assertEquals(Timestamp.valueOf(createdAt.plusSeconds(1)), jdbcTemplate.queryForObject(
+                "SELECT updateddate FROM task_history WHERE task_id = 1", Timestamp.class));
+        assertEquals(5, meterRegistry.get("task.history.written").counter().count());
+        assertEquals(3, meterRegistry.get("task.history.batch.rows").summary().count());
+        assertEquals(0, meterRegistry.get("task.history.outbox.backlog").gauge().value());
+    }
+
+    // a failed move keeps the rows for the next poll
+    @Test
+    void drain_moveFails_rowsStayInOutbox() {
+        outbox(1L, LocalDateTime.now());
+        jdbcTemplate.execute("DROP TABLE task_history");
+
+        worker.drain();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_history_outbox", Integer.class));
+    }
+
+    // commits arriving while a drain is queued share it
+    @Test
+    void wakeUp_coalescesUntilDrainStarts() {
+        worker.wakeUp();
+        worker.wakeUp();
+        assertEquals(1, submitted.size());
+
+        submitted.get(0).run();
+        worker.wakeUp();
+        assertEquals(2, submitted.size());
+    }
+
+    // a saturated executor never fails the commit; the poll picks the rows up
+    @Test
+    void wakeUp_rejected_leftToPoll() {
+        AtomicInteger attempts = new AtomicInteger();
+        TaskHistoryOutboxWorker saturated = new TaskHistoryOutboxWorker(jdbcTemplate, transactionTemplate,
+                task -> {
+                    attempts.incrementAndGet();
+                    throw new RejectedExecutionException();
+                }, meterRegistry, 2);
+
+        saturated.wakeUp();
+        saturated.wakeUp();
+
+        // nothing stays marked as pending after a rejection
+        assertEquals(2, attempts.get());
+    }
+}
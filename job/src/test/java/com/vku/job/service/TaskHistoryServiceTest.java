@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -15,15 +16,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vku.job.dtos.PaginatedResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryDetailResponseDto;
 import com.vku.job.dtos.task_history.TaskHistoryResponse;
+import com.vku.job.dtos.task_history.TaskHistoryStateResponseDto;
 import com.vku.job.entities.Role;
+import com.vku.job.entities.Task;
 import com.vku.job.entities.TaskHistory;
+import com.vku.job.entities.TaskHistoryArchive;
 import com.vku.job.entities.User;
 import com.vku.job.entities.UserProfile;
+import com.vku.job.enums.TaskStatus;
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
 import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.TaskHistoryListProjection;
 import com.vku.job.services.TaskHistoryService;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +49,18 @@ public class TaskHistoryServiceTest {
     @Mock
     private TaskHistoryJpaRepository taskHistoryJpaRepository;
 
+    @Mock
+    private TaskHistoryArchiveJpaRepository taskHistoryArchiveRepository;
+
+    @Mock
+    private TaskJpaRepository taskJpaRepository;
+
+    @Mock
+    private UserJpaRepository userJpaRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private TaskHistoryService taskHistoryService;
 
@@ -142,87 +171,201 @@ public class TaskHistoryServiceTest {
 
         assertEquals("Task history not found", ex.getMessage());
     }
-    // ====== END GET TASK HISTORY DETAIL BY ID ======
-
-    // ====== GET SIMPLE TASK HISTORIES BY TASK ID ======
 
-    // success
+    // moved to the archive - read from there, updater looked up by id
     @Test
-    void getSimpleTaskHistoriesByTaskId_success_fullData() {
-        // ===== Arrange =====
+    void getTaskHistoriesDetailById_archived() {
         UserProfile profile = new UserProfile();
         profile.setFullName("Nguyen Van A");
-
         User updater = new User();
         updater.setProfile(profile);
 
-        TaskHistory history = new TaskHistory();
-        history.setId(1L);
-        history.setUpdatedBy(updater);
-        history.setUpdatedAt(LocalDateTime.now());
+        TaskHistoryArchive archived = new TaskHistoryArchive();
+        archived.setId(1L);
+        archived.setTaskId(10L);
+        archived.setUpdatedById(5L);
+        archived.setOldData("{\"title\":\"Old\"}");
+        archived.setNewData("{\"title\":\"New\"}");
+        archived.setUpdatedAt(LocalDateTime.now().minusYears(1));
+
+        Mockito.when(taskHistoryJpaRepository.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(taskHistoryArchiveRepository.findById(1L)).thenReturn(Optional.of(archived));
+        Mockito.when(userJpaRepository.findById(5L)).thenReturn(Optional.of(updater));
 
-        Mockito.when(taskHistoryJpaRepository.findByTaskId(10L))
-                .thenReturn(List.of(history));
+        TaskHistoryDetailResponseDto dto = taskHistoryService.getTaskHistoriesDetailById(1L);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("Nguyen Van A", dto.getUpdatedByName());
+        assertEquals("{\"title\":\"New\"}", dto.getNewData());
+        assertEquals(archived.getUpdatedAt(), dto.getUpdatedAt());
+    }
+    // ====== END GET TASK HISTORY DETAIL BY ID ======
+
+    // ====== GET SIMPLE TASK HISTORIES BY TASK ID ======
+
+    // list rows come from the projection query, built here from plain values
+    private TaskHistoryListProjection row(Long id, String updatedByName, LocalDateTime updatedAt) {
+        return new TaskHistoryListProjection() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getUpdatedByName() {
+                return updatedByName;
+            }
+
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+
+    // success - newest first, with totals
+    @Test
+    void getSimpleTaskHistoriesByTaskId_success_fullData() {
+        // ===== Arrange =====
+        Pageable pageable = PageRequest.of(0, 20);
+        Mockito.when(taskHistoryJpaRepository.findHistoryListByTaskId(10L, pageable))
+                .thenReturn(new PageImpl<>(List.of(row(1L, "Nguyen Van A", LocalDateTime.now())), pageable, 1));
 
         // ===== Act =====
-        List<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L);
+        PaginatedResponseDto<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L, 0,
+                20, true);
 
         // ===== Assert =====
-        assertEquals(1, result.size());
+        assertEquals(1, result.getData().size());
+        assertEquals(1, result.getTotalElements());
 
-        TaskHistoryResponse dto = result.get(0);
+        TaskHistoryResponse dto = result.getData().get(0);
         assertEquals(1L, dto.getId());
         assertEquals("Nguyen Van A", dto.getUpdateBy());
         assertNotNull(dto.getUpdatedAt());
     }
 
-    // updatedBy is null
+    // updater without profile - name is null
     @Test
-    void getSimpleTaskHistoriesByTaskId_updatedByNull() {
-        TaskHistory history = new TaskHistory();
-        history.setId(1L);
-        history.setUpdatedBy(null);
-        history.setUpdatedAt(LocalDateTime.now());
+    void getSimpleTaskHistoriesByTaskId_updatedByNameNull() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Mockito.when(taskHistoryJpaRepository.findHistoryListByTaskId(10L, pageable))
+                .thenReturn(new PageImpl<>(List.of(row(1L, null, LocalDateTime.now())), pageable, 1));
 
-        Mockito.when(taskHistoryJpaRepository.findByTaskId(10L))
-                .thenReturn(List.of(history));
+        PaginatedResponseDto<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L, 0,
+                20, true);
 
-        List<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L);
+        assertEquals(1, result.getData().size());
+        assertNull(result.getData().get(0).getUpdateBy());
+    }
 
-        assertEquals(1, result.size());
-        assertNull(result.get(0).getUpdateBy());
+    // without total - slice query, no count
+    @Test
+    void getSimpleTaskHistoriesByTaskId_withoutTotal_usesSlice() {
+        Pageable pageable = PageRequest.of(1, 2);
+        Mockito.when(taskHistoryJpaRepository.findHistoryListSliceByTaskId(10L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(row(3L, "A", LocalDateTime.now()), row(2L, "B",
+                        LocalDateTime.now())), pageable, true));
+
+        PaginatedResponseDto<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L, 1,
+                2, false);
+
+        assertEquals(2, result.getData().size());
+        assertEquals(-1, result.getTotalElements());
+        assertTrue(result.isHasNext());
+        assertTrue(result.isHasPrevious());
+        Mockito.verify(taskHistoryJpaRepository, Mockito.never()).findHistoryListByTaskId(Mockito.any(),
+                Mockito.any());
     }
 
-    // profile is null
+    // empty list
     @Test
-    void getSimpleTaskHistoriesByTaskId_profileNull() {
-        User updater = new User();
-        updater.setProfile(null);
+    void getSimpleTaskHistoriesByTaskId_emptyList() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Mockito.when(taskHistoryJpaRepository.findHistoryListByTaskId(10L, pageable))
+                .thenReturn(Page.empty(pageable));
 
-        TaskHistory history = new TaskHistory();
-        history.setId(1L);
-        history.setUpdatedBy(updater);
-        history.setUpdatedAt(LocalDateTime.now());
+        PaginatedResponseDto<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L, 0,
+                20, true);
 
-        Mockito.when(taskHistoryJpaRepository.findByTaskId(10L))
-                .thenReturn(List.of(history));
+        assertNotNull(result);
+        assertTrue(result.getData().isEmpty());
+    }
 
-        List<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L);
+    // ====== TASK STATE AT HISTORY ENTRY ======
 
-        assertEquals(1, result.size());
-        assertNull(result.get(0).getUpdateBy());
+    // rebuilds the task by undoing newer diffs; a legacy full snapshot reads the same way
+    @Test
+    void getTaskStateAt_undoesNewerEntries() {
+        User user = new User();
+        user.setId(5L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Title v3");
+        task.setDescription("Long description");
+        task.setStatus(TaskStatus.DONE);
+        task.setDeadline(LocalDate.of(2026, 3, 1));
+        task.setAssignedUser(user);
+
+        // entry 10: full snapshot written before diffs; entry 11: title and status; entry 12: title
+        TaskHistory history = new TaskHistory();
+        history.setId(10L);
+        history.setTask(task);
+        history.setOldData("""
+                {"id":1,"title":"Title v0","description":"Long description","allowUserUpdate":true,
+                 "status":"OPEN","deadline":[2026,2,1],"assignedUserId":null}""");
+
+        Mockito.when(taskHistoryJpaRepository.findById(10L)).thenReturn(Optional.of(history));
+        Mockito.when(taskHistoryJpaRepository.findOldDataAfter(1L, 10L)).thenReturn(List.of(
+                "{\"title\":\"Title v2\"}",
+                "{\"title\":\"Title v1\",\"status\":\"IN_PROGRESS\"}"));
+
+        TaskHistoryStateResponseDto state = taskHistoryService.getTaskStateAt(10L);
+
+        assertEquals("Title v1", state.getAfter().getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, state.getAfter().getStatus());
+        assertEquals(LocalDate.of(2026, 3, 1), state.getAfter().getDeadline());
+        assertEquals(5L, state.getAfter().getAssignedUserId());
+        assertEquals("Long description", state.getAfter().getDescription());
+
+        assertEquals("Title v0", state.getBefore().getTitle());
+        assertEquals(TaskStatus.OPEN, state.getBefore().getStatus());
+        assertEquals(LocalDate.of(2026, 2, 1), state.getBefore().getDeadline());
+        assertNull(state.getBefore().getAssignedUserId());
     }
 
-    // empty list
+    // archived entry - newer hot entries are undone first, then newer archived ones
     @Test
-    void getSimpleTaskHistoriesByTaskId_emptyList() {
-        Mockito.when(taskHistoryJpaRepository.findByTaskId(10L))
-                .thenReturn(List.of());
+    void getTaskStateAt_archived() {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Title v3");
+        task.setStatus(TaskStatus.DONE);
+
+        TaskHistoryArchive archived = new TaskHistoryArchive();
+        archived.setId(10L);
+        archived.setTaskId(1L);
+        archived.setOldData("{\"title\":\"Title v0\"}");
+
+        Mockito.when(taskHistoryJpaRepository.findById(10L)).thenReturn(Optional.empty());
+        Mockito.when(taskHistoryArchiveRepository.findById(10L)).thenReturn(Optional.of(archived));
+        Mockito.when(taskJpaRepository.findById(1L)).thenReturn(Optional.of(task));
+        Mockito.when(taskHistoryJpaRepository.findOldDataAfter(1L, 10L))
+                .thenReturn(List.of("{\"title\":\"Title v2\",\"status\":\"IN_PROGRESS\"}"));
+        Mockito.when(taskHistoryArchiveRepository.findOldDataAfter(1L, 10L))
+                .thenReturn(List.of("{\"title\":\"Title v1\"}"));
+
+        TaskHistoryStateResponseDto state = taskHistoryService.getTaskStateAt(10L);
+
+        assertEquals("Title v1", state.getAfter().getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, state.getAfter().getStatus());
+        assertEquals("Title v0", state.getBefore().getTitle());
+    }
 
-        List<TaskHistoryResponse> result = taskHistoryService.getSimpleTaskHistoriesByTaskId(10L);
+    // unknown history entry
+    @Test
+    void getTaskStateAt_notFound() {
+        Mockito.when(taskHistoryJpaRepository.findById(99L)).thenReturn(Optional.empty());
 
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-    }
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> taskHistoryService.getTaskStateAt(99L));
 
+        assertEquals("Task history not found", ex.getMessage());
+    }
 }
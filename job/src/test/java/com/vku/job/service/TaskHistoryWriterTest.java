@@ -0,0 +1,148 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vku.job.services.history.TaskHistoryEvent;
+import com.vku.job.services.history.TaskHistoryOutboxWorker;
+import com.vku.job.services.history.TaskHistoryWriter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// History goes to the outbox in the updating transaction, task_history is filled after the commit
+public class TaskHistoryWriterTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Runnable> wakeUps = new ArrayList<>();
+    private TaskHistoryWriter writer;
+
+    static void createTables(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+                CREATE TABLE task_history (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    task_id BIGINT NOT NULL,
+                    updated_by BIGINT NOT NULL,
+                    old_data VARCHAR(1000),
+                    new_data VARCHAR(1000),
+                    createddate TIMESTAMP,
+                    updateddate TIMESTAMP)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE task_history_outbox (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    task_id BIGINT NOT NULL,
+                    updated_by BIGINT NOT NULL,
+                    old_data VARCHAR(1000),
+                    new_data VARCHAR(1000),
+                    createddate TIMESTAMP NOT NULL)
+                """);
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        createTables(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        meterRegistry = new SimpleMeterRegistry();
+        writer = writer(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    // wake-ups are held back, so the tests see the outbox before the worker runs
+    private TaskHistoryWriter writer(JdbcTemplate outboxJdbc) {
+        TaskHistoryOutboxWorker worker = new TaskHistoryOutboxWorker(jdbcTemplate, transactionTemplate,
+                wakeUps::add, meterRegistry, 2);
+        return new TaskHistoryWriter(outboxJdbc, worker, meterRegistry, 2);
+    }
+
+    private static TaskHistoryEvent event(long taskId) {
+        return new TaskHistoryEvent(taskId, 9L, "{}", "{\"title\":\"New\"}", LocalDateTime.now());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static DataSource withoutOutboxTable() {
+        return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    }
+
+    // the transaction only writes the outbox; the worker, woken once after the commit, moves it
+    @Test
+    void enqueue_inTransaction_outboxOnCommitThenMoved() {
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.enqueue(event(1L));
+            writer.enqueueAll(List.of(event(2L), event(3L)));
+            assertEquals(0, count("task_history_outbox"));
+        });
+
+        assertEquals(3, count("task_history_outbox"));
+        assertEquals(0, count("task_history"));
+        assertEquals(3, meterRegistry.get("task.history.queued").counter().count());
+        assertEquals(1, wakeUps.size());
+
+        wakeUps.get(0).run();
+
+        assertEquals(0, count("task_history_outbox"));
+        assertEquals(3, count("task_history"));
+    }
+
+    // a rolled back update leaves no history and wakes nobody
+    @Test
+    void enqueue_rolledBack_nothingWritten() {
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.enqueue(event(1L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count("task_history_outbox"));
+        assertEquals(0, wakeUps.size());
+    }
+
+    // the outbox insert runs before the commit: if it fails the update is rolled back with it
+    @Test
+    void enqueue_insertFails_transactionRolledBack() {
+        jdbcTemplate.execute("CREATE TABLE task (id BIGINT PRIMARY KEY)");
+        writer = writer(new JdbcTemplate(withoutOutboxTable()));
+
+        assertThrows(DataAccessException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO task (id) VALUES (1)");
+            writer.enqueue(event(1L));
+        }));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", Integer.class));
+    }
+
+    @Test
+    void enqueue_outsideTransaction_writtenNow() {
+        writer.enqueueAll(List.of(event(1L), event(2L), event(3L)));
+
+        assertEquals(3, count("task_history_outbox"));
+        assertEquals(1, wakeUps.size());
+    }
+}
@@ -0,0 +1,206 @@
+package com.vku.job.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+
+import com.vku.job.dtos.task.CreateTaskRequestDto;
+import com.vku.job.dtos.task.TaskImportResponseDto;
+import com.vku.job.entities.Task;
+import com.vku.job.entities.User;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.UserLookupProjection;
+import com.vku.job.services.TaskService;
+import com.vku.job.services.imports.CsvTaskRowReader;
+import com.vku.job.services.imports.TaskImportService;
+import com.vku.job.services.imports.XlsxTaskRowReader;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TaskImportServiceTest {
+    private static final String DEADLINE = LocalDate.now().plusDays(7).toString();
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private UserJpaRepository userRepository;
+
+    @TempDir
+    private Path dir;
+
+    // size of every chunk handed to insertTasks (the list is reused after the call)
+    private final List<Integer> chunks = new ArrayList<>();
+
+    private TaskImportService importService(int chunkSize) {
+        return new TaskImportService(taskService, userRepository,
+                List.of(new CsvTaskRowReader(), new XlsxTaskRowReader()), chunkSize, 100);
+    }
+
+    private static UserLookupProjection user(Long id, String username, String fullName) {
+        return new UserLookupProjection() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public String getFullName() {
+                return fullName;
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(userRepository.findAllForLookup()).thenReturn(List.of(
+                user(1L, "nhan", "Nhan Pham"),
+                user(2L, "an", "Tran An"),
+                user(3L, "an2", "Tran An")));
+        Mockito.when(userRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+        Mockito.when(taskService.newTask(any(), any(), any())).thenAnswer(invocation -> {
+            CreateTaskRequestDto request = invocation.getArgument(0);
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDeadline(request.getDeadline());
+            task.setAssignedUser(invocation.getArgument(1));
+            task.setCreatedAt(invocation.<LocalDateTime>getArgument(2));
+            return task;
+        });
+        Mockito.doAnswer(invocation -> {
+            chunks.add(invocation.<List<Task>>getArgument(0).size());
+            return null;
+        }).when(taskService).insertTasks(any());
+    }
+
+    private Path csv(String content) throws Exception {
+        Path file = dir.resolve("tasks.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // csv - valid rows inserted in chunks, bad rows reported with their row number
+    @Test
+    void importCsv_chunksAndReportsErrors() throws Exception {
+        Path file = csv("Title,Deadline,Assignee,Status\r\n"
+                + "Task A," + DEADLINE + ",nhan,open\r\n"
+                + "\"Task, quoted\"," + DEADLINE + ",Nhan Pham,DONE\r\n"
+                + "Task C,next week,nhan,OPEN\r\n"
+                + ",,,\r\n"
+                + "Task D," + DEADLINE + ",Tran An,OPEN\r\n"
+                + "Task E," + DEADLINE + ",nobody,OPEN\r\n"
+                + "Task F," + DEADLINE + ",an,OPEN\r\n");
+
+        TaskImportResponseDto report = importService(2).importTasks(new CsvTaskRowReader(), file);
+
+        assertEquals(6, report.getTotalRows());
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2, 1), chunks);
+        assertEquals(4, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getError().startsWith("Invalid deadline"));
+        assertEquals(6, report.getErrors().get(1).getRow());
+        assertTrue(report.getErrors().get(1).getError().startsWith("Several users"));
+        assertEquals("Unknown assignee 'nobody'", report.getErrors().get(2).getError());
+        assertFalse(report.isErrorsTruncated());
+        verify(userRepository, times(1)).findAllForLookup();
+    }
+
+    // csv - a file without a required column is rejected before any insert
+    @Test
+    void importCsv_missingColumn_throws() throws Exception {
+        Path file = csv("Title,Assignee\nTask A,nhan\n");
+
+        HttpException ex = assertThrows(HttpException.class,
+                () -> importService(10).importTasks(new CsvTaskRowReader(), file));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        assertEquals("Missing column: deadline", ex.getMessage());
+        verify(taskService, Mockito.never()).insertTasks(any());
+    }
+
+    // xlsx - read with the SAX reader, date cells come out as ISO dates
+    @Test
+    void importXlsx_readsDateCells() throws Exception {
+        Path file = dir.resolve("tasks.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Tasks");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Title");
+            header.createCell(1).setCellValue("Description");
+            header.createCell(2).setCellValue("Deadline");
+            header.createCell(3).setCellValue("Assigned User");
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Task A");
+            // description left blank: the cell is missing from the sheet XML
+            row.createCell(2).setCellValue(LocalDate.parse(DEADLINE));
+            row.getCell(2).setCellStyle(dateStyle);
+            row.createCell(3).setCellValue("nhan");
+            workbook.write(out);
+        }
+
+        TaskImportResponseDto report = importService(10).importTasks(new XlsxTaskRowReader(), file);
+
+        assertEquals(1, report.getImported());
+        assertEquals(0, report.getFailed());
+    }
+
+    // csv - 100k rows stream through in fixed-size chunks
+    @Test
+    void importCsv_largeFile_boundedChunks() throws Exception {
+        Path file = dir.resolve("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Title,Deadline,Assignee\n");
+            for (int i = 0; i < 100_000; i++) {
+                writer.write("Task " + i + "," + DEADLINE + ",nhan\n");
+            }
+        }
+
+        TaskImportResponseDto report = importService(1000).importTasks(new CsvTaskRowReader(), file);
+
+        assertEquals(100_000, report.getImported());
+        assertEquals(100, chunks.size());
+        assertTrue(chunks.stream().allMatch(size -> size == 1000));
+        verify(userRepository, times(1)).getReferenceById(1L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.vku.job.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.vku.job.config.TaskSearchIndexInitializer;
+
+// The FULLTEXT index is created on startup only when MySQL does not have it yet
+public class TaskSearchIndexInitializerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseMetaData metaData;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+    }
+
+    @Test
+    void run_mysqlWithoutIndex_createsIt() throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("ft_tasks_title_description")))
+                .thenReturn(0);
+
+        new TaskSearchIndexInitializer(jdbcTemplate).run(null);
+
+        verify(jdbcTemplate).execute(
+                "ALTER TABLE tasks ADD FULLTEXT INDEX ft_tasks_title_description (title, description)");
+    }
+
+    @Test
+    void run_indexExists_nothingAltered() throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("ft_tasks_title_description")))
+                .thenReturn(1);
+
+        new TaskSearchIndexInitializer(jdbcTemplate).run(null);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void run_otherDatabase_skipped() throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+
+        new TaskSearchIndexInitializer(jdbcTemplate).run(null);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
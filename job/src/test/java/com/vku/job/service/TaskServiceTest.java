@@ -1,10 +1,14 @@
 package com.vku.job.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -15,9 +19,15 @@ import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,29 +36,49 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vku.job.dtos.PaginatedResponseDto;
+import com.vku.job.dtos.task.BulkUpdateTaskRequestDto;
 import com.vku.job.dtos.task.CreateTaskRequestDto;
 import com.vku.job.dtos.task.FilterTaskRequestDto;
+import com.vku.job.dtos.task.TaskBatchResponseDto;
 import com.vku.job.dtos.task.TaskResponseDto;
 import com.vku.job.dtos.task.UpdateTaskByUserRequestDto;
 import com.vku.job.dtos.task.UpdateTaskRequestDto;
 import com.vku.job.dtos.task_history.UpdateTaskHistoryResponseDto;
 import com.vku.job.entities.Task;
-import com.vku.job.entities.TaskHistory;
 import com.vku.job.entities.User;
 import com.vku.job.entities.UserProfile;
 import com.vku.job.enums.TaskStatus;
-import com.vku.job.repositories.TaskHistoryJpaRepository;
+import com.vku.job.exceptions.HttpException;
+import com.vku.job.repositories.TaskHistoryArchiveJpaRepository;
 import com.vku.job.repositories.TaskJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
+import com.vku.job.repositories.projection.TaskListProjection;
+import com.vku.job.repositories.projection.TaskSearchProjection;
+import com.vku.job.services.TaskCursor;
 import com.vku.job.services.TaskService;
+import com.vku.job.services.history.TaskHistoryEvent;
+import com.vku.job.services.history.TaskHistoryWriter;
+import com.vku.job.services.statistics.StatisticsCache;
+import com.vku.job.services.statistics.TaskStatsService;
+
+import jakarta.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 public class TaskServiceTest {
@@ -65,7 +95,61 @@ public class TaskServiceTest {
     private ObjectMapper objectMapper;
 
     @Mock
-    private TaskHistoryJpaRepository taskHistoryRepository;
+    private TaskHistoryWriter taskHistoryWriter;
+
+    @Mock
+    private TaskHistoryArchiveJpaRepository taskHistoryArchiveRepository;
+
+    @Mock
+    private StatisticsCache statisticsCache;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private Validator validator;
+
+    // list queries return flat rows; build them from task fixtures
+    private TaskListProjection row(Task task) {
+        User user = task.getAssignedUser();
+        return new TaskListProjection() {
+            public Long getId() {
+                return task.getId();
+            }
+
+            public String getTitle() {
+                return task.getTitle();
+            }
+
+            public String getDescription() {
+                return task.getDescription();
+            }
+
+            public TaskStatus getStatus() {
+                return task.getStatus();
+            }
+
+            public LocalDate getDeadline() {
+                return task.getDeadline();
+            }
+
+            public boolean isAllowUserUpdate() {
+                return task.isAllowUserUpdate();
+            }
+
+            public Long getAssignedUserId() {
+                return user != null ? user.getId() : null;
+            }
+
+            public String getAssignedFullName() {
+                return user != null && user.getProfile() != null ? user.getProfile().getFullName() : null;
+            }
+
+            public LocalDateTime getCreatedAt() {
+                return task.getCreatedAt();
+            }
+        };
+    }
 
     @Test
     void convertToDto_withAssignedUser_success() {
@@ -172,6 +256,8 @@ public class TaskServiceTest {
         assertEquals("Nhan Pham", response.getAssignedFullName());
 
         verify(taskRepository).save(any(Task.class));
+        verify(taskStatsService).taskCreated(savedTask);
+        verify(statisticsCache).evictTask(savedTask.getCreatedAt(), 1L);
     }
 
     // add task - failure: assigned user not found
@@ -196,6 +282,112 @@ public class TaskServiceTest {
 
     // ======= END ADD TASK TEST =======
 
+    // ======= BATCH TASK TEST =======
+
+    // add tasks - one user lookup, one batch insert, failed items reported by index
+    @Test
+    void addTasks_reportsPerItemErrors() {
+        // given
+        ReflectionTestUtils.setField(taskService, "maxBatchSize", 10);
+        UserProfile profile = new UserProfile();
+        profile.setFullName("Nhan Pham");
+        User user = new User();
+        user.setId(1L);
+        user.setProfile(profile);
+
+        CreateTaskRequestDto valid = new CreateTaskRequestDto();
+        valid.setTitle("Task A");
+        valid.setStatus("OPEN");
+        valid.setAssignedUserId(1L);
+        CreateTaskRequestDto unknownUser = new CreateTaskRequestDto();
+        unknownUser.setTitle("Task B");
+        unknownUser.setAssignedUserId(2L);
+
+        Mockito.when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(user));
+        Mockito.doAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.get(0).setId(10L);
+            return null;
+        }).when(taskRepository).insertAll(any());
+
+        // when
+        TaskBatchResponseDto response = taskService.addTasks(Arrays.asList(valid, unknownUser, null));
+
+        // then
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(10L, response.getItems().get(0).getId());
+        assertEquals("Nhan Pham", response.getItems().get(0).getTask().getAssignedFullName());
+        assertEquals("User not found", response.getItems().get(1).getError());
+        assertEquals("Task is required", response.getItems().get(2).getError());
+
+        verify(userRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskStatsService).tasksCreated(any());
+    }
+
+    // add tasks - more items than the batch limit
+    @Test
+    void addTasks_tooManyItems() {
+        ReflectionTestUtils.setField(taskService, "maxBatchSize", 1);
+
+        HttpException ex = assertThrows(HttpException.class,
+                () -> taskService.addTasks(List.of(new CreateTaskRequestDto(), new CreateTaskRequestDto())));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(taskRepository, never()).insertAll(any());
+    }
+
+    // bulk update - tasks loaded in one query, history written as one batch
+    @Test
+    void bulkUpdateTasks_updatesFoundTasks() throws Exception {
+        // given
+        ReflectionTestUtils.setField(taskService, "maxBatchSize", 10);
+        Task task = new Task();
+        task.setId(10L);
+        task.setTitle("Task A");
+        task.setStatus(TaskStatus.OPEN);
+        task.setCreatedAt(LocalDateTime.now().minusDays(1));
+
+        BulkUpdateTaskRequestDto dto = new BulkUpdateTaskRequestDto();
+        dto.setIds(List.of(10L, 11L));
+        dto.setStatus("DONE");
+
+        Mockito.when(taskRepository.findByIdIn(List.of(10L, 11L))).thenReturn(List.of(task));
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("{\"status\":\"OPEN\"}",
+                "{\"status\":\"DONE\"}");
+
+        // when
+        TaskBatchResponseDto response = taskService.bulkUpdateTasks(dto, 9L);
+
+        // then
+        assertEquals(1, response.getSucceeded());
+        assertEquals(TaskStatus.DONE, task.getStatus());
+        assertEquals("Task not found", response.getItems().get(1).getError());
+        assertEquals(11L, response.getItems().get(1).getId());
+
+        ArgumentCaptor<List<TaskHistoryEvent>> histories = ArgumentCaptor.captor();
+        verify(taskHistoryWriter).enqueueAll(histories.capture());
+        assertEquals(1, histories.getValue().size());
+        assertEquals(9L, histories.getValue().get(0).updatedById());
+        verify(userRepository, never()).findById(any());
+        verify(taskStatsService).tasksChanged(any());
+        verify(statisticsCache).evictAll();
+    }
+
+    // bulk update - nothing to change
+    @Test
+    void bulkUpdateTasks_noFields_throws() {
+        BulkUpdateTaskRequestDto dto = new BulkUpdateTaskRequestDto();
+        dto.setIds(List.of(10L));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> taskService.bulkUpdateTasks(dto, 9L));
+
+        assertEquals("At least one field to update is required", ex.getMessage());
+    }
+
+    // ======= END BATCH TASK TEST =======
+
     // ======= GET ALL TASKS WITH PAGINATION =======
 
     // get all tasks with pagination - success
@@ -225,8 +417,8 @@ public class TaskServiceTest {
                 pageable,
                 1);
 
-        Mockito.when(taskRepository.findAll(any(Pageable.class)))
-                .thenReturn(taskPage);
+        Mockito.when(taskRepository.findTaskList(any(Pageable.class)))
+                .thenReturn(taskPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasks(0, 10, "title", "asc");
@@ -242,7 +434,7 @@ public class TaskServiceTest {
         assertEquals("Task A", dto.getTitle());
         assertEquals("Nhan Pham", dto.getAssignedFullName());
 
-        verify(taskRepository).findAll(any(Pageable.class));
+        verify(taskRepository).findTaskList(any(Pageable.class));
     }
 
     // get all tasks with pagination - success
@@ -268,8 +460,8 @@ public class TaskServiceTest {
                 List.of(task),
                 pageable,
                 1);
-        Mockito.when(taskRepository.findAll(any(Pageable.class)))
-                .thenReturn(taskPage);
+        Mockito.when(taskRepository.findTaskList(any(Pageable.class)))
+                .thenReturn(taskPage.map(this::row));
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasks(0,
                 10,
@@ -284,7 +476,7 @@ public class TaskServiceTest {
         TaskResponseDto dto = response.getData().get(0);
         assertEquals("Task A", dto.getTitle());
         assertEquals("Nhan Pham", dto.getAssignedFullName());
-        verify(taskRepository).findAll(any(Pageable.class));
+        verify(taskRepository).findTaskList(any(Pageable.class));
     }
 
     // get all tasks with pagination - success: empty page
@@ -298,8 +490,8 @@ public class TaskServiceTest {
                 pageable,
                 0);
 
-        Mockito.when(taskRepository.findAll(any(Pageable.class)))
-                .thenReturn(taskPage);
+        Mockito.when(taskRepository.findTaskList(any(Pageable.class)))
+                .thenReturn(taskPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasks(1, 10, "title", "asc");
@@ -311,11 +503,114 @@ public class TaskServiceTest {
         assertEquals(0, response.getTotalElements());
         assertEquals(0, response.getTotalPages());
 
-        verify(taskRepository).findAll(any(Pageable.class));
+        verify(taskRepository).findTaskList(any(Pageable.class));
+    }
+
+    // get all tasks without total - uses slice query, no COUNT
+    @Test
+    void getAllTasks_withoutTotal_usesSlice() {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Task A");
+        task.setStatus(TaskStatus.OPEN);
+
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id").ascending());
+        Slice<Task> taskSlice = new SliceImpl<>(List.of(task), pageable, true);
+
+        when(taskRepository.findTaskListSlice(any(Pageable.class)))
+                .thenReturn(taskSlice.map(this::row));
+
+        PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasks(0, 1, "id", "asc", false);
+
+        assertEquals(1, response.getData().size());
+        assertTrue(response.isHasNext());
+        assertEquals(-1, response.getTotalElements());
+        assertEquals(-1, response.getTotalPages());
+
+        verify(taskRepository).findTaskListSlice(any(Pageable.class));
+        verify(taskRepository, never()).findTaskList(any(Pageable.class));
     }
 
     // ======= END GET ALL TASKS WITH PAGINATION =======
 
+    // ======= GET ALL TASKS WITH KEYSET PAGINATION =======
+
+    // first cursor page - returns next cursor built from the last row
+    @Test
+    void getAllTasksByCursor_firstPage_returnsNextCursor() {
+        Task task1 = new Task();
+        task1.setId(1L);
+        task1.setTitle("Task A");
+        task1.setStatus(TaskStatus.OPEN);
+
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setTitle("Task B");
+        task2.setStatus(TaskStatus.OPEN);
+
+        Window<Task> window = Window.from(List.of(task1, task2), ScrollPosition::offset, true);
+
+        when(taskRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(window);
+
+        PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasksByCursor("", 2, "title", "asc");
+
+        assertEquals(2, response.getData().size());
+        assertTrue(response.isHasNext());
+        assertEquals(-1, response.getTotalElements());
+        assertEquals(new TaskCursor("title", "Task B", 2L).encode(), response.getNextCursor());
+
+        verify(taskRepository).findAllBy(
+                eq(ScrollPosition.keyset()),
+                eq(Sort.by(Sort.Direction.ASC, "title", "id")),
+                eq(Limit.of(2)));
+    }
+
+    // next cursor page - seeks after the decoded position, last page has no cursor
+    @Test
+    void getAllTasksByCursor_lastPage_seeksAfterCursor() {
+        Task task = new Task();
+        task.setId(3L);
+        task.setTitle("Task C");
+        task.setStatus(TaskStatus.OPEN);
+
+        Window<Task> window = Window.from(List.of(task), ScrollPosition::offset, false);
+
+        when(taskRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(window);
+
+        String cursor = new TaskCursor("title", "Task B", 2L).encode();
+        PaginatedResponseDto<TaskResponseDto> response = taskService.getAllTasksByCursor(cursor, 2, "title", "desc");
+
+        assertEquals(1, response.getData().size());
+        assertTrue(response.isHasPrevious());
+        assertNull(response.getNextCursor());
+
+        ArgumentCaptor<ScrollPosition> captor = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(taskRepository).findAllBy(
+                captor.capture(),
+                eq(Sort.by(Sort.Direction.DESC, "title", "id")),
+                eq(Limit.of(2)));
+        KeysetScrollPosition position = (KeysetScrollPosition) captor.getValue();
+        assertEquals("Task B", position.getKeys().get("title"));
+        assertEquals(2L, position.getKeys().get("id"));
+    }
+
+    // cursor issued for another sort key - throw exception
+    @Test
+    void getAllTasksByCursor_cursorForOtherSort_throwException() {
+        String cursor = new TaskCursor("id", 2L, 2L).encode();
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> taskService.getAllTasksByCursor(cursor, 10, "title", "asc"));
+
+        assertEquals("Invalid cursor", ex.getMessage());
+        verify(taskRepository, never()).findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
+    }
+
+    // ======= END GET ALL TASKS WITH KEYSET PAGINATION =======
+
     // ======= DELETE TASK BY ID TEST =======
 
     // delete task by id - success
@@ -336,6 +631,9 @@ public class TaskServiceTest {
         // then
         verify(taskRepository).findById(taskId);
         verify(taskRepository).deleteById(taskId);
+        verify(taskHistoryArchiveRepository).deleteByTaskId(taskId);
+        verify(taskStatsService).taskDeleted(task);
+        verify(statisticsCache).evictTask(task.getCreatedAt(), (Long) null);
     }
 
     // delete task by id - failure: task not found
@@ -380,9 +678,6 @@ public class TaskServiceTest {
         dto.setDeadline(LocalDate.now().plusDays(1));
         dto.setStatus("IN_PROGRESS");
 
-        User updater = new User();
-        updater.setId(currentUserId);
-
         Mockito.when(taskRepository.findById(taskId))
                 .thenReturn(Optional.of(task));
 
@@ -393,15 +688,22 @@ public class TaskServiceTest {
                 .thenReturn("OLD_DATA")
                 .thenReturn("NEW_DATA");
 
-        Mockito.when(userRepository.findById(currentUserId))
-                .thenReturn(Optional.of(updater));
-
         // when
         TaskResponseDto result = taskService.updateTask(dto, currentUserId);
 
         // then
         assertEquals("New title", result.getTitle());
-        verify(taskHistoryRepository).save(any(TaskHistory.class));
+        verify(taskHistoryWriter).enqueue(any(TaskHistoryEvent.class));
+
+        // only the changed fields are serialized, not full snapshots
+        ArgumentCaptor<Object> serialized = ArgumentCaptor.forClass(Object.class);
+        verify(objectMapper, times(2)).writeValueAsString(serialized.capture());
+        Map<?, ?> oldValues = (Map<?, ?>) serialized.getAllValues().get(0);
+        Map<?, ?> newValues = (Map<?, ?>) serialized.getAllValues().get(1);
+        assertEquals(List.of("title", "status", "deadline"), List.copyOf(newValues.keySet()));
+        assertEquals("Old title", oldValues.get("title"));
+        assertEquals("OPEN", oldValues.get("status"));
+        assertEquals("IN_PROGRESS", newValues.get("status"));
     }
 
     // update task - success don't save history
@@ -417,6 +719,7 @@ public class TaskServiceTest {
 
         UpdateTaskRequestDto dto = new UpdateTaskRequestDto();
         dto.setId(taskId);
+        dto.setAllowUserUpdate(true);
 
         Mockito.when(taskRepository.findById(taskId))
                 .thenReturn(Optional.of(task));
@@ -424,17 +727,12 @@ public class TaskServiceTest {
         Mockito.when(taskRepository.save(any(Task.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("SAME_DATA");
-
-        Mockito.when(userRepository.findById(currentUserId))
-                .thenReturn(Optional.of(new User()));
-
         // when
         taskService.updateTask(dto, currentUserId);
 
         // then
-        verify(taskHistoryRepository, never()).save(any());
+        verify(taskHistoryWriter, never()).enqueue(any());
+        verify(userRepository, never()).findById(any());
     }
 
     // update task - failure: task not found
@@ -466,9 +764,6 @@ public class TaskServiceTest {
         Mockito.when(taskRepository.findById(1L))
                 .thenReturn(Optional.of(task));
 
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("OLD");
-
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> taskService.updateTask(dto, 1L));
 
@@ -489,9 +784,6 @@ public class TaskServiceTest {
         Mockito.when(taskRepository.findById(1L))
                 .thenReturn(Optional.of(task));
 
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("OLD_DATA");
-
         Mockito.when(userRepository.findById(99L))
                 .thenReturn(Optional.empty());
 
@@ -530,10 +822,10 @@ public class TaskServiceTest {
                 PageRequest.of(page, size),
                 2);
 
-        Mockito.when(taskRepository.findByAssignedUserId(
+        Mockito.when(taskRepository.findTaskListByUser(
                 eq(userId),
                 any(Pageable.class)))
-                .thenReturn(taskPage);
+                .thenReturn(taskPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> result = taskService.getTasksByUserId(userId, page, size, "id", "asc");
@@ -545,7 +837,7 @@ public class TaskServiceTest {
         assertEquals(2, result.getTotalElements());
         assertEquals(1, result.getTotalPages());
 
-        verify(taskRepository).findByAssignedUserId(eq(userId), any(Pageable.class));
+        verify(taskRepository).findTaskListByUser(eq(userId), any(Pageable.class));
     }
 
     // get task by user id - success: empty page
@@ -556,10 +848,10 @@ public class TaskServiceTest {
 
         Page<Task> emptyPage = Page.empty();
 
-        Mockito.when(taskRepository.findByAssignedUserId(
+        Mockito.when(taskRepository.findTaskListByUser(
                 eq(userId),
                 any(Pageable.class)))
-                .thenReturn(emptyPage);
+                .thenReturn(emptyPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> result = taskService.getTasksByUserId(userId, 0, 10, "id", "asc");
@@ -575,7 +867,7 @@ public class TaskServiceTest {
         // given
         Long userId = 1L;
 
-        Mockito.when(taskRepository.findByAssignedUserId(
+        Mockito.when(taskRepository.findTaskListByUser(
                 eq(userId),
                 any(Pageable.class)))
                 .thenReturn(Page.empty());
@@ -585,7 +877,7 @@ public class TaskServiceTest {
 
         // then
         ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
-        verify(taskRepository).findByAssignedUserId(eq(userId), captor.capture());
+        verify(taskRepository).findTaskListByUser(eq(userId), captor.capture());
 
         Pageable pageable = captor.getValue();
         assertEquals("id", pageable.getSort().iterator().next().getProperty());
@@ -597,7 +889,7 @@ public class TaskServiceTest {
         // given
         Long userId = 1L;
 
-        Mockito.when(taskRepository.findByAssignedUserId(
+        Mockito.when(taskRepository.findTaskListByUser(
                 eq(userId),
                 any(Pageable.class)))
                 .thenReturn(Page.empty());
@@ -607,7 +899,7 @@ public class TaskServiceTest {
 
         // then
         ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
-        verify(taskRepository).findByAssignedUserId(eq(userId), captor.capture());
+        verify(taskRepository).findTaskListByUser(eq(userId), captor.capture());
 
         Sort.Order order = captor.getValue().getSort().iterator().next();
         assertEquals(Sort.Direction.DESC, order.getDirection());
@@ -703,9 +995,9 @@ public class TaskServiceTest {
                 PageRequest.of(page, size),
                 1);
 
-        Mockito.when(taskRepository.findByTitleContainingIgnoreCase(
-                eq(title),
-                any(Pageable.class))).thenReturn(taskPage);
+        Mockito.when(taskRepository.searchTaskList(
+                eq("+test*"),
+                any(Pageable.class))).thenReturn(taskPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.searchTasksByTitle(title, page, size, "id", "asc");
@@ -720,8 +1012,8 @@ public class TaskServiceTest {
         assertEquals(10, response.getSize());
         assertEquals(1, response.getTotalElements());
 
-        verify(taskRepository).findByTitleContainingIgnoreCase(
-                eq(title),
+        verify(taskRepository).searchTaskList(
+                eq("+test*"),
                 any(Pageable.class));
     }
 
@@ -738,9 +1030,9 @@ public class TaskServiceTest {
                 PageRequest.of(page, size),
                 0);
 
-        Mockito.when(taskRepository.findByTitleContainingIgnoreCase(
-                eq(title),
-                any(Pageable.class))).thenReturn(emptyPage);
+        Mockito.when(taskRepository.searchTaskList(
+                eq("+notfound*"),
+                any(Pageable.class))).thenReturn(emptyPage.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.searchTasksByTitle(title, page, size, "title",
@@ -751,10 +1043,102 @@ public class TaskServiceTest {
         assertEquals(0, response.getTotalElements());
         assertEquals(0, response.getTotalPages());
 
-        verify(taskRepository).findByTitleContainingIgnoreCase(
-                eq(title),
+        verify(taskRepository).searchTaskList(
+                eq("+notfound*"),
                 any(Pageable.class));
     }
+
+    // search tasks by title - every word becomes a prefix term, ranked by relevance
+    @Test
+    void searchTasksByTitle_sortByRelevance_prefixTerms() {
+        Mockito.when(taskRepository.searchTaskList(
+                eq("+rep* +sta*"),
+                any(Pageable.class))).thenReturn(Page.empty());
+
+        taskService.searchTasksByTitle("rep (sta", 0, 10, "relevance", "asc");
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(taskRepository).searchTaskList(eq("+rep* +sta*"), captor.capture());
+
+        Sort.Order order = captor.getValue().getSort().iterator().next();
+        assertEquals("score", order.getProperty());
+        assertEquals(Sort.Direction.DESC, order.getDirection());
+    }
+
+    // search tasks by title - words too short for the index fall back to a title match
+    @Test
+    void searchTasksByTitle_shortWords_fallbackToTitleMatch() {
+        Mockito.when(taskRepository.findTaskListByTitle(
+                eq("ab"),
+                any(Pageable.class))).thenReturn(Page.empty());
+
+        PaginatedResponseDto<TaskResponseDto> response = taskService.searchTasksByTitle("ab", 0, 10, "relevance",
+                "asc");
+
+        assertTrue(response.getData().isEmpty());
+        verify(taskRepository, never()).searchTaskList(anyString(), any(Pageable.class));
+    }
+
+    private static TaskSearchProjection searchRow(long id, double score) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("title", "Task " + id);
+        values.put("status", TaskStatus.OPEN);
+        values.put("allowUserUpdate", false);
+        values.put("score", score);
+        return new SpelAwareProxyProjectionFactory().createProjection(TaskSearchProjection.class, values);
+    }
+
+    // cursor search - full-text rows by relevance, the extra row only tells that a next page exists
+    @Test
+    void searchTasksByTitleByCursor_relevance_nextCursorFromScore() {
+        when(taskRepository.searchTaskListAfter("+report*", null, "score", true, null, null, 3))
+                .thenReturn(List.of(searchRow(7L, 2.5), searchRow(4L, 1.5), searchRow(9L, 0.5)));
+
+        PaginatedResponseDto<TaskResponseDto> response = taskService.searchTasksByTitleByCursor("report", "", 2,
+                "relevance", "asc");
+
+        assertEquals(2, response.getData().size());
+        assertTrue(response.isHasNext());
+        assertFalse(response.isHasPrevious());
+        assertEquals(new TaskCursor("relevance", 1.5, 4L).encode(), response.getNextCursor());
+        verify(taskRepository, never()).findByTitleContainingIgnoreCase(anyString(), any(ScrollPosition.class),
+                any(Sort.class), any(Limit.class));
+    }
+
+    // cursor search by user - seeks after the (sort key, id) of the cursor
+    @Test
+    void getTasksByUserAndTitleByCursor_seeksAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        when(taskRepository.searchTaskListAfter("+report*", 3L, "createdAt", false, createdAt, 4L, 11))
+                .thenReturn(List.of(searchRow(5L, 1.0)));
+
+        String cursor = new TaskCursor("createdAt", createdAt, 4L).encode();
+        PaginatedResponseDto<TaskResponseDto> response = taskService.getTasksByUserAndTitleByCursor(3L, "report",
+                cursor, 10, "createdAt", "asc");
+
+        assertEquals(1, response.getData().size());
+        assertFalse(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        assertNull(response.getNextCursor());
+    }
+
+    // cursor search - words too short for the index keep the title keyset
+    @Test
+    void searchTasksByTitleByCursor_shortWords_fallbackToTitleMatch() {
+        when(taskRepository.findByTitleContainingIgnoreCase(anyString(), any(ScrollPosition.class), any(Sort.class),
+                any(Limit.class))).thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        taskService.searchTasksByTitleByCursor("ab", "", 10, "relevance", "asc");
+
+        verify(taskRepository).findByTitleContainingIgnoreCase(
+                eq("ab"),
+                eq(ScrollPosition.keyset()),
+                eq(Sort.by(Sort.Direction.ASC, "id")),
+                eq(Limit.of(10)));
+        verify(taskRepository, never()).searchTaskListAfter(anyString(), any(), anyString(), anyBoolean(), any(),
+                any(), anyInt());
+    }
     // ======= END SEARCH TASKS BY TITLE WITH PAGINATION =======
 
     // ======= FILTER TASKS WITH PAGINATION =======
@@ -792,7 +1176,7 @@ public class TaskServiceTest {
                 isNull(),
                 isNull(),
                 isNull(),
-                any(Pageable.class))).thenReturn(page);
+                any(Pageable.class))).thenReturn(page.map(this::row));
 
         PaginatedResponseDto<TaskResponseDto> response = taskService.filterTasks(dto);
 
@@ -827,7 +1211,7 @@ public class TaskServiceTest {
                 eq(TaskStatus.OPEN),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(emptyPage);
+                any(Pageable.class))).thenReturn(emptyPage.map(this::row));
 
         PaginatedResponseDto<TaskResponseDto> response = taskService.filterTasks(dto);
 
@@ -876,6 +1260,26 @@ public class TaskServiceTest {
         assertEquals("Invalid task status", ex.getMessage());
     }
 
+    // filter tasks without total - uses slice query, no COUNT
+    @Test
+    void filterTasks_withoutTotal_usesSlice() {
+        FilterTaskRequestDto dto = new FilterTaskRequestDto();
+        dto.setStatus("OPEN");
+        dto.setIncludeTotal(false);
+
+        Slice<TaskListProjection> taskSlice = new SliceImpl<>(List.of(), PageRequest.of(0, 10), false);
+
+        when(taskRepository.filterTasksSlice(any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(taskSlice);
+
+        PaginatedResponseDto<TaskResponseDto> response = taskService.filterTasks(dto);
+
+        assertTrue(response.getData().isEmpty());
+        assertEquals(-1, response.getTotalElements());
+
+        verify(taskRepository, never()).filterTasks(any(), any(), any(), any(), any(Pageable.class));
+    }
+
     // ======= END FILTER TASKS WITH PAGINATION =======
 
     // ======= GET TASKS BY USER ID AND TITLE WITH PAGINATION =======
@@ -906,10 +1310,10 @@ public class TaskServiceTest {
                 PageRequest.of(0, 10),
                 1);
 
-        Mockito.when(taskRepository.findByAssignedUserIdAndTitleContainingIgnoreCase(
+        Mockito.when(taskRepository.searchTaskListByUser(
                 eq(userId),
-                eq(title),
-                any(Pageable.class))).thenReturn(page);
+                eq("+report*"),
+                any(Pageable.class))).thenReturn(page.map(this::row));
 
         // when
         PaginatedResponseDto<TaskResponseDto> response = taskService.getTasksByUserAndTitle(userId, title, 0, 10, "id",
@@ -920,9 +1324,9 @@ public class TaskServiceTest {
         assertEquals("Monthly report", response.getData().get(0).getTitle());
         assertEquals("Nhan Pham", response.getData().get(0).getAssignedFullName());
 
-        verify(taskRepository).findByAssignedUserIdAndTitleContainingIgnoreCase(
+        verify(taskRepository).searchTaskListByUser(
                 eq(userId),
-                eq(title),
+                eq("+report*"),
                 any(Pageable.class));
     }
 
@@ -937,10 +1341,10 @@ public class TaskServiceTest {
                 PageRequest.of(0, 10),
                 0);
 
-        Mockito.when(taskRepository.findByAssignedUserIdAndTitleContainingIgnoreCase(
+        Mockito.when(taskRepository.searchTaskListByUser(
                 eq(userId),
-                eq(title),
-                any(Pageable.class))).thenReturn(emptyPage);
+                eq("+not* +exist*"),
+                any(Pageable.class))).thenReturn(emptyPage.map(this::row));
 
         PaginatedResponseDto<TaskResponseDto> response = taskService.getTasksByUserAndTitle(userId, title, 0, 10,
                 "title", "desc");
@@ -954,17 +1358,19 @@ public class TaskServiceTest {
     void getTasksByUserAndTitle_invalidSortBy_defaultToId() {
         Long userId = 1L;
 
-        Mockito.when(taskRepository.findByAssignedUserIdAndTitleContainingIgnoreCase(
+        Mockito.when(taskRepository.searchTaskListByUser(
                 eq(userId),
                 anyString(),
                 any(Pageable.class))).thenReturn(Page.empty());
 
         taskService.getTasksByUserAndTitle(userId, "test", 0, 10, "abc", "asc");
 
-        verify(taskRepository).findByAssignedUserIdAndTitleContainingIgnoreCase(
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(taskRepository).searchTaskListByUser(
                 eq(userId),
-                eq("test"),
-                any(Pageable.class));
+                eq("+test*"),
+                captor.capture());
+        assertEquals("id", captor.getValue().getSort().iterator().next().getProperty());
     }
 
     // ====== END GET TASKS BY USER ID AND TITLE WITH PAGINATION =======
@@ -1047,7 +1453,7 @@ public class TaskServiceTest {
                 isNull(),
                 isNull(),
                 isNull(),
-                any(Pageable.class))).thenReturn(page);
+                any(Pageable.class))).thenReturn(page.map(this::row));
 
         PaginatedResponseDto<TaskResponseDto> response = taskService.getTasksByUserAndStatus(dto);
 
@@ -1075,7 +1481,7 @@ public class TaskServiceTest {
                 eq(TaskStatus.OPEN),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(emptyPage);
+                any(Pageable.class))).thenReturn(emptyPage.map(this::row));
 
         PaginatedResponseDto<TaskResponseDto> response = taskService.getTasksByUserAndStatus(dto);
 
@@ -1152,9 +1558,6 @@ public class TaskServiceTest {
         Mockito.when(taskRepository.findById(1L))
                 .thenReturn(Optional.of(task));
 
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("old");
-
         UpdateTaskByUserRequestDto dto = new UpdateTaskByUserRequestDto();
         dto.setId(1L);
         dto.setDeadline(LocalDate.of(2024, 6, 1));
@@ -1183,12 +1586,6 @@ public class TaskServiceTest {
         Mockito.when(objectMapper.writeValueAsString(any()))
                 .thenReturn("old-data", "new-data");
 
-        User user = new User();
-        user.setId(10L);
-
-        Mockito.when(userRepository.findById(10L))
-                .thenReturn(Optional.of(user));
-
         UpdateTaskByUserRequestDto dto = new UpdateTaskByUserRequestDto();
         dto.setId(1L);
         dto.setTitle("New title");
@@ -1197,7 +1594,12 @@ public class TaskServiceTest {
 
         assertNotNull(response);
 
-        verify(taskHistoryRepository).save(any(TaskHistory.class));
+        ArgumentCaptor<TaskHistoryEvent> event = ArgumentCaptor.forClass(TaskHistoryEvent.class);
+        verify(taskHistoryWriter).enqueue(event.capture());
+        assertEquals(1L, event.getValue().taskId());
+        assertEquals(10L, event.getValue().updatedById());
+        assertEquals("old-data", event.getValue().oldData());
+        assertEquals("new-data", event.getValue().newData());
     }
 
     // update task by user id - success but no history saved
@@ -1214,183 +1616,51 @@ public class TaskServiceTest {
         Mockito.when(taskRepository.save(any(Task.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("same-data");
-
         UpdateTaskByUserRequestDto dto = new UpdateTaskByUserRequestDto();
         dto.setId(1L);
 
         taskService.updateTaskByUser(dto, 10L);
 
-        verify(taskHistoryRepository, never()).save(any());
-    }
-
-    // update task by user id - assigned user not found
-    @Test
-    void updateTaskByUser_updatedByNotFound_throwException() throws Exception {
-        Task task = new Task();
-        task.setId(1L);
-        task.setAllowUserUpdate(true);
-        task.setCreatedAt(LocalDateTime.now());
-
-        Mockito.when(taskRepository.findById(1L))
-                .thenReturn(Optional.of(task));
-
-        Mockito.when(taskRepository.save(any(Task.class)))
-                .thenAnswer(inv -> inv.getArgument(0));
-
-        Mockito.when(objectMapper.writeValueAsString(any()))
-                .thenReturn("old", "new");
-
-        Mockito.when(userRepository.findById(10L))
-                .thenReturn(Optional.empty());
-
-        UpdateTaskByUserRequestDto dto = new UpdateTaskByUserRequestDto();
-        dto.setId(1L);
-
-        RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> taskService.updateTaskByUser(dto, 10L));
-
-        assertEquals("User not found", ex.getMessage());
+        verify(taskHistoryWriter, never()).enqueue(any());
     }
 
     // ====== END UPDATE TASK BY USER ID TEST =======
 
     // ====== GET TASKS FOR EXPORT TEST =======
 
-    // get tasks for export - success
+    // stream tasks for export - rows are converted and the stream is closed
     @Test
-    void getTasksForExport_success() {
-        // ===== Arrange =====
-        UserProfile profile = new UserProfile();
-        profile.setFullName("Nguyen Van A");
-
-        User user = new User();
-        user.setId(1L);
-        user.setProfile(profile);
-
+    void streamTasksForExport_allTasks_closesStream() {
         Task task = new Task();
         task.setId(10L);
         task.setTitle("Test task");
-        task.setDescription("Test description");
         task.setStatus(TaskStatus.OPEN);
-        task.setAllowUserUpdate(true);
-        task.setAssignedUser(user);
-        task.setCreatedAt(LocalDateTime.now());
-        task.setDeadline(LocalDate.now().plusDays(3));
-
-        when(taskRepository.findAll()).thenReturn(List.of(task));
 
-        // ===== Act =====
-        List<TaskResponseDto> result = taskService.getTasksForExport();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamTaskList())
+                .thenReturn(Stream.of(row(task)).onClose(() -> closed.set(true)));
 
-        // ===== Assert =====
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        List<TaskResponseDto> exported = new ArrayList<>();
+        taskService.streamTasksForExport(null, tasks -> tasks.forEach(exported::add));
 
-        TaskResponseDto dto = result.get(0);
-        assertEquals(10L, dto.getId());
-        assertEquals("Test task", dto.getTitle());
-        assertEquals("Test description", dto.getDescription());
-        assertEquals("OPEN", dto.getStatus());
-        assertEquals(true, dto.isAllowUserUpdate());
-        assertEquals(1L, dto.getAssignedUserId());
-        assertEquals("Nguyen Van A", dto.getAssignedFullName());
-
-        verify(taskRepository, times(1)).findAll();
+        assertEquals(1, exported.size());
+        assertEquals("Test task", exported.get(0).getTitle());
+        assertTrue(closed.get());
+        verify(taskRepository, never()).findAll();
     }
 
-    // get tasks for export - empty result
+    // stream tasks for export - user id selects the user's tasks
     @Test
-    void getTasksForExport_emptyList() {
-        when(taskRepository.findAll()).thenReturn(Collections.emptyList());
-
-        List<TaskResponseDto> result = taskService.getTasksForExport();
+    void streamTasksForExport_byUser() {
+        when(taskRepository.streamTaskListByUser(1L)).thenReturn(Stream.empty());
 
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        List<TaskResponseDto> exported = new ArrayList<>();
+        taskService.streamTasksForExport(1L, tasks -> tasks.forEach(exported::add));
 
-        verify(taskRepository, times(1)).findAll();
+        assertTrue(exported.isEmpty());
+        verify(taskRepository, never()).streamTaskList();
     }
 
     // ====== END GET TASKS FOR EXPORT TEST =======
 
-    // ====== GET TASK TASKS FOR USER EXPORT TEST=======
-
-    // get tasks for user export - success
-    @Test
-    void getTasksForExportByUserId_success() {
-        // ===== Arrange =====
-        Long userId = 1L;
-
-        UserProfile profile = new UserProfile();
-        profile.setFullName("Nguyen Van A");
-
-        User user = new User();
-        user.setId(userId);
-        user.setProfile(profile);
-
-        Task task1 = new Task();
-        task1.setId(10L);
-        task1.setTitle("Task 1");
-        task1.setDescription("Description 1");
-        task1.setStatus(TaskStatus.OPEN);
-        task1.setAllowUserUpdate(true);
-        task1.setAssignedUser(user);
-        task1.setCreatedAt(LocalDateTime.now());
-        task1.setDeadline(LocalDate.now().plusDays(2));
-
-        Task task2 = new Task();
-        task2.setId(11L);
-        task2.setTitle("Task 2");
-        task2.setDescription("Description 2");
-        task2.setStatus(TaskStatus.IN_PROGRESS);
-        task2.setAllowUserUpdate(false);
-        task2.setAssignedUser(user);
-        task2.setCreatedAt(LocalDateTime.now());
-        task2.setDeadline(LocalDate.now().plusDays(5));
-
-        when(taskRepository.findByAssignedUserId(userId))
-                .thenReturn(List.of(task1, task2));
-
-        // ===== Act =====
-        List<TaskResponseDto> result = taskService.getTasksForExportByUserId(userId);
-
-        // ===== Assert =====
-        assertNotNull(result);
-        assertEquals(2, result.size());
-
-        TaskResponseDto dto1 = result.get(0);
-        assertEquals(10L, dto1.getId());
-        assertEquals("Task 1", dto1.getTitle());
-        assertEquals("OPEN", dto1.getStatus());
-        assertEquals(userId, dto1.getAssignedUserId());
-        assertEquals("Nguyen Van A", dto1.getAssignedFullName());
-
-        TaskResponseDto dto2 = result.get(1);
-        assertEquals(11L, dto2.getId());
-        assertEquals("Task 2", dto2.getTitle());
-        assertEquals("IN_PROGRESS", dto2.getStatus());
-
-        verify(taskRepository, times(1))
-                .findByAssignedUserId(userId);
-    }
-
-    // get tasks for user export - empty result
-    @Test
-    void getTasksForExportByUserId_emptyList() {
-        Long userId = 99L;
-
-        when(taskRepository.findByAssignedUserId(userId))
-                .thenReturn(Collections.emptyList());
-
-        List<TaskResponseDto> result = taskService.getTasksForExportByUserId(userId);
-
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-
-        verify(taskRepository, times(1))
-                .findByAssignedUserId(userId);
-    }
-
 }
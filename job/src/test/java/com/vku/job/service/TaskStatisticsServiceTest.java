@@ -11,6 +11,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,12 +21,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.vku.job.dtos.statistics.TaskForUserResponse;
 import com.vku.job.dtos.statistics.TaskSummaryResponse;
 import com.vku.job.enums.TaskStatus;
-import com.vku.job.repositories.TaskJpaRepository;
+import com.vku.job.repositories.TaskStatJpaRepository;
 import com.vku.job.repositories.UserJpaRepository;
 import com.vku.job.repositories.projection.TaskForUserProjection;
 import com.vku.job.repositories.projection.TaskStatusUserProjection;
@@ -33,6 +35,9 @@ import com.vku.job.repositories.projection.TaskSummaryProjection;
 import com.vku.job.services.MailService;
 import com.vku.job.services.StatisticsService;
 import com.vku.job.services.TaskPdfService;
+import com.vku.job.services.statistics.StatisticsCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Unit tests for StatisticsService.
@@ -46,7 +51,7 @@ class TaskStatisticsServiceTest {
         private StatisticsService statisticsService;
 
         @Mock
-        private TaskJpaRepository taskJpaRepository;
+        private TaskStatJpaRepository taskStatJpaRepository;
 
         @Mock
         private TaskPdfService taskPdfService;
@@ -57,6 +62,10 @@ class TaskStatisticsServiceTest {
         @Mock
         private UserJpaRepository userJpaRepository;
 
+        @Spy
+        private StatisticsCache statisticsCache = new StatisticsCache(100, Duration.ofMinutes(5),
+                        new SimpleMeterRegistry());
+
         // ====== GET TASKS SUMMARY BY STATUS TESTS ======
 
         @Nested
@@ -71,7 +80,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getStatus()).thenReturn("OPEN");
                         when(projection.getCount()).thenReturn(5L);
 
-                        when(taskJpaRepository.countTasksByStatusBetween(any(), any()))
+                        when(taskStatJpaRepository.countTasksByStatusBetween(any(), any()))
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -82,7 +91,7 @@ class TaskStatisticsServiceTest {
                         assertThat(result).hasSize(1);
                         assertThat(result.get(0).getStatus()).isEqualTo("OPEN");
                         assertThat(result.get(0).getValue()).isEqualTo(5L);
-                        verify(taskJpaRepository).countTasksByStatusBetween(any(), any());
+                        verify(taskStatJpaRepository).countTasksByStatusBetween(any(), any());
                 }
 
                 @Test
@@ -111,7 +120,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getStatus()).thenReturn("DONE");
                         when(projection.getCount()).thenReturn(10L);
 
-                        when(taskJpaRepository.countTasksByStatus())
+                        when(taskStatJpaRepository.countTasksByStatus())
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -125,7 +134,7 @@ class TaskStatisticsServiceTest {
                                                 assertThat(response.getStatus()).isEqualTo("DONE");
                                                 assertThat(response.getValue()).isEqualTo(10L);
                                         });
-                        verify(taskJpaRepository).countTasksByStatus();
+                        verify(taskStatJpaRepository).countTasksByStatus();
                 }
         }
 
@@ -141,7 +150,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getFullName()).thenReturn("Nguyen Van A");
                         when(projection.getCount()).thenReturn(3L);
 
-                        when(taskJpaRepository.countTasksByUserBetween(any(), any()))
+                        when(taskStatJpaRepository.countTasksByUserBetween(any(), any()))
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -156,7 +165,7 @@ class TaskStatisticsServiceTest {
                                                 assertThat(response.getUser()).isEqualTo("Nguyen Van A");
                                                 assertThat(response.getTotal()).isEqualTo(3L);
                                         });
-                        verify(taskJpaRepository).countTasksByUserBetween(any(), any());
+                        verify(taskStatJpaRepository).countTasksByUserBetween(any(), any());
                 }
 
                 @Test
@@ -185,7 +194,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getFullName()).thenReturn("Tran Thi B");
                         when(projection.getCount()).thenReturn(7L);
 
-                        when(taskJpaRepository.countTasksByUser())
+                        when(taskStatJpaRepository.countTasksByUser())
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -199,7 +208,7 @@ class TaskStatisticsServiceTest {
                                                 assertThat(response.getUser()).isEqualTo("Tran Thi B");
                                                 assertThat(response.getTotal()).isEqualTo(7L);
                                         });
-                        verify(taskJpaRepository).countTasksByUser();
+                        verify(taskStatJpaRepository).countTasksByUser();
                 }
         }
 
@@ -215,7 +224,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getStatus()).thenReturn("OPEN");
                         when(projection.getValue()).thenReturn(2L);
 
-                        when(taskJpaRepository.countTasksByStatusByUserBetween(eq(1L), any(), any()))
+                        when(taskStatJpaRepository.countTasksByStatusByUserBetween(eq(1L), any(), any()))
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -231,7 +240,7 @@ class TaskStatisticsServiceTest {
                                         .orElseThrow();
 
                         assertThat(openStatus.getValue()).isEqualTo(2L);
-                        verify(taskJpaRepository).countTasksByStatusByUserBetween(eq(1L), any(), any());
+                        verify(taskStatJpaRepository).countTasksByStatusByUserBetween(eq(1L), any(), any());
                 }
 
                 @Test
@@ -262,7 +271,7 @@ class TaskStatisticsServiceTest {
                         when(projection.getStatus()).thenReturn("DONE");
                         when(projection.getCount()).thenReturn(5L);
 
-                        when(taskJpaRepository.countTasksByStatusByUser(1L))
+                        when(taskStatJpaRepository.countTasksByStatusByUser(1L))
                                         .thenReturn(List.of(projection));
 
                         // When
@@ -278,7 +287,7 @@ class TaskStatisticsServiceTest {
                                         .orElseThrow();
 
                         assertThat(doneStatus.getValue()).isEqualTo(5L);
-                        verify(taskJpaRepository).countTasksByStatusByUser(1L);
+                        verify(taskStatJpaRepository).countTasksByStatusByUser(1L);
                 }
 
                 @Test
@@ -312,11 +321,11 @@ class TaskStatisticsServiceTest {
                         when(statusUserProjection.getStatus()).thenReturn("OPEN");
                         when(statusUserProjection.getValue()).thenReturn(3L);
 
-                        when(taskJpaRepository.countTasksByStatusBetween(any(), any()))
+                        when(taskStatJpaRepository.countTasksByStatusBetween(any(), any()))
                                         .thenReturn(List.of(statusProjection));
-                        when(taskJpaRepository.countTasksByUserBetween(any(), any()))
+                        when(taskStatJpaRepository.countTasksByUserBetween(any(), any()))
                                         .thenReturn(List.of(userProjection));
-                        when(taskJpaRepository.countTasksByStatusByAllUserBetween(any(), any()))
+                        when(taskStatJpaRepository.countTasksByStatusByAllUserBetween(any(), any()))
                                         .thenReturn(List.of(statusUserProjection));
 
                         byte[] pdfBytes = new byte[] { 1, 2, 3 };
@@ -330,13 +339,13 @@ class TaskStatisticsServiceTest {
                         statisticsService.exportWeeklyTaskReportPdf();
 
                         // Then
-                        verify(taskJpaRepository).countTasksByStatusBetween(any(), any());
-                        verify(taskJpaRepository).countTasksByUserBetween(any(), any());
-                        verify(taskJpaRepository).countTasksByStatusByAllUserBetween(any(), any());
+                        verify(taskStatJpaRepository).countTasksByStatusBetween(any(), any());
+                        verify(taskStatJpaRepository).countTasksByUserBetween(any(), any());
+                        verify(taskStatJpaRepository).countTasksByStatusByAllUserBetween(any(), any());
                         verify(taskPdfService).exportWeeklyTaskReportPdf(any());
                         verify(userJpaRepository).findAdminEmails();
-                        verify(mailService, times(2)).sendPdfReport(
-                                        anyString(),
+                        verify(mailService).sendPdfReport(
+                                        eq(List.of("admin1@test.com", "admin2@test.com")),
                                         eq(pdfBytes),
                                         contains("Weekly Task Report"),
                                         anyString());
@@ -362,7 +371,7 @@ class TaskStatisticsServiceTest {
                         when(doneProjection.getStatus()).thenReturn("DONE");
                         when(doneProjection.getCount()).thenReturn(5L);
 
-                        when(taskJpaRepository.countTasksByStatusBetween(start, end))
+                        when(taskStatJpaRepository.countTasksByStatusBetween(start.toLocalDate(), end.toLocalDate()))
                                         .thenReturn(List.of(openProjection, doneProjection));
 
                         // When
@@ -393,7 +402,7 @@ class TaskStatisticsServiceTest {
                                         .getValue())
                                         .isEqualTo(0L);
 
-                        verify(taskJpaRepository).countTasksByStatusBetween(start, end);
+                        verify(taskStatJpaRepository).countTasksByStatusBetween(start.toLocalDate(), end.toLocalDate());
                 }
         }
 
@@ -416,7 +425,7 @@ class TaskStatisticsServiceTest {
                         when(projection2.getFullName()).thenReturn("User B");
                         when(projection2.getCount()).thenReturn(2L);
 
-                        when(taskJpaRepository.countTasksByUserBetween(start, end))
+                        when(taskStatJpaRepository.countTasksByUserBetween(start.toLocalDate(), end.toLocalDate()))
                                         .thenReturn(List.of(projection1, projection2));
 
                         // When
@@ -433,7 +442,82 @@ class TaskStatisticsServiceTest {
                                                 assertThat(responses.get(1).getTotal()).isEqualTo(2L);
                                         });
 
-                        verify(taskJpaRepository).countTasksByUserBetween(start, end);
+                        verify(taskStatJpaRepository).countTasksByUserBetween(start.toLocalDate(), end.toLocalDate());
+                }
+        }
+
+        // ====== STATISTICS CACHE TESTS ======
+
+        @Nested
+        @DisplayName("Statistics cache Tests")
+        class StatisticsCacheTests {
+
+                private void givenUserStatistics(Long userId) {
+                        TaskSummaryProjection projection = mock(TaskSummaryProjection.class);
+                        when(projection.getStatus()).thenReturn("OPEN");
+                        when(projection.getCount()).thenReturn(1L);
+                        when(taskStatJpaRepository.countTasksByStatusByUser(userId)).thenReturn(List.of(projection));
+                }
+
+                @Test
+                @DisplayName("Should query the database once for repeated requests")
+                void shouldServeRepeatedRequestsFromCache() {
+                        // Given
+                        when(taskStatJpaRepository.countTasksByStatus()).thenReturn(List.of());
+
+                        // When
+                        statisticsService.getTaskSummaryByStatus(null, null);
+                        statisticsService.getTaskSummaryByStatus(null, null);
+
+                        // Then
+                        verify(taskStatJpaRepository, times(1)).countTasksByStatus();
+                }
+
+                @Test
+                @DisplayName("Should keep entries of users and date ranges a write does not touch")
+                void shouldEvictOnlyAffectedEntries() {
+                        // Given
+                        givenUserStatistics(1L);
+                        givenUserStatistics(2L);
+                        when(taskStatJpaRepository.countTasksByStatusBetween(any(), any())).thenReturn(List.of());
+
+                        statisticsService.getTaskStatisticsByUser(1L, null, null);
+                        statisticsService.getTaskStatisticsByUser(2L, null, null);
+                        statisticsService.getTaskSummaryByStatus("2026-01-01", "2026-01-31");
+
+                        // When: a task of user 2 created in February changes
+                        statisticsCache.evictTask(LocalDateTime.of(2026, 2, 10, 9, 0), 2L);
+
+                        statisticsService.getTaskStatisticsByUser(1L, null, null);
+                        statisticsService.getTaskStatisticsByUser(2L, null, null);
+                        statisticsService.getTaskSummaryByStatus("2026-01-01", "2026-01-31");
+
+                        // Then
+                        verify(taskStatJpaRepository, times(1)).countTasksByStatusByUser(1L);
+                        verify(taskStatJpaRepository, times(2)).countTasksByStatusByUser(2L);
+                        verify(taskStatJpaRepository, times(1)).countTasksByStatusBetween(any(), any());
+                }
+
+                @Test
+                @DisplayName("Should record hits and misses")
+                void shouldRecordHitAndMissMetrics() {
+                        // Given
+                        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                        StatisticsService service = new StatisticsService(taskStatJpaRepository, taskPdfService,
+                                        mailService, userJpaRepository,
+                                        new StatisticsCache(100, Duration.ofMinutes(5), registry));
+                        when(taskStatJpaRepository.countTasksByUser()).thenReturn(List.of());
+
+                        // When
+                        service.getTaskSummaryByUser(null, null);
+                        service.getTaskSummaryByUser(null, null);
+                        service.getTaskSummaryByUser(null, null);
+
+                        // Then
+                        assertThat(registry.get("cache.gets").tag("cache", "statistics").tag("result", "hit")
+                                        .functionCounter().count()).isEqualTo(2.0);
+                        assertThat(registry.get("cache.gets").tag("cache", "statistics").tag("result", "miss")
+                                        .functionCounter().count()).isEqualTo(1.0);
                 }
         }
 }
@@ -37,6 +37,8 @@ import com.vku.job.entities.UserProfile;
 import com.vku.job.repositories.UserJpaRepository;
 import com.vku.job.repositories.projection.FullNameUserProjection;
 import com.vku.job.services.UserService;
+import com.vku.job.services.auth.CustomUserDetailsService;
+import com.vku.job.services.auth.OtpHasher;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -49,6 +51,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private OtpHasher otpHasher;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     // ======== GET ALL USER FULLNAME ========
 
     // get all user fullname - success case
@@ -212,6 +220,7 @@ public class UserServiceTest {
 
         assertEquals(0, user.getIsActive());
         verify(userJpaRepository).save(user);
+        verify(userDetailsService).evict(1L);
     }
 
     // change user active status - success case active = 0
@@ -332,6 +341,7 @@ public class UserServiceTest {
         assertEquals("encoded-new", user.getPassword());
 
         verify(userJpaRepository).save(user);
+        verify(userDetailsService).evict(1L);
     }
 
     // change password - user not found
@@ -408,7 +418,9 @@ public class UserServiceTest {
         Mockito.when(userJpaRepository.findByEmail("a@gmail.com"))
                 .thenReturn(Optional.of(user));
 
-        Mockito.when(passwordEncoder.matches("123456", "hashed-otp"))
+        Mockito.when(userJpaRepository.consumeOtpAttempt(Mockito.any(), Mockito.anyInt()))
+                .thenReturn(1);
+        Mockito.when(otpHasher.matches("a@gmail.com", "123456", "hashed-otp"))
                 .thenReturn(true);
 
         Mockito.when(passwordEncoder.encode("new123"))
@@ -422,6 +434,7 @@ public class UserServiceTest {
         assertNull(user.getEmailOtpExpiry());
 
         verify(userJpaRepository).save(user);
+        verify(userDetailsService).evict(user.getId());
     }
 
     // reset password - user not found
@@ -496,7 +509,9 @@ public class UserServiceTest {
 
         Mockito.when(userJpaRepository.findByEmail("nhan@gmail.com"))
                 .thenReturn(Optional.of(user));
-        Mockito.when(passwordEncoder.matches("wrong-otp", "hashed-otp"))
+        Mockito.when(userJpaRepository.consumeOtpAttempt(Mockito.any(), Mockito.anyInt()))
+                .thenReturn(1);
+        Mockito.when(otpHasher.matches("nhan@gmail.com", "wrong-otp", "hashed-otp"))
                 .thenReturn(false);
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             userService.resetPassword(
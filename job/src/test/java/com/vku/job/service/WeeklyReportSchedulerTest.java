@@ -0,0 +1,33 @@
+package com.vku.job.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.vku.job.services.StatisticsService;
+import com.vku.job.services.WeeklyReportScheduler;
+
+// The flag only switches the Monday schedule; StatisticsService itself always sends the report
+public class WeeklyReportSchedulerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(StatisticsService.class, () -> mock(StatisticsService.class))
+            .withUserConfiguration(WeeklyReportScheduler.class);
+
+    @Test
+    void disabledByDefault_noSchedule() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(WeeklyReportScheduler.class));
+    }
+
+    @Test
+    void enabled_scheduleDelegatesToReport() {
+        contextRunner.withPropertyValues("app.reports.weekly.enabled=true").run(context -> {
+            context.getBean(WeeklyReportScheduler.class).exportWeeklyTaskReport();
+
+            verify(context.getBean(StatisticsService.class)).exportWeeklyTaskReportPdf();
+        });
+    }
+}